@@ -0,0 +1,70 @@
+package GameSearch.mancala;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// GameSearch.alphaBeta à chaque difficulté, recherche historique (copies de positions) ou en place
+// (MancalaEngine), à la profondeur nominale de la difficulté (Mancala.maxDepth) et table vidée à
+// chaque appel. Le compteur nodes donne le nombre de nœuds par seconde
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlphaBetaBenchmark {
+    @Param({"SIMPLE", "MEDIUM", "HARD"})
+    public Mancala.Difficulty difficulty;
+
+    @Param({"true", "false"})
+    public boolean inPlace;
+
+    private Mancala game;
+    private MancalaPosition root;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp(BenchmarkPositions positions) {
+        game = new Mancala();
+        game.setDifficulty(difficulty);
+        game.setInPlaceSearch(inPlace);
+        game.setSearchLimits(SearchLimits.depth(game.maxDepth(positions.board)));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable(BenchmarkPositions positions) {
+        game.getTranspositionTable().clear();
+        root = positions.copy();
+    }
+
+    @Benchmark
+    public List<Object> alphaBeta(BenchmarkPositions positions, Nodes nodes) {
+        List<Object> result = game.alphaBeta(0, root, positions.player);
+        nodes.nodes += game.getNodeCount();
+        return result;
+    }
+}
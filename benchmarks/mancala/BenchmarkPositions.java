@@ -0,0 +1,33 @@
+package GameSearch.mancala;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Position de PositionSuite.fixed() choisie par le paramètre position (ouverture, milieu, finale)
+@State(Scope.Thread)
+public class BenchmarkPositions {
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    public MancalaPosition board;
+    public boolean player;
+
+    @Setup
+    public void load() {
+        for (PositionSuite.Entry entry : PositionSuite.fixed()) {
+            if (entry.name.equals(position)) {
+                board = entry.position();
+                player = entry.player;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unknown position: " + position);
+    }
+
+    // Copie de la position (la recherche et makeMove modifient leur argument)
+    public MancalaPosition copy() {
+        return board.clone();
+    }
+}
@@ -0,0 +1,45 @@
+package GameSearch.mancala;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Évaluation d'une position : Mancala.positionEvaluation (recalcul complet) et
+// IncrementalEvaluation après la modification de quelques pits
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    private static final int SOWN_PITS = 0b1111 << 8; // Quatre pits du PROGRAM, comme après un semis court
+
+    private final Mancala game = new Mancala();
+    private final IncrementalEvaluation incremental = new IncrementalEvaluation();
+
+    @Setup
+    public void setUp(BenchmarkPositions positions) {
+        incremental.reset(positions.board.board);
+    }
+
+    @Benchmark
+    public float positionEvaluation(BenchmarkPositions positions) {
+        return game.positionEvaluation(positions.board, positions.player);
+    }
+
+    @Benchmark
+    public float incrementalEvaluation(BenchmarkPositions positions) {
+        incremental.changed(SOWN_PITS);
+        return incremental.value(positions.board.board);
+    }
+}
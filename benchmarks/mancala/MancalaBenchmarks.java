@@ -0,0 +1,22 @@
+package GameSearch.mancala;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Point d'entrée de target/benchmarks.jar : options JMH habituelles (filtre de benchmarks, -p, -f...),
+// avec le profileur GC (taux d'allocation, gc.alloc.rate.norm en octets par opération) et les
+// résultats en JSON dans target/jmh-result.json, à comparer avec ceux d'une version de référence
+public class MancalaBenchmarks {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(options).addProfiler(GCProfiler.class);
+        if (!options.getResult().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json");
+        }
+        new Runner(builder.build()).run();
+    }
+}
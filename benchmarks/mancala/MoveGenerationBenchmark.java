@@ -0,0 +1,65 @@
+package GameSearch.mancala;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Génération des coups : Mancala.makeMove sur chaque pit jouable, Mancala.searchMoves
+// (avec et sans évaluation des positions filles) et PackedPosition.play
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Param({"EVALUATION", "HEURISTIC"})
+    public MoveOrdering.Mode ordering;
+
+    private Mancala game;
+    private PackedPosition packed;
+    private final PackedPosition child = new PackedPosition();
+
+    @Setup
+    public void setUp(BenchmarkPositions positions) {
+        game = new Mancala();
+        game.getMoveOrdering().setMode(ordering);
+        packed = PackedPosition.of(positions.board);
+    }
+
+    @Benchmark
+    public void makeMove(BenchmarkPositions positions, Blackhole blackhole) {
+        int start = positions.player ? 0 : 7;
+        for (int pit = start; pit < start + 6; pit++) {
+            if (positions.board.board[pit] == 0) continue;
+            blackhole.consume(game.makeMove(positions.copy(), positions.player, new MancalaMove(pit)));
+        }
+    }
+
+    @Benchmark
+    public Position[] searchMoves(BenchmarkPositions positions) {
+        return game.searchMoves(positions.board, positions.player);
+    }
+
+    @Benchmark
+    public void packedPlay(BenchmarkPositions positions, Blackhole blackhole) {
+        int start = positions.player ? 0 : 7;
+        for (int pit = start; pit < start + 6; pit++) {
+            if (packed.seeds(pit) == 0) continue;
+            child.set(packed);
+            blackhole.consume(child.play(pit, positions.player));
+            blackhole.consume(child.low ^ child.high);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package GameSearch.mancala;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Base de finales : score exact (jeu parfait) de chaque position ayant au plus getMaxSeeds() graines
+// sur les pits, produite hors ligne par EndgameGenerator.
+//
+// Une position est vue du joueur au trait : ses six pits (du plus éloigné au plus proche de son Mancala)
+// puis les six pits adverses. Les règles étant symétriques, les deux joueurs partagent la même table.
+// Les positions à s graines sont numérotées dans l'ordre lexicographique de leurs 12 valeurs
+// (système combinatoire : C(s + 11, 11) positions) et chaque niveau s est un fichier level-s.bin :
+// un en-tête de 16 octets puis un octet par position, la différence finale de graines que le joueur
+// au trait peut encore s'assurer (ses gains futurs moins ceux de l'adversaire).
+public final class EndgameDatabase {
+    public static final Path DEFAULT_DIRECTORY = Paths.get("endgame");
+    public static final int DEFAULT_SEEDS = 12;
+    public static final int MAX_SEEDS = 24; // C(35, 11) positions : l'index d'un niveau tient dans un int
+    public static final int UNKNOWN = Integer.MIN_VALUE; // Position hors de la base
+
+    static final int PITS = 12;
+    static final int MAGIC = 0x4D454442; // "MEDB"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    // COMPOSITIONS[k][t] : nombre de façons de répartir t graines sur k pits, soit C(t + k - 1, k - 1)
+    static final long[][] COMPOSITIONS = new long[PITS + 1][MAX_SEEDS + 1];
+
+    static {
+        COMPOSITIONS[0][0] = 1;
+        for (int k = 1; k <= PITS; k++) {
+            long sum = 0;
+            for (int t = 0; t <= MAX_SEEDS; t++) {
+                sum += COMPOSITIONS[k - 1][t];
+                COMPOSITIONS[k][t] = sum;
+            }
+        }
+    }
+
+    private final ByteBuffer[] levels;
+
+    private EndgameDatabase(ByteBuffer[] levels) {
+        this.levels = levels;
+    }
+
+    // Ouvre (projette en mémoire) les niveaux 0, 1, 2... présents et complets dans le répertoire
+    public static EndgameDatabase open(Path directory) throws IOException {
+        List<ByteBuffer> levels = new ArrayList<>();
+        for (int seeds = 0; seeds <= MAX_SEEDS; seeds++) {
+            ByteBuffer level = map(directory, seeds);
+            if (level == null) {
+                break;
+            }
+            levels.add(level);
+        }
+        if (levels.isEmpty()) {
+            throw new IOException("No endgame tables in " + directory);
+        }
+        return new EndgameDatabase(levels.toArray(new ByteBuffer[0]));
+    }
+
+    // Comme open, mais renvoie null (avec un message) si la base est absente ou illisible
+    public static EndgameDatabase openIfPresent(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try {
+            EndgameDatabase database = open(directory);
+            System.out.println("Endgame tables loaded: up to " + database.getMaxSeeds() + " seeds");
+            return database;
+        } catch (IOException e) {
+            System.err.println("Failed to load endgame tables: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Projette le fichier d'un niveau, ou renvoie null s'il est absent ou incomplet
+    static MappedByteBuffer map(Path directory, int seeds) throws IOException {
+        Path file = levelFile(directory, seeds);
+        if (!Files.isRegularFile(file) || Files.size(file) != HEADER_SIZE + size(seeds)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != seeds
+                    || buffer.getInt(12) != size(seeds)) {
+                return null;
+            }
+            return buffer;
+        }
+    }
+
+    static Path levelFile(Path directory, int seeds) {
+        return directory.resolve(String.format("level-%02d.bin", seeds));
+    }
+
+    // Nombre de positions du niveau seeds
+    public static int size(int seeds) {
+        return (int) COMPOSITIONS[PITS][seeds];
+    }
+
+    // Rang d'une répartition de seeds graines sur les 12 pits (ordre lexicographique)
+    static int index(int[] pits, int seeds) {
+        long index = 0;
+        int remaining = seeds;
+        for (int i = 0; i < PITS - 1; i++) {
+            int k = PITS - 1 - i; // Pits restants après le pit i
+            // Répartitions ayant une valeur plus petite au pit i : C(r + k, k) - C(r - a + k, k)
+            index += COMPOSITIONS[k + 1][remaining] - COMPOSITIONS[k + 1][remaining - pits[i]];
+            remaining -= pits[i];
+        }
+        return (int) index;
+    }
+
+    // Répartition de rang index (inverse de index)
+    static void unindex(int index, int seeds, int[] pits) {
+        long rest = index;
+        int remaining = seeds;
+        for (int i = 0; i < PITS - 1; i++) {
+            int k = PITS - 1 - i;
+            int value = 0;
+            while (rest >= COMPOSITIONS[k][remaining - value]) {
+                rest -= COMPOSITIONS[k][remaining - value];
+                value++;
+            }
+            pits[i] = value;
+            remaining -= value;
+        }
+        pits[PITS - 1] = remaining;
+    }
+
+    // Répartition suivante dans l'ordre lexicographique (false après la dernière)
+    static boolean next(int[] pits) {
+        int last = PITS - 1;
+        while (last > 0 && pits[last] == 0) {
+            last--;
+        }
+        if (last == 0) {
+            return false;
+        }
+        int moved = pits[last] - 1;
+        pits[last] = 0;
+        pits[last - 1]++;
+        pits[PITS - 1] = moved;
+        return true;
+    }
+
+    // Plus grand nombre de graines sur les pits couvert par la base
+    public int getMaxSeeds() {
+        return levels.length - 1;
+    }
+
+    // Graines restant sur les 12 pits (hors Mancalas)
+    static int pitSeeds(int[] board) {
+        return Mancala.totalSeeds(board) - board[MancalaPosition.HUMAN_MANCALA]
+                - board[MancalaPosition.PROGRAM_MANCALA];
+    }
+
+    // Indique si la position est dans la base
+    public boolean covers(int[] board) {
+        return pitSeeds(board) < levels.length;
+    }
+
+    // Différence finale (Mancala du joueur moins Mancala adverse) en jeu parfait, UNKNOWN hors de la base
+    public int probe(int[] board, boolean player) {
+        int seeds = pitSeeds(board);
+        if (seeds >= levels.length) {
+            return UNKNOWN;
+        }
+        int own = player ? 0 : 7;
+        int opponent = player ? 7 : 0;
+        int index = 0;
+        int remaining = seeds;
+        for (int i = 0; i < PITS - 1; i++) {
+            int value = i < 6 ? board[own + i] : board[opponent + i - 6];
+            int k = PITS - 1 - i;
+            index += (int) (COMPOSITIONS[k + 1][remaining] - COMPOSITIONS[k + 1][remaining - value]);
+            remaining -= value;
+        }
+        int future = levels[seeds].get(HEADER_SIZE + index);
+        return board[own + 6] - board[opponent + 6] + future;
+    }
+
+    // Score exact du point de vue du joueur, sur la même échelle que l'évaluation d'une position finale
+    public float score(int[] board, boolean player) {
+        return score(board, player, EvaluationWeights.DEFAULT);
+    }
+
+    // Même score, à l'échelle d'une évaluation avec d'autres poids
+    public float score(int[] board, boolean player, EvaluationWeights weights) {
+        return weights.combine(probe(board, player), 0, 0, 0, 0, Mancala.totalSeeds(board));
+    }
+}
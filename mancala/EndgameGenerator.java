@@ -0,0 +1,165 @@
+package GameSearch.mancala;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Génération hors ligne de la base de finales (voir EndgameDatabase), niveau par niveau :
+// un coup ne fait jamais remonter le nombre de graines sur les pits, donc chaque niveau ne dépend
+// que des niveaux inférieurs et de lui-même. À l'intérieur d'un niveau, un coup qui ne dépose
+// aucune graine dans un Mancala rapproche les graines du joueur de son Mancala sans rien changer
+// chez l'adversaire : il n'y a pas de cycle et une recherche mémorisée suffit.
+//
+// Chaque niveau terminé est écrit dans un fichier temporaire puis renommé : une génération
+// interrompue reprend au premier niveau manquant.
+// Usage : EndgameGenerator [maxSeeds] [directory] [threads]
+public class EndgameGenerator {
+    private static final byte UNSOLVED = Byte.MIN_VALUE;
+    private static final int CHUNK = 1 << 14; // Positions par tâche parallèle
+
+    private final Path directory;
+    private final ByteBuffer[] levels = new ByteBuffer[EndgameDatabase.MAX_SEEDS + 1];
+    private byte[] current; // Niveau en cours de génération
+    private int currentSeeds;
+
+    public EndgameGenerator(Path directory) {
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxSeeds = args.length > 0 ? Integer.parseInt(args[0]) : EndgameDatabase.DEFAULT_SEEDS;
+        Path directory = args.length > 1 ? Paths.get(args[1]) : EndgameDatabase.DEFAULT_DIRECTORY;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        if (maxSeeds < 0 || maxSeeds > EndgameDatabase.MAX_SEEDS) {
+            throw new IllegalArgumentException("Seed count must be between 0 and " + EndgameDatabase.MAX_SEEDS);
+        }
+        new EndgameGenerator(directory).generate(maxSeeds, new ForkJoinPool(threads));
+    }
+
+    // Génère les niveaux 0 à maxSeeds qui manquent encore dans le répertoire
+    public void generate(int maxSeeds, ForkJoinPool pool) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        long total = 0;
+        System.out.printf("%5s %12s %14s %10s %s%n", "seeds", "positions", "total bytes", "ms", "");
+        for (int seeds = 0; seeds <= maxSeeds; seeds++) {
+            long start = System.nanoTime();
+            levels[seeds] = EndgameDatabase.map(directory, seeds);
+            String status = "loaded";
+            if (levels[seeds] == null) {
+                byte[] table = solveLevel(seeds, pool);
+                write(seeds, table);
+                levels[seeds] = EndgameDatabase.map(directory, seeds);
+                status = "generated";
+            }
+            total += EndgameDatabase.HEADER_SIZE + EndgameDatabase.size(seeds);
+            System.out.printf("%5d %12d %14d %10.1f %s%n", seeds, EndgameDatabase.size(seeds), total,
+                    (System.nanoTime() - start) / 1e6, status);
+        }
+        pool.shutdown();
+    }
+
+    private byte[] solveLevel(int seeds, ForkJoinPool pool) throws InterruptedException {
+        int size = EndgameDatabase.size(seeds);
+        current = new byte[size];
+        currentSeeds = seeds;
+        Arrays.fill(current, UNSOLVED);
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        try {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int[] pits = new int[EndgameDatabase.PITS];
+                int index = chunk * CHUNK;
+                EndgameDatabase.unindex(index, seeds, pits);
+                int end = Math.min(size, index + CHUNK);
+                for (; index < end; index++) {
+                    solve(pits, seeds, index);
+                    EndgameDatabase.next(pits);
+                }
+            })).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return current;
+    }
+
+    // Valeur d'une position du niveau en cours (mémorisée) : différence des gains futurs en jeu parfait.
+    // Deux threads peuvent résoudre la même position : ils écrivent la même valeur
+    private int solve(int[] pits, int seeds, int index) {
+        byte known = current[index];
+        if (known != UNSOLVED) {
+            return known;
+        }
+        int own = 0;
+        for (int i = 0; i < 6; i++) {
+            own += pits[i];
+        }
+        int value;
+        if (own == 0 || own == seeds) {
+            value = own - (seeds - own); // Partie terminée : chaque camp ramasse ses graines
+        } else {
+            value = Integer.MIN_VALUE;
+            int[] board = new int[14];
+            int[] child = new int[EndgameDatabase.PITS];
+            for (int pit = 0; pit < 6; pit++) {
+                if (pits[pit] == 0) continue;
+                // Joueur au trait = HUMAN sur le plateau normalisé (pits 0 à 5, Mancala 6)
+                System.arraycopy(pits, 0, board, 0, 6);
+                System.arraycopy(pits, 6, board, 7, 6);
+                board[MancalaPosition.HUMAN_MANCALA] = 0;
+                board[MancalaPosition.PROGRAM_MANCALA] = 0;
+                PackedPosition position = PackedPosition.of(board);
+                boolean extraTurn = position.play(pit, GameSearch.HUMAN);
+                value = Math.max(value, position.seeds(MancalaPosition.HUMAN_MANCALA)
+                        + childValue(position, extraTurn, child));
+            }
+        }
+        current[index] = (byte) value;
+        return value;
+    }
+
+    // Valeur de la position fille du point de vue du joueur qui vient de jouer
+    private int childValue(PackedPosition position, boolean extraTurn, int[] child) {
+        int seeds = 0;
+        for (int i = 0; i < 6; i++) {
+            // Le camp au trait de la fille : le même joueur après un tour supplémentaire, sinon l'adversaire
+            child[i] = position.seeds(extraTurn ? i : 7 + i);
+            child[6 + i] = position.seeds(extraTurn ? 7 + i : i);
+            seeds += child[i] + child[6 + i];
+        }
+        int value;
+        if (seeds == currentSeeds) {
+            value = solve(child, seeds, EndgameDatabase.index(child, seeds));
+        } else {
+            value = levels[seeds].get(EndgameDatabase.HEADER_SIZE + EndgameDatabase.index(child, seeds));
+        }
+        return extraTurn ? value : -value;
+    }
+
+    private void write(int seeds, byte[] table) throws IOException {
+        Path file = EndgameDatabase.levelFile(directory, seeds);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer header = ByteBuffer.allocate(EndgameDatabase.HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(EndgameDatabase.MAGIC).putInt(EndgameDatabase.VERSION).putInt(seeds).putInt(table.length).flip();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            ByteBuffer body = ByteBuffer.wrap(table);
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
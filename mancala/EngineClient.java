@@ -0,0 +1,197 @@
+package GameSearch.mancala;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Client de test de charge d'EngineServer : sessions simultanées jouant chacune plusieurs parties avec des
+// coups humains aléatoires. Après BUSY, la session attend (délai doublé à chaque refus) puis relance avec GO.
+// Rapport : débit, latence des réponses du programme (percentiles), refus et résultats des parties.
+//
+// Usage : EngineClient [--host h] [--port n] [--sessions n] [--games n] [--seed n]
+public class EngineClient {
+    private final String host;
+    private final int port;
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder programWins = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder busy = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final List<long[]> latencies = new ArrayList<>(); // Latences (ns) de chaque session
+
+    public EngineClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = "localhost";
+        int port = EngineServer.DEFAULT_PORT;
+        int sessions = 100;
+        int games = 5;
+        long seed = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host":
+                    host = args[++i];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--sessions":
+                    sessions = Integer.parseInt(args[++i]);
+                    break;
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    System.out.println("Usage: EngineClient [--host h] [--port n] [--sessions n] [--games n] [--seed n]");
+                    return;
+            }
+        }
+        EngineClient client = new EngineClient(host, port);
+        long start = System.nanoTime();
+        client.run(sessions, games, seed);
+        System.out.println(client.report(System.nanoTime() - start));
+        System.out.println("Server: " + client.request("STATS"));
+    }
+
+    // Lance les sessions simultanées et attend leur fin
+    public void run(int sessions, int gamesPerSession, long seed) throws InterruptedException {
+        ExecutorService executor = EngineServer.newSessionExecutor();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            Random random = new Random(seed * 1_000_003L + i);
+            futures.add(executor.submit(() -> {
+                play(gamesPerSession, random);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (java.util.concurrent.ExecutionException e) {
+                failures.increment();
+                System.err.println("Session failed: " + e.getCause());
+            }
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    // Une session : plusieurs parties sur la même connexion
+    private void play(int gamesToPlay, Random random) throws IOException, InterruptedException {
+        long[] times = new long[64];
+        int count = 0;
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            socket.setTcpNoDelay(true);
+            for (int game = 0; game < gamesToPlay; game++) {
+                String command = random.nextBoolean() ? "NEW human" : "NEW program";
+                while (true) {
+                    long start = System.nanoTime();
+                    String reply = send(in, out, command);
+                    if (count == times.length) {
+                        times = Arrays.copyOf(times, count * 2);
+                    }
+                    times[count++] = System.nanoTime() - start;
+                    String[] fields = reply.split(" ");
+                    if (!"OK".equals(fields[0]) || fields.length < 4) {
+                        throw new IOException("Unexpected reply to " + command + ": " + reply);
+                    }
+                    int[] board = Arrays.stream(fields[2].split(",")).mapToInt(Integer::parseInt).toArray();
+                    String turn = fields[3];
+                    if ("over".equals(turn)) {
+                        games.increment();
+                        int diff = board[MancalaPosition.PROGRAM_MANCALA] - board[MancalaPosition.HUMAN_MANCALA];
+                        if (diff > 0) programWins.increment();
+                        else if (diff == 0) draws.increment();
+                        break;
+                    }
+                    if ("program".equals(turn)) {
+                        command = "GO"; // Coups du programme interrompus par un refus
+                        continue;
+                    }
+                    int pit;
+                    do {
+                        pit = random.nextInt(6);
+                    } while (board[pit] == 0);
+                    command = "MOVE " + pit;
+                }
+            }
+            out.println("QUIT");
+        } finally {
+            synchronized (latencies) {
+                latencies.add(Arrays.copyOf(times, count));
+            }
+        }
+    }
+
+    // Envoie une commande ; après BUSY, attend puis relance avec GO (l'état de la partie est conservé)
+    private String send(BufferedReader in, PrintWriter out, String command) throws IOException, InterruptedException {
+        long backoff = 5;
+        while (true) {
+            out.println(command);
+            String reply = in.readLine();
+            if (reply == null) {
+                throw new IOException("Connection closed by the server");
+            }
+            if (!"BUSY".equals(reply)) {
+                return reply;
+            }
+            busy.increment();
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, 200);
+            command = "GO";
+        }
+    }
+
+    // Commande isolée sur une nouvelle connexion (ex : STATS)
+    public String request(String command) throws IOException {
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            out.println(command);
+            String reply = in.readLine();
+            out.println("QUIT");
+            return reply;
+        }
+    }
+
+    public String report(long elapsedNanos) {
+        long[] all;
+        synchronized (latencies) {
+            all = latencies.stream().flatMapToLong(Arrays::stream).toArray();
+        }
+        Arrays.sort(all);
+        double seconds = elapsedNanos / 1e9;
+        return String.format("%d games in %.1f s (%.1f games/s, %.0f requests/s), program %d wins, %d draws%n"
+                        + "latency ms: p50 %.2f, p90 %.2f, p99 %.2f, max %.2f; %d BUSY replies, %d failed sessions",
+                games.sum(), seconds, games.sum() / seconds, all.length / seconds, programWins.sum(), draws.sum(),
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 1.0),
+                busy.sum(), failures.sum());
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return 0.0;
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,152 @@
+package GameSearch.mancala;
+
+// Configuration immuable d'un moteur (limites de recherche, poids de l'évaluation, options de recherche) :
+// chaque partie d'un tournoi crée ses moteurs à partir de la configuration, sans état partagé.
+//
+// Description textuelle (parse) : nom:option=valeur,option=valeur...
+//   difficulty=SIMPLE|MEDIUM|HARD   limites de la difficulté (MEDIUM par défaut)
+//   depth=n, time=ms, nodes=n       remplacent la limite correspondante
+//   weights=a/b/c/d/e[/f/g]         poids de l'évaluation (cf. EvaluationWeights.parse)
+//   algorithm=PVS|ALPHA_BETA, ordering=HEURISTIC|EVALUATION, table=bits
+//   quiescence=n                    coups forçants explorés à l'horizon (0 par défaut : désactivée ; 8 conseillé)
+//   mcts=threads, playout=RANDOM|HEURISTIC   recherche Monte Carlo à la place d'alpha-beta
+public final class EngineConfig {
+    public final String name;
+    public final Mancala.Difficulty difficulty; // Horizon de la recherche historique (cf. Mancala.maxDepth)
+    public final SearchLimits limits;
+    public final EvaluationWeights weights;
+    public final GameSearch.Algorithm algorithm;
+    public final MoveOrdering.Mode ordering;
+    public final int tableBits; // Taille de la table de transposition (2^tableBits entrées)
+    public final int mctsThreads; // Threads de la recherche Monte Carlo (0 = alpha-beta)
+    public final MonteCarloSearch.Playout playout;
+    public final int quiescenceDepth; // Cf. GameSearch.setQuiescenceDepth (0 = pas de quiescence)
+
+    public EngineConfig(String name, Mancala.Difficulty difficulty, SearchLimits limits, EvaluationWeights weights,
+                        GameSearch.Algorithm algorithm, MoveOrdering.Mode ordering, int tableBits) {
+        this(name, difficulty, limits, weights, algorithm, ordering, tableBits, 0, MonteCarloSearch.Playout.RANDOM);
+    }
+
+    public EngineConfig(String name, Mancala.Difficulty difficulty, SearchLimits limits, EvaluationWeights weights,
+                        GameSearch.Algorithm algorithm, MoveOrdering.Mode ordering, int tableBits,
+                        int mctsThreads, MonteCarloSearch.Playout playout) {
+        this(name, difficulty, limits, weights, algorithm, ordering, tableBits, mctsThreads, playout,
+                Mancala.DEFAULT_QUIESCENCE_DEPTH);
+    }
+
+    public EngineConfig(String name, Mancala.Difficulty difficulty, SearchLimits limits, EvaluationWeights weights,
+                        GameSearch.Algorithm algorithm, MoveOrdering.Mode ordering, int tableBits,
+                        int mctsThreads, MonteCarloSearch.Playout playout, int quiescenceDepth) {
+        this.name = name;
+        this.difficulty = difficulty;
+        this.limits = limits;
+        this.weights = weights;
+        this.algorithm = algorithm;
+        this.ordering = ordering;
+        this.tableBits = tableBits;
+        this.mctsThreads = mctsThreads;
+        this.playout = playout;
+        this.quiescenceDepth = quiescenceDepth;
+    }
+
+    // Réglages par défaut de Mancala avec les limites données
+    public static EngineConfig of(String name, SearchLimits limits) {
+        return new EngineConfig(name, Mancala.Difficulty.MEDIUM, limits, EvaluationWeights.DEFAULT,
+                GameSearch.Algorithm.PVS, MoveOrdering.Mode.HEURISTIC, Mancala.DEFAULT_TABLE_BITS);
+    }
+
+    public static EngineConfig parse(String spec) {
+        int colon = spec.indexOf(':');
+        String name = colon >= 0 ? spec.substring(0, colon) : spec;
+        Mancala.Difficulty difficulty = Mancala.Difficulty.MEDIUM;
+        Integer depth = null;
+        Long time = null;
+        Long nodes = null;
+        EvaluationWeights weights = EvaluationWeights.DEFAULT;
+        GameSearch.Algorithm algorithm = GameSearch.Algorithm.PVS;
+        MoveOrdering.Mode ordering = MoveOrdering.Mode.HEURISTIC;
+        int tableBits = Mancala.DEFAULT_TABLE_BITS;
+        int mctsThreads = 0;
+        MonteCarloSearch.Playout playout = MonteCarloSearch.Playout.RANDOM;
+        int quiescenceDepth = Mancala.DEFAULT_QUIESCENCE_DEPTH;
+        if (colon >= 0) {
+            for (String option : spec.substring(colon + 1).split(",")) {
+                String[] pair = option.split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Invalid engine option: " + option);
+                }
+                String value = pair[1].trim();
+                switch (pair[0].trim()) {
+                    case "difficulty":
+                        difficulty = Mancala.Difficulty.valueOf(value.toUpperCase());
+                        break;
+                    case "depth":
+                        depth = Integer.parseInt(value);
+                        break;
+                    case "time":
+                        time = Long.parseLong(value);
+                        break;
+                    case "nodes":
+                        nodes = Long.parseLong(value);
+                        break;
+                    case "weights":
+                        weights = EvaluationWeights.parse(value);
+                        break;
+                    case "algorithm":
+                        algorithm = GameSearch.Algorithm.valueOf(value.toUpperCase());
+                        break;
+                    case "ordering":
+                        ordering = MoveOrdering.Mode.valueOf(value.toUpperCase());
+                        break;
+                    case "table":
+                        tableBits = Integer.parseInt(value);
+                        break;
+                    case "mcts":
+                        mctsThreads = Integer.parseInt(value);
+                        break;
+                    case "playout":
+                        playout = MonteCarloSearch.Playout.valueOf(value.toUpperCase());
+                        break;
+                    case "quiescence":
+                        quiescenceDepth = Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown engine option: " + pair[0]);
+                }
+            }
+        }
+        SearchLimits limits = difficulty.limits;
+        if (depth != null || time != null || nodes != null) {
+            limits = new SearchLimits(depth != null ? depth : limits.maxDepth, time != null ? time : limits.timeMillis,
+                    nodes != null ? nodes : limits.maxNodes);
+        }
+        return new EngineConfig(name, difficulty, limits, weights, algorithm, ordering, tableBits, mctsThreads,
+                playout, quiescenceDepth);
+    }
+
+    // Nouveau moteur réglé selon la configuration (à utiliser par un seul thread)
+    public Mancala newEngine() {
+        Mancala engine = new Mancala(new TranspositionTable(tableBits));
+        engine.setDifficulty(difficulty);
+        engine.setSearchLimits(limits);
+        engine.setEvaluationWeights(weights);
+        engine.setAlgorithm(algorithm);
+        engine.getMoveOrdering().setMode(ordering);
+        engine.setQuiescenceDepth(quiescenceDepth);
+        if (mctsThreads > 0) {
+            MonteCarloSearch search = new MonteCarloSearch(mctsThreads);
+            search.setPlayout(playout);
+            engine.setMonteCarloSearch(search);
+        }
+        return engine;
+    }
+
+    @Override
+    public String toString() {
+        if (mctsThreads > 0) {
+            return name + " (" + limits + ", MCTS " + mctsThreads + " threads, " + playout + " playouts)";
+        }
+        return name + " (" + limits + ", weights " + weights + ", " + algorithm + ", " + ordering
+                + (quiescenceDepth > 0 ? ", quiescence " + quiescenceDepth : "") + ")";
+    }
+}
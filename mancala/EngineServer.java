@@ -0,0 +1,367 @@
+package GameSearch.mancala;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Serveur de parties sans interface : une connexion TCP locale = une partie (humain contre programme).
+// Chaque session tourne sur son propre thread virtuel (Java 21 et plus ; threads classiques sinon) et
+// passe l'essentiel de son temps à attendre le client. Les recherches sont confiées à un pool borné de la
+// taille du nombre de cœurs, partageant un seul SharedSearch ; quand sa file d'attente est pleine, le coup
+// du programme est refusé (BUSY) et le client réessaie plus tard avec GO.
+//
+// Protocole (une ligne par commande et par réponse) :
+//   NEW [human|program]   nouvelle partie, le joueur indiqué commence (human par défaut)
+//   MOVE pit              coup de l'humain (0-5), suivi des coups du programme
+//   GO                    fait jouer le programme s'il est au trait (après BUSY)
+//   BOARD                 état de la partie
+//   STATS                 mesures du serveur
+//   QUIT
+// Réponses : OK coups plateau trait   (coups du programme séparés par des virgules, ou -,
+//                                       plateau : 14 nombres séparés par des virgules,
+//                                       trait : human, program ou over)
+//            BUSY | ERR message | BYE
+//
+// Usage : EngineServer [--port n] [--engine spec] [--threads n] [--queue n] [--move-timeout ms]
+//                      [--idle-timeout s] [--book file]
+public class EngineServer {
+    public static final int DEFAULT_PORT = 7412;
+    private static final long STOP_GRACE = 1000; // Attente maximale d'une recherche arrêtée (ms)
+
+    private final SharedSearch search;
+    private final ThreadPoolExecutor searchPool;
+    private final ExecutorService sessions = newSessionExecutor();
+    private final Mancala rules = new Mancala(null); // Règles du jeu seulement (makeMove, drawnPosition)
+    private long moveTimeout = 5000;  // Temps maximal d'un coup du programme, attente du pool comprise (ms)
+    private int idleTimeout = 600;    // Session fermée après ce temps sans commande (s)
+    private ServerSocket serverSocket;
+    private OpeningBook openingBook; // Coups d'ouverture joués sans passer par le pool (null = aucun)
+
+    // Mesures
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final LongAdder totalSessions = new LongAdder();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder busyReplies = new LongAdder(); // Réponses BUSY envoyées
+    private final LongAdder rejected = new LongAdder();    // Recherches refusées par la file pleine
+    private final LongAdder timeouts = new LongAdder();    // Recherches arrêtées au bout de moveTimeout
+    private final LongAdder bookMoves = new LongAdder();
+
+    public EngineServer(EngineConfig config, int threads, int queue) {
+        search = new SharedSearch(config);
+        searchPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), task -> {
+            Thread thread = new Thread(task, "mancala-search");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        EngineConfig config = EngineConfig.parse("server:difficulty=MEDIUM");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queue = 4 * threads;
+        long moveTimeout = 5000;
+        int idleTimeout = 600;
+        OpeningBook book = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--engine":
+                    config = EngineConfig.parse(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--queue":
+                    queue = Integer.parseInt(args[++i]);
+                    break;
+                case "--move-timeout":
+                    moveTimeout = Long.parseLong(args[++i]);
+                    break;
+                case "--idle-timeout":
+                    idleTimeout = Integer.parseInt(args[++i]);
+                    break;
+                case "--book":
+                    book = OpeningBook.load(Paths.get(args[++i]));
+                    break;
+                default:
+                    System.out.println("Usage: EngineServer [--port n] [--engine spec] [--threads n] [--queue n]"
+                            + " [--move-timeout ms] [--idle-timeout s] [--book file]");
+                    return;
+            }
+        }
+        EngineServer server = new EngineServer(config, threads, queue);
+        server.setMoveTimeout(moveTimeout);
+        server.setIdleTimeout(idleTimeout);
+        server.setOpeningBook(book);
+        server.start(port);
+        System.out.println("Mancala server on port " + server.getPort() + ": " + config + ", " + threads
+                + " search threads, queue " + queue + (virtualThreads() ? ", virtual threads" : ""));
+        server.serve();
+    }
+
+    // Temps maximal d'un coup : passé ce délai, la recherche est arrêtée et joue le meilleur coup
+    // de sa dernière itération terminée
+    public void setMoveTimeout(long moveTimeout) {
+        this.moveTimeout = moveTimeout;
+    }
+
+    public void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    // Ouvre le port d'écoute, sur l'interface locale uniquement (0 = port libre quelconque)
+    public void start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 512, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    // Accepte les connexions jusqu'à stop ; chaque session a son propre thread (virtuel si possible)
+    public void serve() throws IOException {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    if (serverSocket.isClosed()) break;
+                    throw e;
+                }
+                sessions.execute(() -> session(socket));
+            }
+        } finally {
+            sessions.shutdownNow();
+            searchPool.shutdownNow();
+        }
+    }
+
+    public void stop() throws IOException {
+        serverSocket.close();
+    }
+
+    // Threads virtuels (Java 21) obtenus par réflexion, le projet étant compilé pour Java 11 ;
+    // un thread classique par session sinon
+    static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "mancala-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    static boolean virtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // Une partie : état propre à la session, seules les recherches passent par le pool partagé
+    private final class Session {
+        private MancalaPosition position = new MancalaPosition();
+        private boolean player = GameSearch.HUMAN; // Joueur au trait
+        private boolean over;
+
+        void newGame(boolean firstPlayer) {
+            position = new MancalaPosition();
+            player = firstPlayer;
+            over = false;
+        }
+
+        String move(int pit) {
+            if (over) return "ERR game over";
+            if (player != GameSearch.HUMAN) return "ERR not your turn";
+            if (pit < 0 || pit > 5 || position.board[pit] == 0) return "ERR invalid move " + pit;
+            play(pit);
+            return go(true);
+        }
+
+        // Coups du programme tant qu'il est au trait ; BUSY si le pool refuse la recherche
+        String go(boolean afterHumanMove) {
+            if (!over && player != GameSearch.PROGRAM && !afterHumanMove) return "ERR not the program's turn";
+            StringBuilder moves = new StringBuilder();
+            while (!over && player == GameSearch.PROGRAM) {
+                SearchResult result;
+                try {
+                    result = search();
+                } catch (RejectedExecutionException e) {
+                    // File pleine, ou recherche sans résultat dans le délai
+                    if (moves.length() == 0) {
+                        busyReplies.increment();
+                        return "BUSY";
+                    }
+                    break; // Les coups déjà joués sont renvoyés ; le client relance avec GO
+                }
+                if (moves.length() > 0) moves.append(',');
+                moves.append(result.bestMove);
+                play(result.bestMove);
+            }
+            return "OK " + (moves.length() == 0 ? "-" : moves) + " " + board();
+        }
+
+        // Recherche sur le pool partagé, arrêtée au bout de moveTimeout (attente dans la file comprise).
+        // Une recherche encore dans la file est retirée ; une recherche arrêtée a STOP_GRACE ms pour rendre
+        // sa dernière itération. Sinon RejectedExecutionException, comme si le pool était plein
+        private SearchResult search() {
+            SearchResult book = openingBook != null ? openingBook.probe(position, player) : null;
+            if (book != null) {
+                bookMoves.increment();
+                return book;
+            }
+            AtomicBoolean stopFlag = new AtomicBoolean(); // Propre à cette recherche, même abandonnée
+            MancalaPosition root = position.clone();
+            boolean side = player;
+            Future<SearchResult> future;
+            try {
+                future = searchPool.submit(() -> search.search(root, side, stopFlag));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw e;
+            }
+            searches.increment();
+            long deadline = System.nanoTime() + moveTimeout * 1_000_000L;
+            boolean stopped = false;
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (TimeoutException e) {
+                        if (stopped) {
+                            future.cancel(true);
+                            throw new RejectedExecutionException("Search did not stop in time");
+                        }
+                        stopped = true;
+                        timeouts.increment();
+                        if (searchPool.remove((Runnable) future)) {
+                            throw new RejectedExecutionException("Search still queued after the move timeout");
+                        }
+                        stopFlag.set(true); // La recherche rend le résultat de sa dernière itération
+                        deadline = System.nanoTime() + STOP_GRACE * 1_000_000L;
+                    }
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search failed", e.getCause());
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void play(int pit) {
+            rules.makeMove(position, player, new MancalaMove(pit));
+            if (rules.drawnPosition(position)) {
+                over = true;
+            } else if (!position.extraTurn) {
+                player = !player;
+            }
+        }
+
+        String board() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < position.board.length; i++) {
+                if (i > 0) text.append(',');
+                text.append(position.board[i]);
+            }
+            return text + " " + (over ? "over" : player == GameSearch.HUMAN ? "human" : "program");
+        }
+    }
+
+    private void session(Socket socket) {
+        activeSessions.incrementAndGet();
+        totalSessions.increment();
+        Session session = new Session();
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            s.setSoTimeout(idleTimeout * 1000);
+            s.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] command = line.trim().split("\\s+");
+                String reply;
+                try {
+                    switch (command[0].toUpperCase()) {
+                        case "NEW":
+                            session.newGame(command.length < 2 || !"program".equalsIgnoreCase(command[1]));
+                            reply = session.go(true);
+                            break;
+                        case "MOVE":
+                            reply = command.length < 2 ? "ERR missing pit" : session.move(Integer.parseInt(command[1]));
+                            break;
+                        case "GO":
+                            reply = session.go(false);
+                            break;
+                        case "BOARD":
+                            reply = "OK - " + session.board();
+                            break;
+                        case "STATS":
+                            reply = "OK " + statistics();
+                            break;
+                        case "QUIT":
+                            out.println("BYE");
+                            return;
+                        default:
+                            reply = "ERR unknown command " + command[0];
+                    }
+                } catch (NumberFormatException e) {
+                    reply = "ERR invalid number";
+                }
+                out.println(reply);
+            }
+        } catch (SocketTimeoutException e) {
+            // Session inactive : la connexion est fermée
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Session failed: " + e.getMessage());
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    public String statistics() {
+        return "sessions=" + activeSessions.get() + " total=" + totalSessions.sum() + " searches=" + searches.sum()
+                + " busy=" + busyReplies.sum() + " rejected=" + rejected.sum() + " timeouts=" + timeouts.sum()
+                + " book=" + bookMoves.sum()
+                + " queued=" + searchPool.getQueue().size()
+                + " nodes=" + search.getNodeCount();
+    }
+}
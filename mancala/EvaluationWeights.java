@@ -0,0 +1,63 @@
+package GameSearch.mancala;
+
+// Poids de l'évaluation heuristique (Mancala.evaluate) : un objet immuable par moteur, ce qui permet de
+// comparer des réglages dans des parties jouées en parallèle (cf. Tournament).
+// DEFAULT reproduit au bit près les poids historiques de l'évaluation.
+public final class EvaluationWeights {
+    public static final EvaluationWeights DEFAULT = new EvaluationWeights(2.0f, 1.5f, 1.0f, 1.0f, 1.5f, 1.5f, 2.0f);
+
+    public final float mancalaDifference;      // Différence des Mancalas
+    public final float capturePotential;       // Graines capturables
+    public final float extraTurnPotential;     // Pits qui donnent un tour supplémentaire
+    public final float opponentStones;         // Graines proches du Mancala adverse (pénalité)
+    public final float preventCapture;         // Captures offertes à l'adversaire (pénalité)
+    public final float middlegameFactor;       // Facteur de phase, 16 à 30 graines en jeu
+    public final float endgameFactor;          // Facteur de phase, 15 graines ou moins
+
+    public EvaluationWeights(float mancalaDifference, float capturePotential, float extraTurnPotential,
+                             float opponentStones, float preventCapture, float middlegameFactor,
+                             float endgameFactor) {
+        this.mancalaDifference = mancalaDifference;
+        this.capturePotential = capturePotential;
+        this.extraTurnPotential = extraTurnPotential;
+        this.opponentStones = opponentStones;
+        this.preventCapture = preventCapture;
+        this.middlegameFactor = middlegameFactor;
+        this.endgameFactor = endgameFactor;
+    }
+
+    // Poids séparés par des '/' : les cinq termes, puis éventuellement les deux facteurs de phase
+    public static EvaluationWeights parse(String weights) {
+        String[] values = weights.split("/");
+        if (values.length != 5 && values.length != 7) {
+            throw new IllegalArgumentException("Expected 5 or 7 evaluation weights: " + weights);
+        }
+        float[] w = new float[7];
+        w[5] = DEFAULT.middlegameFactor;
+        w[6] = DEFAULT.endgameFactor;
+        for (int i = 0; i < values.length; i++) {
+            w[i] = Float.parseFloat(values[i].trim());
+        }
+        return new EvaluationWeights(w[0], w[1], w[2], w[3], w[4], w[5], w[6]);
+    }
+
+    // Évaluation pondérée à partir des caractéristiques (partagée avec IncrementalEvaluation,
+    // ce qui garantit des résultats identiques au bit près)
+    public float combine(int mancalaDifference, int capturePotential, int extraTurnPotential,
+                         int minimizeOpponentStones, int preventOpponentCapture, int totalSeeds) {
+        // Facteur lié à la phase du jeu (début, milieu, fin)
+        float phaseFactor = totalSeeds > 30 ? 1.0f : totalSeeds > 15 ? middlegameFactor : endgameFactor;
+
+        return phaseFactor * (this.mancalaDifference * mancalaDifference
+                + this.capturePotential * capturePotential
+                + this.extraTurnPotential * extraTurnPotential
+                - this.opponentStones * minimizeOpponentStones
+                - this.preventCapture * preventOpponentCapture);
+    }
+
+    @Override
+    public String toString() {
+        return mancalaDifference + "/" + capturePotential + "/" + extraTurnPotential + "/" + opponentStones
+                + "/" + preventCapture + "/" + middlegameFactor + "/" + endgameFactor;
+    }
+}
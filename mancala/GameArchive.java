@@ -0,0 +1,625 @@
+package GameSearch.mancala;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Archive de parties terminées (auto-jeu, tournois) pour l'analyse hors ligne, en ajout seul.
+//
+//   archive      enregistrements GameRecord à la suite (lisible aussi par GameRecordReader)
+//   archive.idx  MAGIC "MNCI", VERSION, puis la position (long) de chaque partie dans l'archive :
+//                l'identifiant d'une partie est son rang
+//   archive.pos  index des positions (buildPositionIndex) : MAGIC "MNCP", VERSION, nombre de parties
+//                indexées, bits des seaux, table des seaux (début de chaque seau, long), puis les entrées
+//                (clé, partie, ply) regroupées par seau selon les bits de poids fort de la clé
+// La clé d'une position est celle de la table de transposition : Zobrist.hash(board) ^ Zobrist.sideKey(player).
+//
+// Les fichiers sont projetés en mémoire : un accès par identifiant lit directement les octets des coups,
+// et scan parcourt les positions sur un seul PackedPosition, sans allouer de MancalaPosition par ply.
+// Les parties ajoutées sont écrites par blocs (flush) ; une partie écrite mais pas encore indexée
+// (arrêt entre les deux écritures) est indexée à la réouverture. L'archive n'est pas thread-safe.
+public class GameArchive implements Closeable {
+    static final int INDEX_MAGIC = 0x4D4E4349; // "MNCI"
+    static final int POSITIONS_MAGIC = 0x4D4E4350; // "MNCP"
+    static final int VERSION = 1;
+    static final int MAX_RECORD_SIZE = 1 << 16; // Débordement des segments projetés de l'archive
+    private static final int INDEX_HEADER = 8; // MAGIC, VERSION
+    private static final int POSITIONS_HEADER = 16; // MAGIC, VERSION, parties indexées, bits des seaux
+    private static final int ENTRY_SIZE = 16; // Clé (long), partie (int), ply (int)
+    private static final int ENTRIES_PER_BUCKET = 4; // Taille moyenne visée d'un seau
+    private static final int MIN_BUCKET_BITS = 4;
+    private static final int MAX_BUCKET_BITS = 22;
+    private static final int PARTITION_BITS = 8; // Paquets de seaux de la construction de l'index des positions
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final PackedPosition STANDARD_START = PackedPosition.of(new MancalaPosition().board);
+
+    private final Path file;
+    private final FileChannel data;
+    private final FileChannel index;
+    private final ByteBuffer pendingData = ByteBuffer.allocateDirect(BUFFER_SIZE); // Parties pas encore écrites
+    private final ByteBuffer pendingIndex = ByteBuffer.allocateDirect(BUFFER_SIZE / 8 * 8);
+    private int games; // Parties, écrites ou non
+    private long dataSize;
+    private int writtenGames;
+    private long writtenSize;
+    private MappedFile dataMap;
+    private MappedFile indexMap;
+    private int mappedGames = -1; // Parties couvertes par les projections (-1 = à refaire)
+    private MappedFile positions; // null = pas d'index des positions
+    private int positionGames; // Parties couvertes par l'index des positions
+    private int bucketBits;
+
+    // Occurrence d'une position : partie et ply (nombre de coups joués avant la position)
+    public static final class Occurrence {
+        public final int game;
+        public final int ply;
+
+        Occurrence(int game, int ply) {
+            this.game = game;
+            this.ply = ply;
+        }
+
+        @Override
+        public String toString() {
+            return "game " + game + ", ply " + ply;
+        }
+    }
+
+    // Visiteur de scan : chaque position avant le coup move (move = -1 pour la position finale, avant le
+    // ramassage des graines). La position est réutilisée d'un appel à l'autre : la copier pour la garder
+    public interface PositionVisitor {
+        void visit(int game, int ply, PackedPosition position, boolean player, int move);
+    }
+
+    private GameArchive(Path file, FileChannel data, FileChannel index) {
+        this.file = file;
+        this.data = data;
+        this.index = index;
+    }
+
+    // Ouvre (ou crée) une archive et ses index
+    public static GameArchive open(Path file) throws IOException {
+        FileChannel data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel index = null;
+        try {
+            index = FileChannel.open(sibling(file, ".idx"), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            GameArchive archive = new GameArchive(file, data, index);
+            archive.recover();
+            archive.openPositionIndex();
+            return archive;
+        } catch (IOException e) {
+            data.close();
+            if (index != null) {
+                index.close();
+            }
+            throw e;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: GameArchive archive [info | import file... | index | show id"
+                    + " | find p0,p1,...,p13 human|program | check]");
+            return;
+        }
+        String command = args.length > 1 ? args[1] : "info";
+        try (GameArchive archive = open(Paths.get(args[0]))) {
+            long start = System.nanoTime();
+            switch (command) {
+                case "info":
+                    System.out.printf("%d games, %d bytes (%.1f bytes/game), position index: %s%n",
+                            archive.size(), archive.dataSize, archive.dataSize / (double) Math.max(archive.size(), 1),
+                            archive.positions != null ? archive.positionGames + " games" : "none");
+                    break;
+                case "import":
+                    int imported = 0;
+                    for (int i = 2; i < args.length; i++) {
+                        try (GameRecordReader reader = GameRecordReader.open(Paths.get(args[i]))) {
+                            for (GameRecord record = reader.next(); record != null; record = reader.next()) {
+                                archive.append(record);
+                                imported++;
+                            }
+                        }
+                    }
+                    archive.flush();
+                    System.out.printf("%d games imported in %.1f ms (%d in the archive)%n", imported,
+                            (System.nanoTime() - start) / 1e6, archive.size());
+                    break;
+                case "index":
+                    long entries = archive.buildPositionIndex();
+                    System.out.printf("%d positions of %d games indexed in %.1f ms%n", entries, archive.size(),
+                            (System.nanoTime() - start) / 1e6);
+                    break;
+                case "show":
+                    int id = Integer.parseInt(args[2]);
+                    System.out.println(archive.get(id));
+                    System.out.println(archive.position(id, archive.moveCount(id)));
+                    break;
+                case "find":
+                    String[] pits = args[2].split(",");
+                    if (pits.length != 14) {
+                        throw new IllegalArgumentException("A board has 14 pits");
+                    }
+                    int[] board = new int[14];
+                    for (int pit = 0; pit < 14; pit++) {
+                        board[pit] = Integer.parseInt(pits[pit].trim());
+                    }
+                    boolean player = args.length < 4 || args[3].equalsIgnoreCase("human");
+                    List<Occurrence> found = archive.find(Zobrist.hash(board) ^ Zobrist.sideKey(player));
+                    for (Occurrence occurrence : found.subList(0, Math.min(found.size(), 20))) {
+                        System.out.println(occurrence);
+                    }
+                    System.out.printf("%d occurrences in %.3f ms%n", found.size(), (System.nanoTime() - start) / 1e6);
+                    break;
+                case "check":
+                    Mancala game = new Mancala(null);
+                    int bad = 0;
+                    for (int i = 0; i < archive.size(); i++) {
+                        try {
+                            // Somme de contrôle, puis les coups rejoués par Mancala.makeMove
+                            GameRecord record = archive.get(i);
+                            MancalaPosition position = archive.getStartPosition(i);
+                            boolean side = record.getFirstPlayer();
+                            for (MancalaMove move : archive.moves(i)) {
+                                game.makeMove(position, side, move);
+                                if (!position.extraTurn) {
+                                    side = !side;
+                                }
+                            }
+                            if (!Arrays.equals(position.board, record.replay().board)) {
+                                throw new IOException("replay mismatch");
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            bad++;
+                            System.out.println("game " + i + ": " + e.getMessage());
+                        }
+                    }
+                    System.out.printf("%d games checked in %.1f ms, %d corrupted%n", archive.size(),
+                            (System.nanoTime() - start) / 1e6, bad);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown command: " + command);
+            }
+        }
+    }
+
+    // Nombre de parties
+    public int size() {
+        return games;
+    }
+
+    // Ajoute une partie ; renvoie son identifiant. Elle est écrite au plus tard au prochain flush
+    public int append(GameRecord record) throws IOException {
+        int size = record.encodedSize();
+        if (size > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Game too long for the archive: " + record.size() + " moves");
+        }
+        if (pendingData.remaining() < size || !pendingIndex.hasRemaining()) {
+            flush();
+        }
+        pendingIndex.putLong(dataSize);
+        record.encode(pendingData);
+        dataSize += size;
+        return games++;
+    }
+
+    // Écrit les parties ajoutées : l'archive d'abord, puis l'index
+    public void flush() throws IOException {
+        if (writtenGames == games) {
+            return;
+        }
+        pendingData.flip();
+        writeFully(data, pendingData, writtenSize);
+        pendingData.clear();
+        pendingIndex.flip();
+        writeFully(index, pendingIndex, INDEX_HEADER + 8L * writtenGames);
+        pendingIndex.clear();
+        writtenSize = dataSize;
+        writtenGames = games;
+    }
+
+    // Partie complète (la somme de contrôle est vérifiée)
+    public GameRecord get(int game) throws IOException {
+        checkGame(game);
+        long offset = offset(game);
+        int length = (int) (end(game) - offset);
+        return GameRecord.decode(dataMap.slice(offset, length), length);
+    }
+
+    public int moveCount(int game) {
+        checkGame(game);
+        return (int) (end(game) - GameRecord.TRAILER_SIZE - movesOffset(game));
+    }
+
+    // Pit joué au coup ply, lu directement dans l'archive
+    public int move(int game, int ply) {
+        if (ply < 0 || ply >= moveCount(game)) {
+            throw new IndexOutOfBoundsException("Move " + ply + " of game " + game);
+        }
+        return dataMap.get(movesOffset(game) + ply);
+    }
+
+    // Coups de la partie, à rejouer par Mancala.makeMove depuis getStartPosition
+    public List<MancalaMove> moves(int game) {
+        int count = moveCount(game);
+        long offset = movesOffset(game);
+        List<MancalaMove> moves = new ArrayList<>(count);
+        for (int ply = 0; ply < count; ply++) {
+            moves.add(new MancalaMove(dataMap.get(offset + ply)));
+        }
+        return moves;
+    }
+
+    public boolean getFirstPlayer(int game) {
+        checkGame(game);
+        return (dataMap.get(offset(game) + 5) & GameRecord.FIRST_PROGRAM) == 0;
+    }
+
+    public MancalaPosition getStartPosition(int game) {
+        checkGame(game);
+        MancalaPosition position = new MancalaPosition();
+        long offset = offset(game);
+        if ((dataMap.get(offset + 5) & GameRecord.CUSTOM_START) != 0) {
+            for (int pit = 0; pit < 14; pit++) {
+                position.board[pit] = dataMap.get(offset + GameRecord.HEADER_SIZE + pit) & 0xFF;
+            }
+            position.hash = Zobrist.hash(position.board);
+        }
+        return position;
+    }
+
+    // Position après les ply premiers coups
+    public MancalaPosition position(int game, int ply) {
+        int count = moveCount(game);
+        if (ply < 0 || ply > count) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " of game " + game);
+        }
+        PackedPosition[] found = new PackedPosition[1];
+        scan(game, game + 1, (id, current, position, player, move) -> {
+            if (current == ply) {
+                found[0] = position.copy();
+            }
+        });
+        return found[0].toPosition();
+    }
+
+    // Parcourt toutes les positions de toutes les parties
+    public void scan(PositionVisitor visitor) {
+        scan(0, games, visitor);
+    }
+
+    // Parcourt les positions des parties from (inclus) à to (exclu)
+    public void scan(int from, int to, PositionVisitor visitor) {
+        if (from < 0 || to > games || from > to) {
+            throw new IndexOutOfBoundsException("Games " + from + " to " + to + " of " + games);
+        }
+        ensureMapped();
+        PackedPosition position = new PackedPosition();
+        int[] board = new int[14];
+        for (int game = from; game < to; game++) {
+            long offset = offset(game);
+            int flags = dataMap.get(offset + 5);
+            long moves = offset + GameRecord.HEADER_SIZE;
+            if ((flags & GameRecord.CUSTOM_START) != 0) {
+                for (int pit = 0; pit < 14; pit++) {
+                    board[pit] = dataMap.get(moves + pit) & 0xFF;
+                }
+                position.set(PackedPosition.of(board));
+                moves += 14;
+            } else {
+                position.set(STANDARD_START);
+            }
+            int count = (int) (end(game) - GameRecord.TRAILER_SIZE - moves);
+            boolean player = (flags & GameRecord.FIRST_PROGRAM) == 0;
+            for (int ply = 0; ply < count; ply++) {
+                int pit = dataMap.get(moves + ply);
+                visitor.visit(game, ply, position, player, pit);
+                if (!position.play(pit, player)) {
+                    player = !player;
+                }
+            }
+            visitor.visit(game, count, position, player, -1);
+        }
+    }
+
+    // Parties où la position de clé key a été atteinte (cf. Zobrist), dans l'ordre des parties ; les parties
+    // ajoutées depuis buildPositionIndex sont parcourues. Deux positions ont la même clé avec une
+    // probabilité négligeable (64 bits)
+    public List<Occurrence> find(long key) {
+        ensureMapped();
+        List<Occurrence> found = new ArrayList<>();
+        int from = 0;
+        if (positions != null) {
+            int bucket = (int) (key >>> (64 - bucketBits));
+            long entries = entriesOffset(bucketBits);
+            long end = positions.getLong(POSITIONS_HEADER + 8L * (bucket + 1));
+            for (long i = positions.getLong(POSITIONS_HEADER + 8L * bucket); i < end; i++) {
+                long entry = entries + i * ENTRY_SIZE;
+                if (positions.getLong(entry) == key) {
+                    found.add(new Occurrence(positions.getInt(entry + 8), positions.getInt(entry + 12)));
+                }
+            }
+            from = positionGames;
+        }
+        scan(from, games, (game, ply, position, player, move) -> {
+            if (key(position, player) == key) {
+                found.add(new Occurrence(game, ply));
+            }
+        });
+        return found;
+    }
+
+    // Construit l'index des positions de toutes les parties ; renvoie le nombre de positions indexées.
+    // Les entrées sont d'abord réparties par paquets de seaux (bits de poids fort de la clé), chaque paquet
+    // étant écrit à la suite par blocs, puis chaque paquet est trié par seau en mémoire : des écritures
+    // dispersées dans tout le fichier projeté coûteraient un défaut de page chacune
+    public long buildPositionIndex() throws IOException {
+        ensureMapped();
+        long total = 0;
+        for (int game = 0; game < games; game++) {
+            total += moveCount(game) + 1;
+        }
+        int bits = MIN_BUCKET_BITS;
+        while (bits < MAX_BUCKET_BITS && (total >>> bits) > ENTRIES_PER_BUCKET) {
+            bits++;
+        }
+        int shift = 64 - bits;
+        int partitionBits = Math.min(bits, PARTITION_BITS);
+        int partitionShift = 64 - partitionBits;
+        int bucketsPerPartition = 1 << (bits - partitionBits);
+        long[] partitions = new long[(1 << partitionBits) + 1]; // Première entrée de chaque paquet
+        scan((game, ply, position, player, move) -> partitions[(int) (key(position, player) >>> partitionShift) + 1]++);
+        for (int partition = 1; partition < partitions.length; partition++) {
+            partitions[partition] += partitions[partition - 1];
+        }
+
+        long entries = entriesOffset(bits);
+        Path temporary = sibling(file, ".pos.tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedFile map = new MappedFile(channel, FileChannel.MapMode.READ_WRITE, entries + total * ENTRY_SIZE,
+                    BUFFER_SIZE);
+            map.putInt(0, POSITIONS_MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(8, games);
+            map.putInt(12, bits);
+
+            // Répartition : les entrées de chaque paquet, dans l'ordre des parties
+            ByteBuffer[] pending = new ByteBuffer[1 << partitionBits];
+            long[] next = Arrays.copyOf(partitions, pending.length); // Prochaine entrée libre de chaque paquet
+            for (int partition = 0; partition < pending.length; partition++) {
+                pending[partition] = ByteBuffer.allocate(BUFFER_SIZE);
+            }
+            scan((game, ply, position, player, move) -> {
+                long key = key(position, player);
+                int partition = (int) (key >>> partitionShift);
+                ByteBuffer buffer = pending[partition];
+                buffer.putLong(key).putInt(game).putInt(ply);
+                if (!buffer.hasRemaining()) {
+                    next[partition] = writeEntries(map, entries, next[partition], buffer);
+                }
+            });
+            for (int partition = 0; partition < pending.length; partition++) {
+                writeEntries(map, entries, next[partition], pending[partition]);
+            }
+
+            // Tri de chaque paquet par seau (tri par dénombrement : l'ordre des parties est conservé)
+            long[] keys = new long[0];
+            long[] occurrences = new long[0]; // Partie et ply de chaque entrée
+            long[] cursor = new long[bucketsPerPartition];
+            for (int partition = 0; partition < pending.length; partition++) {
+                long begin = partitions[partition];
+                int count = (int) (partitions[partition + 1] - begin);
+                if (keys.length < count) {
+                    keys = new long[count];
+                    occurrences = new long[count];
+                }
+                Arrays.fill(cursor, 0L);
+                int first = partition * bucketsPerPartition;
+                for (int i = 0; i < count; i++) {
+                    long entry = entries + (begin + i) * ENTRY_SIZE;
+                    keys[i] = map.getLong(entry);
+                    occurrences[i] = map.getLong(entry + 8);
+                    cursor[(int) (keys[i] >>> shift) - first]++;
+                }
+                long start = begin;
+                for (int bucket = 0; bucket < bucketsPerPartition; bucket++) {
+                    map.putLong(POSITIONS_HEADER + 8L * (first + bucket), start);
+                    long size = cursor[bucket];
+                    cursor[bucket] = start;
+                    start += size;
+                }
+                for (int i = 0; i < count; i++) {
+                    long entry = entries + cursor[(int) (keys[i] >>> shift) - first]++ * ENTRY_SIZE;
+                    map.putLong(entry, keys[i]);
+                    map.putLong(entry + 8, occurrences[i]);
+                }
+            }
+            map.putLong(POSITIONS_HEADER + 8L * (1 << bits), total);
+            map.force();
+        }
+        Files.move(temporary, sibling(file, ".pos"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        openPositionIndex();
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            data.close();
+            index.close();
+        }
+    }
+
+    // Écrit à la suite les entrées du tampon à partir de l'entrée next ; renvoie la prochaine entrée libre
+    private static long writeEntries(MappedFile map, long entries, long next, ByteBuffer buffer) {
+        buffer.flip();
+        int count = buffer.remaining() / ENTRY_SIZE;
+        if (count > 0) {
+            map.slice(entries + next * ENTRY_SIZE, buffer.remaining()).put(buffer);
+        }
+        buffer.clear();
+        return next + count;
+    }
+
+    private static long key(PackedPosition position, boolean player) {
+        return Zobrist.hash(position) ^ Zobrist.sideKey(player);
+    }
+
+    // Début des entrées de l'index des positions (aligné sur ENTRY_SIZE)
+    private static long entriesOffset(int bits) {
+        long table = POSITIONS_HEADER + 8L * ((1 << bits) + 1);
+        return (table + ENTRY_SIZE - 1) / ENTRY_SIZE * ENTRY_SIZE;
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    private void checkGame(int game) {
+        if (game < 0 || game >= games) {
+            throw new IndexOutOfBoundsException("Game " + game + " of " + games);
+        }
+        ensureMapped();
+    }
+
+    private long offset(int game) {
+        return indexMap.getLong(INDEX_HEADER + 8L * game);
+    }
+
+    private long end(int game) {
+        return game + 1 < games ? offset(game + 1) : dataSize;
+    }
+
+    private long movesOffset(int game) {
+        long offset = offset(game);
+        return offset + GameRecord.HEADER_SIZE + ((dataMap.get(offset + 5) & GameRecord.CUSTOM_START) != 0 ? 14 : 0);
+    }
+
+    // Projette l'archive et l'index s'il y a eu des ajouts depuis la dernière projection
+    private void ensureMapped() {
+        if (mappedGames == games) {
+            return;
+        }
+        try {
+            flush();
+            map();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map() throws IOException {
+        dataMap = new MappedFile(data, FileChannel.MapMode.READ_ONLY, dataSize, MAX_RECORD_SIZE);
+        indexMap = new MappedFile(index, FileChannel.MapMode.READ_ONLY, INDEX_HEADER + 8L * games, 8);
+        mappedGames = games;
+    }
+
+    // Vérifie l'index et le complète : parties écrites dans l'archive mais pas dans l'index, partie
+    // incomplète en fin d'archive (supprimée)
+    private void recover() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER);
+        if (index.size() < INDEX_HEADER) {
+            header.putInt(INDEX_MAGIC).putInt(VERSION).flip();
+            writeFully(index, header, 0);
+        } else {
+            readFully(index, header, 0);
+            if (header.getInt(0) != INDEX_MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a game archive index: " + sibling(file, ".idx"));
+            }
+        }
+        games = (int) ((index.size() - INDEX_HEADER) / 8);
+        dataSize = data.size();
+        map();
+        while (games > 0 && offset(games - 1) >= dataSize) {
+            games--;
+        }
+        long next = games > 0 ? offset(games - 1) : 0;
+        boolean indexed = games > 0; // La dernière partie indexée est relue pour trouver sa fin
+        ByteBuffer entry = ByteBuffer.allocate(8);
+        while (next < dataSize) {
+            int available = (int) Math.min(dataSize - next, MAX_RECORD_SIZE);
+            int length = GameRecord.scan(dataMap.slice(next, available));
+            if (length < 0) {
+                if (dataSize - next >= MAX_RECORD_SIZE) {
+                    throw new IOException("Corrupted game archive at offset " + next + ": " + file);
+                }
+                System.err.println("Removing an incomplete game at the end of " + file);
+                data.truncate(next);
+                dataSize = next;
+                if (indexed) {
+                    games--;
+                }
+                break;
+            }
+            if (!indexed) {
+                entry.clear();
+                entry.putLong(next).flip();
+                writeFully(index, entry, INDEX_HEADER + 8L * games);
+                games++;
+            }
+            indexed = false;
+            next += length;
+        }
+        index.truncate(INDEX_HEADER + 8L * games);
+        writtenGames = games;
+        writtenSize = dataSize;
+        map();
+    }
+
+    // Index des positions existant, ignoré s'il couvre plus de parties que l'archive
+    private void openPositionIndex() throws IOException {
+        Path path = sibling(file, ".pos");
+        positions = null;
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(POSITIONS_HEADER);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != POSITIONS_MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a position index: " + path);
+            }
+            int indexedGames = header.getInt(8);
+            int bits = header.getInt(12);
+            if (indexedGames > games || bits < MIN_BUCKET_BITS || bits > MAX_BUCKET_BITS) {
+                System.err.println("Ignoring an outdated position index: " + path);
+                return;
+            }
+            positions = new MappedFile(channel, FileChannel.MapMode.READ_ONLY, channel.size(), ENTRY_SIZE);
+            positionGames = indexedGames;
+            bucketBits = bits;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package GameSearch.mancala;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Enregistrement compact d'une partie : position de départ, joueur au trait et suite des coups.
+//
+// Format (version 1, gros-boutiste) :
+//   int   MAGIC ("MNCR")
+//   byte  VERSION
+//   byte  drapeaux : FIRST_PROGRAM (le PROGRAM joue en premier), CUSTOM_START (plateau de départ présent)
+//   [14 octets : plateau de départ, si CUSTOM_START]
+//   1 octet par coup : le pit joué (0 à 5 pour HUMAN, 7 à 12 pour PROGRAM)
+//   byte  END (0xFF)
+//   int   CRC32 de tous les octets précédents de l'enregistrement
+// La fin est marquée par END plutôt que par un nombre de coups en en-tête : GameRecordAppender peut
+// ainsi écrire chaque coup dès qu'il est joué. Un fichier peut contenir plusieurs enregistrements à la suite.
+public final class GameRecord {
+    public static final int MAGIC = 0x4D4E4352; // "MNCR"
+    public static final int VERSION = 1;
+    static final int FIRST_PROGRAM = 1;
+    static final int CUSTOM_START = 2;
+    static final int END = 0xFF;
+    static final int HEADER_SIZE = 6; // MAGIC, VERSION, drapeaux
+    static final int TRAILER_SIZE = 5; // END, CRC32
+    private static final int MAX_TOTAL_SEEDS = 63; // Limite de PackedPosition (6 bits par pit)
+
+    private final int[] start; // null = position initiale standard
+    private final boolean firstPlayer;
+    private byte[] moves;
+    private int size;
+
+    private GameRecord(int[] start, boolean firstPlayer, byte[] moves, int size) {
+        this.start = start;
+        this.firstPlayer = firstPlayer;
+        this.moves = moves;
+        this.size = size;
+    }
+
+    // Nouvelle partie depuis la position initiale
+    public static GameRecord newGame(boolean firstPlayer) {
+        return new GameRecord(null, firstPlayer, new byte[64], 0);
+    }
+
+    // Partie reprise depuis une position quelconque (ancienne sauvegarde, position d'analyse)
+    public static GameRecord fromPosition(MancalaPosition position, boolean player) {
+        int total = 0;
+        for (int seeds : position.board) {
+            if (seeds < 0) {
+                throw new IllegalArgumentException("Negative seed count");
+            }
+            total += seeds;
+        }
+        if (total > MAX_TOTAL_SEEDS) {
+            throw new IllegalArgumentException("Too many seeds for a game record: " + total);
+        }
+        int[] start = Arrays.equals(position.board, new MancalaPosition().board) ? null : position.board.clone();
+        return new GameRecord(start, player, new byte[64], 0);
+    }
+
+    // Ajoute un coup (le pit joué)
+    public void add(int pit) {
+        if (pit < 0 || pit > 12 || pit == MancalaPosition.HUMAN_MANCALA) {
+            throw new IllegalArgumentException("Invalid pit: " + pit);
+        }
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = (byte) pit;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int move(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + size);
+        }
+        return moves[index];
+    }
+
+    public boolean getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    public MancalaPosition getStartPosition() {
+        MancalaPosition position = new MancalaPosition();
+        if (start != null) {
+            position.board = start.clone();
+            position.hash = Zobrist.hash(position.board);
+        }
+        return position;
+    }
+
+    // Rejoue les coups depuis la position de départ ; lève IllegalStateException si un coup est illégal
+    // (pit vide, pit de l'autre joueur, partie déjà terminée)
+    public MancalaPosition replay() {
+        return replay(size);
+    }
+
+    // Position après les count premiers coups
+    public MancalaPosition replay(int count) {
+        PackedPosition position = PackedPosition.of(start != null ? start : new MancalaPosition().board);
+        boolean player = firstPlayer;
+        boolean extraTurn = false;
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            int pit = moves[i];
+            if (position.isTerminal()) {
+                throw new IllegalStateException("Move " + i + " played after the end of the game");
+            }
+            if ((pit < 7) != player || position.seeds(pit) == 0) {
+                throw new IllegalStateException("Illegal move " + i + ": pit " + pit);
+            }
+            extraTurn = position.play(pit, player);
+            if (!extraTurn) {
+                player = !player;
+            }
+            last = pit;
+        }
+        MancalaPosition result = position.toPosition();
+        result.extraTurn = extraTurn;
+        result.lastMove = last;
+        return result;
+    }
+
+    // Joueur au trait après tous les coups
+    public boolean playerToMove() {
+        boolean player = firstPlayer;
+        PackedPosition position = PackedPosition.of(start != null ? start : new MancalaPosition().board);
+        for (int i = 0; i < size; i++) {
+            if (!position.play(moves[i], player)) {
+                player = !player;
+            }
+        }
+        return player;
+    }
+
+    // Taille de l'enregistrement encodé
+    public int encodedSize() {
+        return HEADER_SIZE + (start != null ? 14 : 0) + size + TRAILER_SIZE;
+    }
+
+    // Écrit l'enregistrement à la position courante du tampon (de taille suffisante)
+    public void encode(ByteBuffer buffer) {
+        int begin = buffer.position();
+        encodeHeader(buffer, start, firstPlayer);
+        buffer.put(moves, 0, size);
+        buffer.put((byte) END);
+        CRC32 crc = new CRC32();
+        ByteBuffer covered = buffer.duplicate();
+        covered.limit(buffer.position()).position(begin);
+        crc.update(covered);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    static void encodeHeader(ByteBuffer buffer, int[] start, boolean firstPlayer) {
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) ((firstPlayer ? 0 : FIRST_PROGRAM) | (start != null ? CUSTOM_START : 0)));
+        if (start != null) {
+            for (int seeds : start) {
+                buffer.put((byte) seeds);
+            }
+        }
+    }
+
+    // Longueur de l'enregistrement qui commence à la position du tampon, -1 s'il n'est pas encore entier
+    // dans le tampon ; IOException si l'en-tête ou un coup est invalide
+    static int scan(ByteBuffer buffer) throws IOException {
+        int begin = buffer.position();
+        int available = buffer.remaining();
+        if (available < HEADER_SIZE) {
+            return -1;
+        }
+        if (buffer.getInt(begin) != MAGIC) {
+            throw new IOException("Not a game record");
+        }
+        int version = buffer.get(begin + 4) & 0xFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported game record version: " + version);
+        }
+        int offset = HEADER_SIZE + ((buffer.get(begin + 5) & CUSTOM_START) != 0 ? 14 : 0);
+        for (; offset < available; offset++) {
+            int b = buffer.get(begin + offset) & 0xFF;
+            if (b == END) {
+                return offset + TRAILER_SIZE <= available ? offset + TRAILER_SIZE : -1;
+            }
+            if (b > 12 || b == MancalaPosition.HUMAN_MANCALA) {
+                throw new IOException("Corrupted game record: invalid pit " + b);
+            }
+        }
+        return -1;
+    }
+
+    // Lit l'enregistrement qui commence à la position du tampon (entier, cf. scan) et vérifie sa somme de contrôle
+    static GameRecord decode(ByteBuffer buffer, int length) throws IOException {
+        int begin = buffer.position();
+        CRC32 crc = new CRC32();
+        ByteBuffer covered = buffer.duplicate();
+        covered.limit(begin + length - 4);
+        crc.update(covered);
+        if ((int) crc.getValue() != buffer.getInt(begin + length - 4)) {
+            throw new IOException("Corrupted game record: checksum mismatch");
+        }
+        int flags = buffer.get(begin + 5);
+        int[] start = null;
+        int offset = begin + HEADER_SIZE;
+        if ((flags & CUSTOM_START) != 0) {
+            start = new int[14];
+            for (int pit = 0; pit < 14; pit++) {
+                start[pit] = buffer.get(offset++) & 0xFF;
+            }
+        }
+        int count = begin + length - TRAILER_SIZE - offset;
+        byte[] moves = new byte[Math.max(count, 1)];
+        buffer.position(offset);
+        buffer.get(moves, 0, count);
+        buffer.position(begin + length);
+        return new GameRecord(start, (flags & FIRST_PROGRAM) == 0, moves, count);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof GameRecord)) return false;
+        GameRecord other = (GameRecord) o;
+        return firstPlayer == other.firstPlayer && Arrays.equals(start, other.start)
+                && Arrays.equals(moves, 0, size, other.moves, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(start) * 31 + (firstPlayer ? 1 : 0);
+        for (int i = 0; i < size; i++) {
+            hash = hash * 31 + moves[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(firstPlayer ? "HUMAN" : "PROGRAM").append(" first:");
+        for (int i = 0; i < size; i++) {
+            sb.append(' ').append(moves[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,161 @@
+package GameSearch.mancala;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Journal des parties : chaque coup est écrit dans le fichier dès qu'il est joué (un octet), et la partie
+// est close par END et sa somme de contrôle. Une partie interrompue (arrêt brutal) est close à la
+// réouverture du journal avec les coups déjà écrits.
+public class GameRecordAppender implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer one = ByteBuffer.allocate(1);
+    private boolean inGame;
+
+    private GameRecordAppender(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    // Ouvre (ou crée) un journal en fin de fichier
+    public static GameRecordAppender open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            GameRecordAppender appender = new GameRecordAppender(channel);
+            appender.recover(file);
+            return appender;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Commence une partie (start : null pour la position initiale standard)
+    public void begin(MancalaPosition start, boolean firstPlayer) throws IOException {
+        if (inGame) {
+            finish();
+        }
+        int[] board = null;
+        if (start != null && !Arrays.equals(start.board, new MancalaPosition().board)) {
+            GameRecord.fromPosition(start, firstPlayer); // Vérifie que le plateau est enregistrable
+            board = start.board;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(GameRecord.HEADER_SIZE + 14);
+        GameRecord.encodeHeader(buffer, board, firstPlayer);
+        buffer.flip();
+        crc.reset();
+        crc.update(buffer.duplicate());
+        writeFully(buffer);
+        inGame = true;
+    }
+
+    // Écrit un coup de la partie en cours
+    public void append(int pit) throws IOException {
+        if (!inGame) {
+            throw new IllegalStateException("No game in progress");
+        }
+        if (pit < 0 || pit > 12 || pit == MancalaPosition.HUMAN_MANCALA) {
+            throw new IllegalArgumentException("Invalid pit: " + pit);
+        }
+        one.clear();
+        one.put((byte) pit).flip();
+        crc.update(pit);
+        writeFully(one);
+    }
+
+    // Termine la partie en cours
+    public void finish() throws IOException {
+        if (!inGame) {
+            return;
+        }
+        crc.update(GameRecord.END);
+        ByteBuffer trailer = ByteBuffer.allocate(GameRecord.TRAILER_SIZE);
+        trailer.put((byte) GameRecord.END).putInt((int) crc.getValue()).flip();
+        writeFully(trailer);
+        inGame = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Vérifie le journal et clôt une partie restée ouverte ; la suite est écrite en fin de fichier.
+    // Le fichier est lu par blocs de BUFFER_SIZE octets : seul un enregistrement coupé par la fin du
+    // fichier (et non par celle du tampon) est une partie interrompue
+    private void recover(Path file) throws IOException {
+        long size = channel.size();
+        ByteBuffer data = ByteBuffer.allocate(BUFFER_SIZE);
+        data.flip(); // Tampon vide, en mode lecture
+        long start = 0; // Position dans le fichier du premier octet du tampon
+        long read = 0;  // Octets du fichier déjà lus
+        while (true) {
+            int length = data.hasRemaining() ? GameRecord.scan(data) : -1;
+            if (length >= 0) {
+                data.position(data.position() + length);
+                continue;
+            }
+            if (read < size) {
+                // Enregistrement incomplet dans le tampon : bloc suivant (tampon agrandi s'il ne tient pas)
+                start += data.position();
+                data.compact();
+                if (!data.hasRemaining()) {
+                    data.flip();
+                    data = ByteBuffer.allocate(data.capacity() * 2).put(data);
+                }
+                int count = channel.read(data, read);
+                data.flip();
+                if (count < 0) {
+                    throw new IOException("Game log truncated while recovering: " + file);
+                }
+                read += count;
+                continue;
+            }
+            if (!data.hasRemaining()) {
+                break;
+            }
+            // Partie interrompue : coups écrits jusqu'à la fin du fichier, ou en-tête incomplet (supprimé)
+            int header = GameRecord.HEADER_SIZE;
+            if (data.remaining() >= header && (data.get(data.position() + 5) & GameRecord.CUSTOM_START) != 0) {
+                header += 14;
+            }
+            if (data.remaining() < header) {
+                channel.truncate(start + data.position());
+                break;
+            }
+            // Seuls les coups entiers sont gardés : un END suivi d'une somme de contrôle tronquée est supprimé
+            int end = data.position() + header;
+            while (end < data.limit() && (data.get(end) & 0xFF) != GameRecord.END) {
+                end++;
+            }
+            channel.truncate(start + end);
+            data.limit(end);
+            crc.reset();
+            crc.update(data.duplicate());
+            channel.position(start + end);
+            inGame = true;
+            System.err.println("Closing an interrupted game in " + file);
+            finish();
+            break;
+        }
+        channel.position(channel.size());
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package GameSearch.mancala;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Lecture séquentielle des enregistrements GameRecord d'un canal, par blocs de BUFFER_SIZE octets
+public class GameRecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private boolean endOfStream;
+
+    public GameRecordReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip(); // Tampon vide, en mode lecture
+    }
+
+    public static GameRecordReader open(Path file) throws IOException {
+        return new GameRecordReader(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    // Charge tous les enregistrements d'un fichier d'une seule lecture (analyse de milliers de parties)
+    public static List<GameRecord> readAll(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + file);
+            }
+            ByteBuffer data = ByteBuffer.allocate((int) size);
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // Lecture du fichier entier
+            }
+            data.flip();
+            List<GameRecord> records = new ArrayList<>();
+            while (data.hasRemaining()) {
+                int length = GameRecord.scan(data);
+                if (length < 0) {
+                    throw new IOException("Truncated game record at offset " + data.position());
+                }
+                records.add(GameRecord.decode(data, length));
+            }
+            return records;
+        }
+    }
+
+    // Enregistrement suivant, null à la fin du canal ; IOException si le dernier est tronqué
+    public GameRecord next() throws IOException {
+        while (true) {
+            int length = buffer.hasRemaining() ? GameRecord.scan(buffer) : -1;
+            if (length >= 0) {
+                return GameRecord.decode(buffer, length);
+            }
+            if (endOfStream) {
+                if (buffer.hasRemaining()) {
+                    throw new IOException("Truncated game record");
+                }
+                return null;
+            }
+            fill();
+        }
+    }
+
+    // Complète le tampon (agrandi si un enregistrement ne tient pas dedans)
+    private void fill() throws IOException {
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        if (channel.read(buffer) < 0) {
+            endOfStream = true;
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,55 @@
+package GameSearch.mancala;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Écriture d'enregistrements GameRecord à la suite sur un canal, par blocs de BUFFER_SIZE octets
+public class GameRecordWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    public GameRecordWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    // Crée (ou remplace) le fichier
+    public static GameRecordWriter create(Path file) throws IOException {
+        return new GameRecordWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    public void write(GameRecord record) throws IOException {
+        int size = record.encodedSize();
+        if (buffer.remaining() < size) {
+            flush();
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocateDirect(size);
+            }
+        }
+        record.encode(buffer);
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
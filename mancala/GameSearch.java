@@ -3,7 +3,7 @@ package GameSearch.mancala;
 import java.util.*;
 
 public abstract class GameSearch {
-    public static final boolean DEBUG = false; // Constante pour activer/désactiver le mode débogage
+    public static final boolean DEBUG = false; // Constante pour activer/désactiver le mode débogage (mesures de recherche)
 
     /*
      * Remarque : la classe abstraite Position doit également
@@ -13,12 +13,31 @@ public abstract class GameSearch {
      * Remarque : la classe abstraite Move doit également être sous-classée.
      */
 
-    public static boolean PROGRAM = false; // Constante pour représenter l'IA
-    public static boolean HUMAN = true;   // Constante pour représenter le joueur humain
+    public static final boolean PROGRAM = false; // Constante pour représenter l'IA
+    public static final boolean HUMAN = true;    // Constante pour représenter le joueur humain
 
-    // Vérifie si la partie est terminée (ex : plus de mouvements possibles)
+    protected TranspositionTable transpositionTable; // Table de transposition (null = désactivée)
+    protected MoveOrdering moveOrdering = new MoveOrdering(); // Ordre des coups et statistiques de coupure
+    protected Algorithm algorithm = Algorithm.PVS;
+    protected int quiescenceDepth; // Coups forçants explorés au-delà de l'horizon (0 = pas de quiescence)
+
+    // Algorithme de recherche
+    public enum Algorithm {
+        ALPHA_BETA, // Fenêtre complète pour chaque coup
+        PVS         // Principal Variation Search : fenêtre nulle après le premier coup (et aspiration en itératif)
+    }
+    protected long nodeCount; // Nombre de nœuds visités par la dernière recherche
+    // Mesures détaillées de chaque décision (null = désactivées ; actives en mode DEBUG ou avec -Dmancala.metrics=true)
+    protected SearchMetrics searchMetrics = DEBUG || Boolean.getBoolean("mancala.metrics") ? new SearchMetrics() : null;
+    private int rootDepth;   // Profondeur de la racine de la recherche en cours
+
+    // Vérifie si la partie est terminée (ex : plus de mouvements possibles) et, si c'est le cas, ramasse
+    // les graines restantes dans les Mancalas : à réserver aux boucles de jeu, la recherche utilise isTerminal
     public abstract boolean drawnPosition(Position p);
 
+    // Vérifie si la partie est terminée, sans modifier la position
+    public abstract boolean isTerminal(Position p);
+
     // Détermine si un joueur a gagné la partie
     public abstract boolean wonPosition(Position p, boolean player);
 
@@ -40,48 +59,313 @@ public abstract class GameSearch {
     // Crée un mouvement à partir d'une entrée utilisateur
     public abstract Move createMove();
 
+    // Profondeur à laquelle reachedMaxDepth arrête la recherche pour cette position
+    protected abstract int maxDepth(Position p);
+
+    // Évaluation d'une feuille de la recherche ; par défaut l'heuristique, une sous-classe peut
+    // la remplacer par un score exact (base de finales)
+    protected float leafEvaluation(Position p, boolean player) {
+        return positionEvaluation(p, player);
+    }
+
+    // Évaluation d'une position finale atteinte avant l'horizon ; par défaut celle d'une feuille
+    // (la position ne doit pas être modifiée : Mancala ramasse les graines sur une copie)
+    protected float terminalEvaluation(Position p, boolean player) {
+        return leafEvaluation(p, player);
+    }
+
+    // Clé de hachage d'une position pour le joueur au trait (utilisée par la table de transposition)
+    protected long positionKey(Position p, boolean player) {
+        return 0L;
+    }
+
+    // Indique si le coup ayant mené à une position fille donne un tour supplémentaire au même joueur
+    protected boolean extraTurn(Position child) {
+        return false;
+    }
+
+    // Nature d'un coup pour MoveOrdering (MoveOrdering.EXTRA_TURN, MoveOrdering.CAPTURE), 0 si inconnue
+    protected int orderingFlags(Position p, int move, boolean player) {
+        return 0;
+    }
+
+    // Positions filles dans l'ordre où alphaBetaHelper les reçoit, avant son propre tri (possibleMoves par défaut)
+    protected Position[] searchMoves(Position p, boolean player) {
+        return possibleMoves(p, player);
+    }
+
+    // Positions filles issues des coups forçants (ex : tours supplémentaires, captures), dans l'ordre où la
+    // recherche de quiescence les explore ; aucune par défaut
+    protected Position[] forcingMoves(Position p, boolean player) {
+        return new Position[0];
+    }
+
+    // Identifiant du coup ayant mené à une position fille (-1 si inconnu)
+    protected int moveIndex(Position child) {
+        return -1;
+    }
+
+    // Réflexion sur une position où l'adversaire humain est au trait ; sans effet par défaut
+    public void startPondering(Position p, boolean player) {
+    }
+
+    // Installe la table de transposition utilisée par alphaBetaHelper (null pour la désactiver)
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    // Longueur maximale des suites de coups forçants explorées à l'horizon (0 pour désactiver la quiescence)
+    public void setQuiescenceDepth(int quiescenceDepth) {
+        this.quiescenceDepth = quiescenceDepth;
+    }
+
+    public int getQuiescenceDepth() {
+        return quiescenceDepth;
+    }
+
+    public void setMoveOrdering(MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    public MoveOrdering getMoveOrdering() {
+        return moveOrdering;
+    }
+
+    // Installe le collecteur de mesures (null pour désactiver la collecte)
+    public void setSearchMetrics(SearchMetrics searchMetrics) {
+        this.searchMetrics = searchMetrics;
+    }
+
+    public SearchMetrics getSearchMetrics() {
+        return searchMetrics;
+    }
+
+    // Mesures de la dernière décision (null si la collecte est désactivée)
+    public SearchMetrics.Snapshot getLastSearchMetrics() {
+        return searchMetrics != null ? searchMetrics.getLastSnapshot() : null;
+    }
+
+    // Nombre de nœuds visités par la dernière recherche
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
     // Méthode principale pour l'algorithme Alpha-Beta
     protected List<Object> alphaBeta(int depth, Position p, boolean player) {
-        return alphaBetaHelper(depth, p, player, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
+        nodeCount = 0;
+        rootDepth = depth;
+        if (transpositionTable != null) {
+            transpositionTable.newSearch();
+        }
+        moveOrdering.newSearch();
+        SearchMetrics metrics = searchMetrics;
+        if (metrics == null) {
+            return alphaBetaHelper(depth, p, player, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
+        }
+        metrics.begin();
+        List<Object> result = alphaBetaHelper(depth, p, player, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
+        Position best = (Position) result.get(1);
+        metrics.end(maxDepth(p) - depth, best != null ? moveIndex(best) : -1, (Float) result.get(0));
+        return result;
     }
 
     // Méthode récursive pour l'algorithme Alpha-Beta
     protected List<Object> alphaBetaHelper(int depth, Position p, boolean player, float alpha, float beta) {
+        nodeCount++;
+        SearchMetrics metrics = searchMetrics;
+        if (metrics != null) {
+            metrics.node(depth - rootDepth);
+        }
         // Vérifie si la profondeur maximale ou la fin du jeu est atteinte
-        if (reachedMaxDepth(p, depth) || drawnPosition(p)) {
-            float eval = positionEvaluation(p, player); // Évalue la position
+        if (reachedMaxDepth(p, depth) || isTerminal(p)) {
+            if (metrics != null) {
+                metrics.evaluation();
+            }
+            float eval;
+            if (quiescenceDepth > 0 && depth >= maxDepth(p)) {
+                // À l'horizon, les coups forçants sont explorés avant de se fier à l'évaluation
+                eval = quiescence(depth, p, player, alpha, beta, quiescenceDepth);
+            } else {
+                // Évalue la position (avant l'horizon, elle est finale)
+                eval = depth < maxDepth(p) ? terminalEvaluation(p, player) : leafEvaluation(p, player);
+            }
             return Arrays.asList(eval, null); // Renvoie le score et aucun mouvement
         }
 
+        // Consulte la table de transposition : coupure si l'entrée est assez profonde, sinon meilleur coup connu
+        TranspositionTable table = transpositionTable;
+        long key = 0L;
+        int tableMove = -1;
+        int draft = maxDepth(p) - depth;
+        float alphaOrig = alpha;
+        if (table != null) {
+            key = positionKey(p, player);
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS) {
+                tableMove = TranspositionTable.move(entry);
+                if (depth > rootDepth && TranspositionTable.draft(entry) >= draft) {
+                    float value = TranspositionTable.value(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && value >= beta)
+                            || (bound == TranspositionTable.UPPER && value <= alpha)) {
+                        return Arrays.asList(value, null);
+                    }
+                }
+            }
+        }
+
         List<Object> bestMove = new ArrayList<>(); // Stocke le meilleur mouvement
-        Position[] moves = possibleMoves(p, player); // Récupère les mouvements possibles
-        Arrays.sort(moves, Comparator.comparingDouble(m -> -positionEvaluation((Position) m, player)));
+        Position[] moves = searchMoves(p, player); // Récupère les mouvements possibles
+        int ply = depth - rootDepth;
+        if (moveOrdering.getMode() == MoveOrdering.Mode.EVALUATION) {
+            Arrays.sort(moves, Comparator.comparingDouble(m -> -positionEvaluation(m, player)));
+        } else {
+            orderMoves(moves, p, ply, player);
+        }
+        if (tableMove != -1) {
+            moveToFront(moves, tableMove); // Le meilleur coup de la table est exploré en premier
+        }
 
         float bestValue = Float.NEGATIVE_INFINITY;
+        int bestIndex = -1;
 
-        for (Position move : moves) {
+        for (int i = 0; i < moves.length; i++) {
+            Position move = moves[i];
             // Exploration récursive pour évaluer les mouvements
-            List<Object> evalResult = alphaBetaHelper(depth + 1, move, !player, -beta, -alpha);
-            float eval = -((Float) evalResult.get(0)); // Inverse l'évaluation pour l'adversaire
+            boolean sameSide = extraTurn(move);
+            List<Object> evalResult;
+            if (i == 0 || algorithm == Algorithm.ALPHA_BETA) {
+                evalResult = searchChild(depth, move, player, sameSide, alpha, beta);
+            } else {
+                // PVS : fenêtre nulle pour réfuter le coup, nouvelle recherche s'il bat alpha
+                evalResult = searchChild(depth, move, player, sameSide, alpha, Math.nextUp(alpha));
+                float scout = (Float) evalResult.get(0);
+                if (scout > alpha && scout < beta) {
+                    evalResult = searchChild(depth, move, player, sameSide, alpha, beta);
+                }
+            }
+            float eval = (Float) evalResult.get(0);
 
             if (eval > bestValue) {
                 bestValue = eval;
                 bestMove.clear();
                 bestMove.add(move); // Enregistre le meilleur mouvement
                 bestMove.addAll(evalResult.subList(1, evalResult.size())); // Ajoute les détails restants
+                bestIndex = moveIndex(move);
             }
 
             // Met à jour alpha et réalise une coupe (cutoff) si nécessaire
             alpha = Math.max(alpha, eval);
             if (alpha >= beta) {
+                int index = moveIndex(move);
+                moveOrdering.cutoff(ply, player, index, orderingFlags(p, index, player) == 0, draft, i);
+                if (metrics != null) {
+                    metrics.cutoff(i);
+                }
                 break; // Coupe les branches inutiles
             }
         }
 
+        if (table != null) {
+            int bound = bestValue <= alphaOrig ? TranspositionTable.UPPER
+                    : bestValue >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, draft, bound, bestValue, bestIndex);
+        }
+
         bestMove.add(0, bestValue); // Ajoute le score en premier
         return bestMove;
     }
 
+    // Recherche de quiescence : seuls les coups forçants sont explorés, au plus remaining coups de suite, et le
+    // joueur au trait peut toujours s'en tenir à l'évaluation statique (stand pat), ce qui borne le score par
+    // en dessous. Ni table de transposition ni ordre des coups : les sous-arbres sont petits
+    private float quiescence(int depth, Position p, boolean player, float alpha, float beta, int remaining) {
+        if (isTerminal(p)) {
+            return terminalEvaluation(p, player);
+        }
+        float standPat = leafEvaluation(p, player);
+        if (remaining == 0 || standPat >= beta) {
+            return standPat;
+        }
+        float bestValue = standPat;
+        alpha = Math.max(alpha, standPat);
+        for (Position move : forcingMoves(p, player)) {
+            nodeCount++;
+            if (searchMetrics != null) {
+                searchMetrics.node(depth + 1 - rootDepth);
+                searchMetrics.evaluation();
+            }
+            float eval = extraTurn(move)
+                    ? quiescence(depth + 1, move, player, alpha, beta, remaining - 1)
+                    : -quiescence(depth + 1, move, !player, -beta, -alpha, remaining - 1);
+            if (eval > bestValue) {
+                bestValue = eval;
+                alpha = Math.max(alpha, eval);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return bestValue;
+    }
+
+    // Explore une position fille ; le score renvoyé est du point de vue du joueur qui vient de jouer
+    private List<Object> searchChild(int depth, Position move, boolean player, boolean sameSide, float alpha, float beta) {
+        if (sameSide) {
+            // Tour supplémentaire : le même joueur rejoue, le score n'est pas inversé
+            return alphaBetaHelper(depth + 1, move, player, alpha, beta);
+        }
+        List<Object> result = alphaBetaHelper(depth + 1, move, !player, -beta, -alpha);
+        result.set(0, -((Float) result.get(0))); // Inverse l'évaluation pour l'adversaire
+        return result;
+    }
+
+    // Trie les positions filles selon le rang de MoveOrdering de leur coup (sans évaluation)
+    private void orderMoves(Position[] moves, Position p, int ply, boolean player) {
+        int[] ranks = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            int move = moveIndex(moves[i]);
+            ranks[i] = moveOrdering.rank(ply, player, move, orderingFlags(p, move, player));
+        }
+        for (int i = 1; i < moves.length; i++) {
+            Position child = moves[i];
+            int rank = ranks[i];
+            int j = i;
+            while (j > 0 && ranks[j - 1] < rank) {
+                moves[j] = moves[j - 1];
+                ranks[j] = ranks[j - 1];
+                j--;
+            }
+            moves[j] = child;
+            ranks[j] = rank;
+        }
+    }
+
+    // Déplace en tête la position fille issue du coup donné (l'ordre des autres est conservé)
+    private void moveToFront(Position[] moves, int move) {
+        for (int i = 1; i < moves.length; i++) {
+            if (moveIndex(moves[i]) == move) {
+                Position first = moves[i];
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = first;
+                return;
+            }
+        }
+    }
+
     // Fonction utilitaire pour récupérer l'index du pit d'un meilleur coup
     private int getPitIndex(MancalaPosition current, MancalaPosition best) {
         for (int i = 0; i < 6; i++) {
@@ -101,6 +385,7 @@ public abstract class GameSearch {
             if (current.board[i] > 0) { // Vérifie que le pit n'est pas vide
                 MancalaPosition simulatedMove = new MancalaPosition();
                 System.arraycopy(current.board, 0, simulatedMove.board, 0, 14);
+                simulatedMove.hash = current.hash;
                 makeMove(simulatedMove, player, new MancalaMove(i)); // Simule le mouvement
                 if (Arrays.equals(simulatedMove.board, best.board)) {
                     return i; // Retourne l'index correspondant
@@ -116,6 +401,7 @@ public abstract class GameSearch {
         MancalaPosition pos = (MancalaPosition) startingPosition;
         boolean currentPlayer = humanPlayFirst; // Détermine le joueur initial
         int remainingHelps = 3; // Nombre d'aides restantes
+        ((Mancala) this).newGame(pos, humanPlayFirst); // Historique de la partie (saveGame, journal)
 
         while (true) {
             printPosition(pos); // Affiche le plateau
@@ -135,11 +421,15 @@ public abstract class GameSearch {
                 } else {
                     System.out.println("It's a Draw!");
                 }
+                ((Mancala) this).endGame();
                 break; // Fin de la boucle
             }
 
             // Gestion des tours pour le joueur humain
             if (currentPlayer == HUMAN) {
+                if (playAgainstComputer) {
+                    startPondering(pos, HUMAN); // L'aide et la réponse se préparent pendant la saisie
+                }
                 System.out.println("Human's turn! (Type 'options' for save/load/quit, or enter help, or enter pit index 0-5)");
                 String input = scanner.next();
 
@@ -180,7 +470,7 @@ public abstract class GameSearch {
                         case 1:
                             System.out.print("Enter filename to save the game: ");
                             String saveFile = scanner.next();
-                            ((Mancala) this).saveGame(pos, saveFile);
+                            ((Mancala) this).saveGame(pos, HUMAN, saveFile);
                             System.out.println("Game saved.");
                             continue;
                         case 2:
@@ -189,7 +479,7 @@ public abstract class GameSearch {
                             MancalaPosition loadedPos = ((Mancala) this).loadGame(loadFile);
                             if (loadedPos != null) {
                                 pos = loadedPos;
-                                currentPlayer = humanPlayFirst; // Revenir à l'ordre initial
+                                currentPlayer = ((Mancala) this).getGameRecord().playerToMove(); // Joueur au trait de la sauvegarde
                             }
                             continue;
                         case 3:
@@ -210,6 +500,7 @@ public abstract class GameSearch {
                     }
                     Move move = new MancalaMove(pit);
                     pos = (MancalaPosition) makeMove(pos, HUMAN, move);
+                    ((Mancala) this).recordMove(pit);
 
                     if (!pos.extraTurn) {
                         currentPlayer = playAgainstComputer ? PROGRAM : !currentPlayer; // Changer de joueur
@@ -224,8 +515,12 @@ public abstract class GameSearch {
                 if (playAgainstComputer) { // Mode contre l'ordinateur
                     System.out.println("Computer's turn!");
                     List<Object> result = alphaBeta(0, pos, PROGRAM);
+                    if (getLastSearchMetrics() != null) {
+                        System.out.println(getLastSearchMetrics());
+                    }
                     MancalaPosition bestMove = (MancalaPosition) result.get(1);
                     pos = bestMove;
+                    ((Mancala) this).recordMove(pos.lastMove);
 
                     if (!pos.extraTurn) {
                         currentPlayer = HUMAN; // Retourner au joueur humain
@@ -245,7 +540,7 @@ public abstract class GameSearch {
                                     case 1:
                                         System.out.print("Enter filename to save the game: ");
                                         String saveFile = scanner.next();
-                                        ((Mancala) this).saveGame(pos, saveFile);
+                                        ((Mancala) this).saveGame(pos, PROGRAM, saveFile);
                                         System.out.println("Game saved.");
                                         continue;
                                     case 2:
@@ -254,7 +549,7 @@ public abstract class GameSearch {
                                         MancalaPosition loadedPos = ((Mancala) this).loadGame(loadFile);
                                         if (loadedPos != null) {
                                             pos = loadedPos;
-                                            currentPlayer = humanPlayFirst; // Revenir à l'ordre initial
+                                            currentPlayer = ((Mancala) this).getGameRecord().playerToMove(); // Joueur au trait de la sauvegarde
                                         }
                                         continue;
                                     case 3:
@@ -281,6 +576,7 @@ public abstract class GameSearch {
 
                             Move move = new MancalaMove(mappedPit);
                             pos = (MancalaPosition) makeMove(pos, PROGRAM, move);
+                            ((Mancala) this).recordMove(mappedPit);
 
                             if (!pos.extraTurn) {
                                 currentPlayer = HUMAN; // Retourner au Player 1
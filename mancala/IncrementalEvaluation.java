@@ -0,0 +1,127 @@
+package GameSearch.mancala;
+
+import java.util.Arrays;
+
+// Évaluation de Mancala.evaluate maintenue au fil des coups : les caractéristiques sont découpées en
+// six colonnes (un pit du PROGRAM et le pit HUMAN en face) et seules les colonnes touchées par les
+// pits modifiés depuis la dernière évaluation sont recalculées. Le total des graines, invariant
+// en cours de partie, n'est compté qu'une fois par position chargée.
+public final class IncrementalEvaluation {
+    public static final int ALL_PITS = (1 << 14) - 1;
+
+    // Colonne dont les termes dépendent directement d'un pit (0 pour les Mancalas)
+    private static final int[] COLUMN_MASK = new int[14];
+
+    static {
+        for (int column = 0; column < 6; column++) {
+            COLUMN_MASK[7 + column] = 1 << column;
+            COLUMN_MASK[5 - column] = 1 << column;
+        }
+    }
+
+    // Termes de chaque colonne (pit 7 + c, pit 5 - c en face)
+    private final int[] capture = new int[6];
+    private final int[] extraTurn = new int[6];
+    private final int[] stones = new int[6];
+    private final int[] prevent = new int[6];
+    // Pit d'arrivée lu par le terme prevent de chaque colonne (-1 aucun), et colonnes qui lisent chaque pit
+    private final int[] preventTarget = new int[6];
+    private final int[] preventReaders = new int[14];
+
+    // Sommes courantes des termes
+    private int capturePotential;
+    private int extraTurnPotential;
+    private int minimizeOpponentStones;
+    private int preventOpponentCapture;
+    private int totalSeeds;
+    private int dirtyPits; // Pits modifiés depuis la dernière évaluation
+
+    // Recalcule tout pour un nouveau plateau
+    public void reset(int[] board) {
+        capturePotential = 0;
+        extraTurnPotential = 0;
+        minimizeOpponentStones = 0;
+        preventOpponentCapture = 0;
+        Arrays.fill(preventReaders, 0);
+        for (int column = 0; column < 6; column++) {
+            capture[column] = 0;
+            extraTurn[column] = 0;
+            stones[column] = 0;
+            prevent[column] = 0;
+            preventTarget[column] = -1;
+            update(column, board);
+        }
+        totalSeeds = Mancala.totalSeeds(board);
+        dirtyPits = 0;
+    }
+
+    // Signale des pits modifiés (un bit par pit)
+    public void changed(int pits) {
+        dirtyPits |= pits;
+    }
+
+    // Évaluation du point de vue du PROGRAM, identique au bit près à Mancala.evaluate(board)
+    public float value(int[] board) {
+        return value(board, EvaluationWeights.DEFAULT);
+    }
+
+    // Évaluation avec d'autres poids, identique au bit près à Mancala.evaluate(board, weights)
+    public float value(int[] board, EvaluationWeights weights) {
+        int pits = dirtyPits;
+        if (pits != 0) {
+            int columns = 0;
+            while (pits != 0) {
+                int pit = Integer.numberOfTrailingZeros(pits);
+                pits &= pits - 1;
+                columns |= COLUMN_MASK[pit] | preventReaders[pit];
+            }
+            while (columns != 0) {
+                int column = Integer.numberOfTrailingZeros(columns);
+                columns &= columns - 1;
+                update(column, board);
+            }
+            dirtyPits = 0;
+        }
+        return weights.combine(board[MancalaPosition.PROGRAM_MANCALA] - board[MancalaPosition.HUMAN_MANCALA],
+                capturePotential, extraTurnPotential, minimizeOpponentStones, preventOpponentCapture, totalSeeds);
+    }
+
+    // Remplace les termes d'une colonne par ceux du plateau courant (mêmes formules que Mancala.evaluate)
+    private void update(int column, int[] board) {
+        int pit = 7 + column;
+        int seeds = board[pit];
+        int opposite = 5 - column;
+
+        int newCapture = board[opposite] == 0 && seeds > 0 ? seeds : 0;
+        capturePotential += newCapture - capture[column];
+        capture[column] = newCapture;
+
+        int newExtraTurn = seeds > 0 && (pit + seeds) % 14 == MancalaPosition.PROGRAM_MANCALA ? 1 : 0;
+        extraTurnPotential += newExtraTurn - extraTurn[column];
+        extraTurn[column] = newExtraTurn;
+
+        int newStones = pit < 12 ? seeds : 0;
+        minimizeOpponentStones += newStones - stones[column];
+        stones[column] = newStones;
+
+        int oldTarget = preventTarget[column];
+        if (oldTarget >= 0) {
+            preventReaders[oldTarget] &= ~(1 << column);
+            preventReaders[12 - oldTarget] &= ~(1 << column);
+        }
+        int newPrevent = 0;
+        int target = -1;
+        int nextIndex = (pit + seeds) % 14;
+        if (seeds > 0 && nextIndex < 6) {
+            target = nextIndex;
+            preventReaders[target] |= 1 << column;
+            preventReaders[12 - target] |= 1 << column;
+            if (board[target] == 0) {
+                newPrevent = -board[12 - target];
+            }
+        }
+        preventTarget[column] = target;
+        preventOpponentCapture += newPrevent - prevent[column];
+        prevent[column] = newPrevent;
+    }
+}
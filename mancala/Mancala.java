@@ -1,88 +1,435 @@
 package GameSearch.mancala;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Mancala extends GameSearch {
+    public static final int DEFAULT_TABLE_BITS = 20; // Taille par défaut de la table de transposition (2^20 entrées)
+    // Quiescence désactivée par défaut : les difficultés existantes gardent leur force et leur vitesse
+    public static final int DEFAULT_QUIESCENCE_DEPTH = 0;
+    // Profondeur conseillée : à temps égal, +24 Elo contre la recherche sans quiescence (Tournament, 400 parties)
+    public static final int RECOMMENDED_QUIESCENCE_DEPTH = 8;
+
+    private final MancalaEngine engine = new MancalaEngine(); // Recherche sans allocation
+    private boolean inPlaceSearch = true; // false : recherche historique par copies de positions
+    private ParallelSearch parallelSearch; // Recherche parallèle à la racine (null = un seul thread)
+    private MonteCarloSearch monteCarloSearch; // Recherche Monte Carlo à la place d'alpha-beta (null = alpha-beta)
+    private EndgameDatabase endgameDatabase; // Base de finales consultée aux feuilles (null = aucune)
+    private OpeningBook openingBook; // Coups d'ouverture précalculés (null = aucun)
+    private AtomicBoolean stopFlag; // Arrêt « jouer maintenant » de la recherche en cours (null = aucun)
+    private SearchListener searchListener; // Progression de l'approfondissement itératif (null = aucune)
+    private Ponderer ponderer; // Réflexion pendant le temps de l'humain (null = désactivée)
+    private GameRecord gameRecord; // Coups de la partie en cours, enregistrés par saveGame (null = aucun)
+    private GameRecordAppender gameLog; // Journal de toutes les parties jouées (null = aucun)
+    private EvaluationWeights evaluationWeights = EvaluationWeights.DEFAULT;
+    private boolean defaultTable; // Table par défaut pas encore allouée (cf. getTranspositionTable)
+
+    // Moteur avec une table par défaut de 2^DEFAULT_TABLE_BITS entrées, allouée à la première recherche :
+    // une instance qui ne sert qu'aux règles (makeMove, possibleMoves...) n'en paie pas le coût
+    public Mancala() {
+        defaultTable = true;
+    }
 
-    // Sauvegarde l'état du jeu dans un fichier
-    public void saveGame(MancalaPosition position, String filename) {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filename))) {
-            out.writeObject(position);
-            System.out.println("Game saved to " + filename);
+    // Moteur utilisant la table fournie (partagée avec un autre moteur, ou null pour n'en avoir aucune)
+    public Mancala(TranspositionTable transpositionTable) {
+        setTranspositionTable(transpositionTable);
+    }
+
+    @Override
+    public synchronized void setTranspositionTable(TranspositionTable transpositionTable) {
+        defaultTable = false;
+        super.setTranspositionTable(transpositionTable);
+    }
+
+    // Alloue la table par défaut au premier appel
+    @Override
+    public synchronized TranspositionTable getTranspositionTable() {
+        if (defaultTable) {
+            defaultTable = false;
+            transpositionTable = new TranspositionTable(DEFAULT_TABLE_BITS);
+        }
+        return transpositionTable;
+    }
+
+    // Choisit entre la recherche en place (MancalaEngine) et la recherche historique de GameSearch
+    public void setInPlaceSearch(boolean inPlaceSearch) {
+        this.inPlaceSearch = inPlaceSearch;
+    }
+
+    // Poids de l'évaluation heuristique de ce moteur
+    public void setEvaluationWeights(EvaluationWeights evaluationWeights) {
+        this.evaluationWeights = evaluationWeights;
+    }
+
+    public EvaluationWeights getEvaluationWeights() {
+        return evaluationWeights;
+    }
+
+    // Active la recherche parallèle à la racine (null pour revenir à la recherche sur un seul thread)
+    public void setParallelSearch(ParallelSearch parallelSearch) {
+        this.parallelSearch = parallelSearch;
+    }
+
+    // Remplace alpha-beta par la recherche Monte Carlo, dans les mêmes limites de temps ou de nœuds
+    // (null pour revenir à alpha-beta)
+    public void setMonteCarloSearch(MonteCarloSearch monteCarloSearch) {
+        this.monteCarloSearch = monteCarloSearch;
+    }
+
+    public MonteCarloSearch getMonteCarloSearch() {
+        return monteCarloSearch;
+    }
+
+    // Installe la bibliothèque d'ouvertures (cf. OpeningBook) ; null pour la désactiver.
+    // Elle n'est pas consultée en difficulté SIMPLE, qui doit rester un adversaire facile
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    // Installe la base de finales (cf. EndgameGenerator) ; null pour la désactiver
+    public void setEndgameDatabase(EndgameDatabase endgameDatabase) {
+        this.endgameDatabase = endgameDatabase;
+    }
+
+    public EndgameDatabase getEndgameDatabase() {
+        return endgameDatabase;
+    }
+
+    // Drapeau d'arrêt des prochaines recherches : le lever depuis un autre thread fait jouer
+    // immédiatement le meilleur coup de la dernière itération terminée (un drapeau par recherche)
+    public void setStopFlag(AtomicBoolean stopFlag) {
+        this.stopFlag = stopFlag;
+    }
+
+    // Active la réflexion pendant le temps de l'humain (null pour la désactiver) : alphaBeta répond
+    // alors directement lorsque la position a déjà été cherchée en arrière-plan
+    public void setPonderer(Ponderer ponderer) {
+        this.ponderer = ponderer;
+    }
+
+    public Ponderer getPonderer() {
+        return ponderer;
+    }
+
+    // Lance la réflexion sur une position où l'humain est au trait (sans effet si elle est désactivée)
+    @Override
+    public void startPondering(Position p, boolean player) {
+        if (ponderer != null) {
+            ponderer.start((MancalaPosition) p, player);
+        }
+    }
+
+    // Reçoit, sur le thread de recherche, la profondeur et le meilleur coup de chaque itération terminée
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    // Recherche Alpha-Beta : délègue à MancalaEngine, qui joue et annule les coups sur un seul plateau
+    // (ou à MonteCarloSearch si elle est installée), puis reconstruit le résultat attendu par les
+    // appelants [score, meilleure position]
+    @Override
+    protected List<Object> alphaBeta(int depth, Position p, boolean player) {
+        TranspositionTable transpositionTable = getTranspositionTable();
+        if (!inPlaceSearch || reachedMaxDepth(p, depth)) {
+            return super.alphaBeta(depth, p, player);
+        }
+        MancalaPosition pos = (MancalaPosition) p;
+        float score;
+        int bestPit;
+        SearchMetrics metrics = searchMetrics;
+        if (metrics != null) {
+            metrics.begin();
+        }
+        SearchResult book = openingBook != null && difficulty != Difficulty.SIMPLE
+                ? openingBook.probe(pos, player) : null;
+        // La réflexion cherche avec alpha-beta : ses résultats ne servent pas à la recherche Monte Carlo.
+        // Elle n'est consultée qu'en l'absence de coup du livre (take attend la fin de la réflexion)
+        SearchResult pondered = book == null && ponderer != null && monteCarloSearch == null
+                ? ponderer.take(pos, player) : null;
+        if (book != null) {
+            // Coup de la bibliothèque d'ouvertures : aucune recherche
+            score = book.score;
+            bestPit = book.bestMove;
+            nodeCount = 0;
+            completedDepth = book.depth;
+        } else if (pondered != null) {
+            // Position déjà cherchée pendant la réflexion, avec le même budget
+            score = pondered.score;
+            bestPit = pondered.bestMove;
+            nodeCount = 0;
+            completedDepth = pondered.depth;
+        } else if (monteCarloSearch != null) {
+            monteCarloSearch.setStopFlag(stopFlag);
+            SearchResult result = monteCarloSearch.search(pos, player, getSearchLimits());
+            score = result.score;
+            bestPit = result.bestMove;
+            nodeCount = result.nodes;
+            completedDepth = result.depth;
+        } else if (parallelSearch != null) {
+            parallelSearch.setAlgorithm(algorithm);
+            parallelSearch.setOrderingMode(moveOrdering.getMode());
+            parallelSearch.setEndgameDatabase(endgameDatabase);
+            parallelSearch.setEvaluationWeights(evaluationWeights);
+            parallelSearch.setQuiescenceDepth(quiescenceDepth);
+            parallelSearch.setSearchMetrics(metrics);
+            parallelSearch.setStopFlag(stopFlag);
+            parallelSearch.setSearchListener(searchListener);
+            score = parallelSearch.searchIterative(pos, player, depth, getSearchLimits());
+            nodeCount = parallelSearch.getNodeCount();
+            completedDepth = parallelSearch.getCompletedDepth();
+            bestPit = parallelSearch.getBestMove();
+        } else {
+            engine.setTranspositionTable(transpositionTable);
+            engine.setMoveOrdering(moveOrdering);
+            engine.setAlgorithm(algorithm);
+            engine.setEndgameDatabase(endgameDatabase);
+            engine.setEvaluationWeights(evaluationWeights);
+            engine.setQuiescenceDepth(quiescenceDepth);
+            engine.setSearchMetrics(metrics);
+            engine.setStopFlag(stopFlag);
+            engine.setSearchListener(searchListener);
+            engine.setPosition(pos);
+            // Approfondissement itératif dans le budget de la difficulté (ou des limites imposées)
+            score = engine.searchIterative(depth, player, getSearchLimits());
+            nodeCount = engine.getNodeCount();
+            completedDepth = engine.getCompletedDepth();
+            bestPit = engine.getBestMove();
+        }
+        if (metrics != null) {
+            metrics.end(completedDepth, bestPit, score);
+        }
+
+        MancalaPosition best = pos.clone();
+        makeMove(best, player, new MancalaMove(bestPit));
+        return Arrays.asList(score, best);
+    }
+
+    // Recherche exacte jusqu'à la fin de la partie (cf. MancalaEngine.solve) : meilleur coup et différence
+    // finale prouvée (score, du point de vue du joueur), ou null si maxNodes ne suffit pas (0 = sans limite)
+    public SearchResult solve(MancalaPosition position, boolean player, long maxNodes) {
+        engine.setTranspositionTable(getTranspositionTable());
+        engine.setEndgameDatabase(endgameDatabase);
+        engine.setAlgorithm(algorithm);
+        engine.setStopFlag(stopFlag);
+        engine.setPosition(position);
+        int margin = engine.solve(player, maxNodes);
+        nodeCount = engine.getNodeCount();
+        if (engine.wasAborted()) {
+            return null;
+        }
+        return new SearchResult(engine.getBestMove(), margin, 0, nodeCount);
+    }
+
+    // Journal des parties indiqué par -Dmancala.gameLog=fichier (null si la propriété est absente)
+    public static GameRecordAppender openGameLog() {
+        String file = System.getProperty("mancala.gameLog");
+        if (file == null) {
+            return null;
+        }
+        try {
+            return GameRecordAppender.open(Paths.get(file));
         } catch (IOException e) {
+            System.err.println("Failed to open game log: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Journal où chaque coup enregistré par recordMove est écrit aussitôt (null pour le désactiver)
+    public void setGameLog(GameRecordAppender gameLog) {
+        this.gameLog = gameLog;
+    }
+
+    // Commence l'historique d'une partie (saveGame enregistre alors tous ses coups)
+    public void newGame(MancalaPosition start, boolean firstPlayer) {
+        gameRecord = GameRecord.fromPosition(start, firstPlayer);
+        if (gameLog != null) {
+            try {
+                gameLog.begin(start, firstPlayer);
+            } catch (IOException e) {
+                closeGameLog(e);
+            }
+        }
+    }
+
+    // Ajoute à l'historique un coup réellement joué dans la partie (pas ceux de la recherche)
+    public void recordMove(int pit) {
+        if (gameRecord != null) {
+            gameRecord.add(pit);
+        }
+        if (gameLog != null) {
+            try {
+                gameLog.append(pit);
+            } catch (IOException e) {
+                closeGameLog(e);
+            }
+        }
+    }
+
+    // Clôt la partie dans le journal (fin de partie)
+    public void endGame() {
+        if (gameLog != null) {
+            try {
+                gameLog.finish();
+            } catch (IOException e) {
+                closeGameLog(e);
+            }
+        }
+    }
+
+    public GameRecord getGameRecord() {
+        return gameRecord;
+    }
+
+    private void closeGameLog(IOException cause) {
+        System.err.println("Failed to write game log: " + cause.getMessage());
+        try {
+            gameLog.close();
+        } catch (IOException ignored) {
+            // Le journal est abandonné
+        }
+        gameLog = null;
+    }
+
+    // Sauvegarde la partie dans un fichier (format GameRecord) : tous ses coups si la position est celle
+    // de l'historique en cours, sinon la position seule avec player au trait
+    public void saveGame(MancalaPosition position, boolean player, String filename) {
+        try (GameRecordWriter writer = GameRecordWriter.create(Paths.get(filename))) {
+            GameRecord record = gameRecord;
+            if (record == null || !Arrays.equals(record.replay().board, position.board)) {
+                record = GameRecord.fromPosition(position, player);
+            }
+            writer.write(record);
+            System.out.println("Game saved to " + filename);
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
             System.err.println("Failed to save game: " + e.getMessage());
         }
     }
 
-    // Charge l'état du jeu à partir d'un fichier
+    // Charge une partie (format GameRecord, ou ancienne sauvegarde par sérialisation Java) ;
+    // l'historique en cours devient celui de la partie chargée
     public MancalaPosition loadGame(String filename) {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filename))) {
-            MancalaPosition position = (MancalaPosition) in.readObject();
+        try {
+            Path file = Paths.get(filename);
+            MancalaPosition position;
+            if (isGameRecord(file)) {
+                try (GameRecordReader reader = GameRecordReader.open(file)) {
+                    GameRecord record = reader.next();
+                    if (record == null) {
+                        throw new IOException("Empty game file");
+                    }
+                    position = record.replay();
+                    gameRecord = record;
+                }
+            } else {
+                try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filename))) {
+                    position = (MancalaPosition) in.readObject();
+                }
+                gameRecord = GameRecord.fromPosition(position, HUMAN);
+            }
+            if (gameLog != null) { // La partie chargée continue dans le journal
+                gameLog.begin(gameRecord.getStartPosition(), gameRecord.getFirstPlayer());
+                for (int i = 0; i < gameRecord.size(); i++) {
+                    gameLog.append(gameRecord.move(i));
+                }
+            }
             System.out.println("Game loaded from " + filename);
             return position;
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException | ClassNotFoundException | ClassCastException | IllegalStateException
+                 | IllegalArgumentException e) {
             System.err.println("Failed to load game: " + e.getMessage());
             return null;
         }
     }
 
+    private static boolean isGameRecord(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Lecture des quatre premiers octets
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == GameRecord.MAGIC;
+        }
+    }
+
+    // Fin de partie pour une boucle de jeu : les graines restantes sont ramassées dans les Mancalas
     @Override
     public boolean drawnPosition(Position p) {
         MancalaPosition pos = (MancalaPosition) p;
-
-        // Vérifie si toutes les cases du côté HUMAN sont vides
-        boolean humanEmpty = true;
-        for (int i = 0; i < 6; i++) {
-            if (pos.board[i] > 0) {   //fpr each pit we have grains (not emoty)
-                humanEmpty = false;
-                break;
-            }
+        if (!isTerminal(pos.board)) {
+            return false; // Le jeu continue
         }
+        sweep(pos);
+        return true; // Le jeu est terminé
+    }
 
-        // Vérifie si toutes les cases du côté PROGRAM sont vides
-        boolean programEmpty = true;
-        for (int i = 7; i < 13; i++) {
-            if (pos.board[i] > 0) {
-                programEmpty = false;
-                break;
+    @Override
+    public boolean isTerminal(Position p) {
+        return isTerminal(((MancalaPosition) p).board);
+    }
+
+    // La partie est terminée lorsque toutes les cases d'un des deux côtés sont vides (sans effet de bord,
+    // utilisable par plusieurs recherches à la fois)
+    static boolean isTerminal(int[] board) {
+        return sideEmpty(board, 0) || sideEmpty(board, 7);
+    }
+
+    private static boolean sideEmpty(int[] board, int start) {
+        for (int i = start; i < start + 6; i++) {
+            if (board[i] > 0) {
+                return false;
             }
         }
+        return true;
+    }
 
-        // Si l'un des côtés est vide, transfère les graines restantes au Mancala correspondant
-        if (humanEmpty || programEmpty) {
-            if (!humanEmpty) { // Si PROGRAM est vide, transfère les graines restantes de HUMAN
-                for (int i = 0; i < 6; i++) {
-                    pos.board[MancalaPosition.HUMAN_MANCALA] += pos.board[i];
-                    pos.board[i] = 0;
-                }
-            } else { // Si HUMAN est vide, transfère les graines restantes de PROGRAM
-                for (int i = 7; i < 13; i++) {
-                    pos.board[MancalaPosition.PROGRAM_MANCALA] += pos.board[i];
-                    pos.board[i] = 0;
-                }
-            }
-            return true; // Le jeu est terminé
+    // Ramassage de fin de partie : les graines restantes de chaque côté vont au Mancala de ce côté
+    // (un seul côté en a encore)
+    static void sweep(MancalaPosition pos) {
+        for (int i = 0; i < 6; i++) {
+            sweepPit(pos, i, MancalaPosition.HUMAN_MANCALA);
+            sweepPit(pos, i + 7, MancalaPosition.PROGRAM_MANCALA);
         }
+    }
 
-        return false; // Le jeu continue
+    // Transfère les graines d'un pit vers un Mancala en maintenant la clé de Zobrist
+    private static void sweepPit(MancalaPosition pos, int pit, int mancala) {
+        int seeds = pos.board[pit];
+        if (seeds == 0) return;
+        pos.hash = Zobrist.update(pos.hash, pit, seeds, 0);
+        pos.hash = Zobrist.update(pos.hash, mancala, pos.board[mancala], pos.board[mancala] + seeds);
+        pos.board[mancala] += seeds;
+        pos.board[pit] = 0;
     }
 
     @Override
     public boolean wonPosition(Position p, boolean player) {
-        MancalaPosition pos = (MancalaPosition) p;
+        int[] board = ((MancalaPosition) p).board;
 
-        // Vérifie si le jeu est terminé en utilisant drawnPosition
-        if (!drawnPosition(p)) {
-            return false; // Pas de gagnant tant que le jeu n'est pas terminé
+        // Pas de gagnant tant que le jeu n'est pas terminé
+        if (!isTerminal(board)) {
+            return false;
         }
 
-        // Compare les scores des Mancalas pour déterminer le gagnant
-        int humanScore = pos.board[MancalaPosition.HUMAN_MANCALA];
-        int programScore = pos.board[MancalaPosition.PROGRAM_MANCALA];
+        // Compare les scores finaux (Mancala et graines restant à ramasser), sans modifier la position
+        int humanScore = board[MancalaPosition.HUMAN_MANCALA];
+        int programScore = board[MancalaPosition.PROGRAM_MANCALA];
+        for (int i = 0; i < 6; i++) {
+            humanScore += board[i];
+            programScore += board[i + 7];
+        }
         if (player) {
             return humanScore > programScore; // HUMAN gagne si son score est supérieur
         } else {
@@ -92,29 +439,49 @@ public class Mancala extends GameSearch {
 
     @Override
     public float positionEvaluation(Position p, boolean player) {
-        MancalaPosition pos = (MancalaPosition) p;
+        // La négation de la recherche (negamax) suppose un score du point de vue du joueur au trait
+        float eval = evaluate(((MancalaPosition) p).board, evaluationWeights);
+        return player ? -eval : eval;
+    }
+
+    // Nombre total de graines (constant en cours de partie : les captures et le ramassage
+    // ne font que déplacer des graines vers les Mancalas)
+    static int totalSeeds(int[] board) {
+        int totalSeeds = 0;
+        for (int seeds : board) {
+            totalSeeds += seeds;
+        }
+        return totalSeeds;
+    }
+
+    // Évaluation heuristique d'un plateau, du point de vue du PROGRAM (partagée avec MancalaEngine)
+    static float evaluate(int[] board) {
+        return evaluate(board, EvaluationWeights.DEFAULT);
+    }
 
+    // Évaluation avec d'autres poids que ceux par défaut
+    static float evaluate(int[] board, EvaluationWeights weights) {
         // Différence des scores des Mancalas
-        int mancalaDifference = pos.board[MancalaPosition.PROGRAM_MANCALA] - pos.board[MancalaPosition.HUMAN_MANCALA];
+        int mancalaDifference = board[MancalaPosition.PROGRAM_MANCALA] - board[MancalaPosition.HUMAN_MANCALA];
 
         // Opportunités de capture
         int capturePotential = 0;
         for (int i = 0; i < 6; i++) {
-            if (pos.board[i] == 0 && pos.board[12 - i] > 0) {
-                capturePotential += pos.board[12 - i];
+            if (board[i] == 0 && board[12 - i] > 0) {
+                capturePotential += board[12 - i];
             }
         }
 
         // Réduction des graines proches du Mancala adverse
         int minimizeOpponentStones = 0;
         for (int i = 7; i < 12; i++) {
-            minimizeOpponentStones += pos.board[i];
+            minimizeOpponentStones += board[i];
         }
 
         // Opportunités de tours supplémentaires
         int extraTurnPotential = 0;
         for (int i = 7; i < 13; i++) {
-            if (pos.board[i] > 0 && (i + pos.board[i]) % 14 == MancalaPosition.PROGRAM_MANCALA) {
+            if (board[i] > 0 && (i + board[i]) % 14 == MancalaPosition.PROGRAM_MANCALA) {
                 extraTurnPotential++;
             }
         }
@@ -122,23 +489,15 @@ public class Mancala extends GameSearch {
         // Évite de donner des opportunités de capture à l'adversaire
         int preventOpponentCapture = 0;
         for (int i = 7; i < 13; i++) {
-            int nextIndex = (i + pos.board[i]) % 14;
-            if (pos.board[i] > 0 && nextIndex >= 0 && nextIndex < 6 && pos.board[nextIndex] == 0) {
+            int nextIndex = (i + board[i]) % 14;
+            if (board[i] > 0 && nextIndex >= 0 && nextIndex < 6 && board[nextIndex] == 0) {
                 int oppositeIndex = 12 - nextIndex;
-                preventOpponentCapture -= pos.board[oppositeIndex];
+                preventOpponentCapture -= board[oppositeIndex];
             }
         }
 
-        // Facteur lié à la phase du jeu (début, milieu, fin)
-        int totalSeeds = Arrays.stream(pos.board).sum();
-        float phaseFactor = totalSeeds > 30 ? 1.0f : totalSeeds > 15 ? 1.5f : 2.0f;
-
-        // Calcul de l'évaluation pondérée
-        return phaseFactor * (2.0f * mancalaDifference
-                + 1.5f * capturePotential
-                + 1.0f * extraTurnPotential
-                - 1.0f * minimizeOpponentStones
-                - 1.5f * preventOpponentCapture);
+        return weights.combine(mancalaDifference, capturePotential, extraTurnPotential, minimizeOpponentStones,
+                preventOpponentCapture, totalSeeds(board));
     }
 
     @Override
@@ -146,10 +505,11 @@ public class Mancala extends GameSearch {
         System.out.println(p.toString());
     }
 
+    // Positions filles dans l'ordre des pits, quel que soit le mode d'ordre des coups de la recherche
     @Override
     public Position[] possibleMoves(Position p, boolean player) {
         MancalaPosition pos = (MancalaPosition) p;
-        List<ScoredPosition> scoredMoves = new ArrayList<>();
+        List<Position> moves = new ArrayList<>();
         int start = player ? 0 : 7;
         int end = player ? 5 : 12;
 
@@ -158,23 +518,39 @@ public class Mancala extends GameSearch {
                 // Simule le mouvement en clonant le plateau
                 MancalaPosition newPos = new MancalaPosition();
                 System.arraycopy(pos.board, 0, newPos.board, 0, 14);
-
-                // Simule le coup
+                newPos.hash = pos.hash;
                 makeMove(newPos, player, new MancalaMove(i));
+                moves.add(newPos);
+            }
+        }
+        return moves.toArray(new Position[0]);
+    }
 
-                // Évalue la position résultante
-                float eval = positionEvaluation(newPos, player);
+    // Coups reçus par alphaBetaHelper : en mode EVALUATION, triés par évaluation et bonus (ordre historique,
+    // départage du tri de alphaBetaHelper) ; en mode HEURISTIC, dans l'ordre des pits (MoveOrdering s'en charge)
+    @Override
+    protected Position[] searchMoves(Position p, boolean player) {
+        Position[] moves = possibleMoves(p, player);
+        if (moveOrdering.getMode() != MoveOrdering.Mode.EVALUATION) {
+            return moves;
+        }
+        List<ScoredPosition> scoredMoves = new ArrayList<>();
+        for (Position move : moves) {
+            MancalaPosition newPos = (MancalaPosition) move;
+            int i = newPos.lastMove;
 
-                // Ajoute des bonus ou des pénalités
-                if (newPos.extraTurn) eval += 10.0f; // Bonus pour tour supplémentaire
-                if (newPos.board[i] == 0 && newPos.board[12 - i] > 0) eval += 5.0f; // Bonus pour capture
-                if (!player && newPos.board[12 - i] > 0) eval -= 5.0f + newPos.board[12 - i];
+            // Évalue la position résultante
+            float eval = positionEvaluation(newPos, player);
 
-                scoredMoves.add(new ScoredPosition(newPos, eval));
-            }
+            // Ajoute des bonus ou des pénalités
+            if (newPos.extraTurn) eval += 10.0f; // Bonus pour tour supplémentaire
+            if (newPos.board[i] == 0 && newPos.board[12 - i] > 0) eval += 5.0f; // Bonus pour capture
+            if (!player && newPos.board[12 - i] > 0) eval -= 5.0f + newPos.board[12 - i];
+
+            scoredMoves.add(new ScoredPosition(newPos, eval));
         }
 
-        // Trie les coups possibles par score décroissant
+        // Trie les coups possibles par score décroissant (tri stable)
         scoredMoves.sort((a, b) -> Float.compare(b.score, a.score));
         return scoredMoves.stream()
                 .map(m -> m.position)
@@ -205,6 +581,7 @@ public class Mancala extends GameSearch {
             throw new IllegalArgumentException("Invalid move: The selected pit is empty.");
         }
 
+        long hash = Zobrist.update(pos.hash, index, seeds, 0); // Clé de Zobrist mise à jour au fil du semis
         board[index] = 0; // Vide le pit sélectionné
         int currentIndex = index;
 
@@ -218,6 +595,7 @@ public class Mancala extends GameSearch {
                 continue;
             }
 
+            hash = Zobrist.update(hash, currentIndex, board[currentIndex], board[currentIndex] + 1);
             board[currentIndex]++;
             seeds--;
         }
@@ -229,7 +607,11 @@ public class Mancala extends GameSearch {
             int oppositeIndex = 12 - currentIndex;
             int mancala = player ? MancalaPosition.HUMAN_MANCALA : MancalaPosition.PROGRAM_MANCALA;
 
-            board[mancala] += board[oppositeIndex] + board[currentIndex];
+            int captured = board[oppositeIndex] + board[currentIndex];
+            hash = Zobrist.update(hash, mancala, board[mancala], board[mancala] + captured);
+            hash = Zobrist.update(hash, oppositeIndex, board[oppositeIndex], 0);
+            hash = Zobrist.update(hash, currentIndex, board[currentIndex], 0);
+            board[mancala] += captured;
             board[oppositeIndex] = 0;
             board[currentIndex] = 0;
         }
@@ -237,6 +619,8 @@ public class Mancala extends GameSearch {
         // Vérifie si un tour supplémentaire est gagné
         int ownMancala = player ? MancalaPosition.HUMAN_MANCALA : MancalaPosition.PROGRAM_MANCALA;
         pos.extraTurn = (currentIndex == ownMancala);
+        pos.hash = hash;
+        pos.lastMove = index;
 
         // Évalue les captures potentielles adverses
         if (!player) {
@@ -254,8 +638,14 @@ public class Mancala extends GameSearch {
 
     @Override
     public boolean reachedMaxDepth(Position p, int depth) {
+        // Vérifie si la profondeur maximale ou la fin du jeu est atteinte
+        return depth >= maxDepth(p) || isTerminal(p);
+    }
+
+    @Override
+    protected int maxDepth(Position p) {
         MancalaPosition pos = (MancalaPosition) p;
-        int totalSeeds = Arrays.stream(pos.board).sum();
+        int totalSeeds = totalSeeds(pos.board);
 
         // Définit la profondeur maximale selon la difficulté
         int maxDepth;
@@ -272,9 +662,67 @@ public class Mancala extends GameSearch {
             default:
                 maxDepth = 6;
         }
+        return maxDepth;
+    }
 
-        // Vérifie si la profondeur maximale ou la fin du jeu est atteinte
-        return depth >= maxDepth || drawnPosition(p);
+    @Override
+    protected long positionKey(Position p, boolean player) {
+        return ((MancalaPosition) p).hash ^ Zobrist.sideKey(player);
+    }
+
+    // Aux feuilles, une position couverte par la base de finales reçoit son score exact
+    @Override
+    protected float leafEvaluation(Position p, boolean player) {
+        int[] board = ((MancalaPosition) p).board;
+        if (endgameDatabase != null && endgameDatabase.covers(board)) {
+            return endgameDatabase.score(board, player, evaluationWeights);
+        }
+        return positionEvaluation(p, player);
+    }
+
+    // Une position finale est évaluée après le ramassage, fait sur une copie
+    @Override
+    protected float terminalEvaluation(Position p, boolean player) {
+        MancalaPosition pos = ((MancalaPosition) p).clone();
+        sweep(pos);
+        return leafEvaluation(pos, player);
+    }
+
+    @Override
+    protected int orderingFlags(Position p, int move, boolean player) {
+        return MoveOrdering.flags(((MancalaPosition) p).board, move, player);
+    }
+
+    // Coups forçants : tours supplémentaires puis captures, par pit croissant (même ordre que
+    // MancalaEngine). Une position couverte par la base de finales a déjà son score exact
+    @Override
+    protected Position[] forcingMoves(Position p, boolean player) {
+        MancalaPosition pos = (MancalaPosition) p;
+        if (endgameDatabase != null && endgameDatabase.covers(pos.board)) {
+            return new Position[0];
+        }
+        List<Position> moves = new ArrayList<>();
+        int start = player ? 0 : 7;
+        for (int kind : new int[]{MoveOrdering.EXTRA_TURN, MoveOrdering.CAPTURE}) {
+            for (int pit = start; pit < start + 6; pit++) {
+                if (pos.board[pit] > 0 && MoveOrdering.flags(pos.board, pit, player) == kind) {
+                    MancalaPosition child = pos.clone();
+                    makeMove(child, player, new MancalaMove(pit));
+                    moves.add(child);
+                }
+            }
+        }
+        return moves.toArray(new Position[0]);
+    }
+
+    @Override
+    protected boolean extraTurn(Position child) {
+        return ((MancalaPosition) child).extraTurn;
+    }
+
+    @Override
+    protected int moveIndex(Position child) {
+        return ((MancalaPosition) child).lastMove;
     }
 
     @Override
@@ -296,10 +744,19 @@ public class Mancala extends GameSearch {
     }
 
     private Difficulty difficulty; // Niveau de difficulté
+    private SearchLimits searchLimits; // Limites imposées (null = celles de la difficulté)
+    private int completedDepth;
 
-    // Enumération des niveaux de difficulté
+    // Enumération des niveaux de difficulté : un budget de temps par coup plutôt qu'une profondeur fixe
+    // (SIMPLE reste plafonné à 2 coups d'avance pour rester un adversaire facile)
     public enum Difficulty {
-        SIMPLE, MEDIUM, HARD
+        SIMPLE(2, 50), MEDIUM(10, 250), HARD(SearchLimits.MAX_DEPTH, 1000);
+
+        public final SearchLimits limits;
+
+        Difficulty(int maxDepth, long timeMillis) {
+            this.limits = new SearchLimits(maxDepth, timeMillis, 0);
+        }
     }
 
     // Définit le niveau de difficulté
@@ -307,6 +764,25 @@ public class Mancala extends GameSearch {
         this.difficulty = difficulty;
     }
 
+    // Impose des limites de recherche (profondeur, temps ou nœuds) à la place de celles de la difficulté
+    public void setSearchLimits(SearchLimits searchLimits) {
+        this.searchLimits = searchLimits;
+    }
+
+    public SearchLimits getSearchLimits() {
+        if (searchLimits != null) return searchLimits;
+        return difficulty != null ? difficulty.limits : Difficulty.MEDIUM.limits;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    // Profondeur atteinte par la dernière recherche (dernière itération terminée)
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
     public static void main(String[] args) {
         Scanner sc = new Scanner(System.in);
         MancalaPosition initialPosition = new MancalaPosition();
@@ -341,10 +817,13 @@ public class Mancala extends GameSearch {
                     game.setDifficulty(Difficulty.MEDIUM);
             }
             System.out.println("Starting game against the computer at " + game.difficulty + " difficulty.");
+            game.setPonderer(new Ponderer(game)); // Réfléchit pendant que l'humain choisit son coup
         } else {
             System.out.println("Starting a two-player game.");
         }
 
+        game.setGameLog(openGameLog());
+        game.setOpeningBook(OpeningBook.openDefault()); // -Dmancala.book=fichier (cf. OpeningBook build)
         game.playGame(initialPosition, true, playAgainstComputer);
     }
 }
@@ -0,0 +1,849 @@
+package GameSearch.mancala;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Recherche Alpha-Beta sans allocation : les coups sont joués puis annulés sur un plateau unique
+// Elle reproduit exactement alphaBetaHelper (même ordre des coups, mêmes scores) et renvoie
+// des valeurs primitives ; GameSearch.alphaBeta reste la couche de compatibilité
+public class MancalaEngine {
+    public static final int MAX_PLY = 128; // Profondeur maximale de la pile d'annulation
+    public static final float ASPIRATION_WINDOW = 2.0f; // Demi-largeur initiale de la fenêtre d'aspiration
+
+    private static final int HUMAN_MANCALA = MancalaPosition.HUMAN_MANCALA;
+    private static final int PROGRAM_MANCALA = MancalaPosition.PROGRAM_MANCALA;
+    // Sépare dans la table de transposition les différences exactes de solve des scores heuristiques
+    private static final long SOLVE_KEY = 0x2545F4914F6CDD1DL;
+    private static final int SOLVED_DRAFT = 255;
+    private static final int[] SOLVE_ORDER = {MoveOrdering.EXTRA_TURN, MoveOrdering.CAPTURE, 0};
+
+    private final int[] board = new int[14]; // Plateau unique modifié en place
+    private long hash;                       // Clé de Zobrist du plateau courant
+    private TranspositionTable transpositionTable;
+    private EndgameDatabase endgameDatabase; // Scores exacts aux feuilles (null = aucune base)
+    private final IncrementalEvaluation evaluation = new IncrementalEvaluation();
+    // Évaluation incrémentale : exacte mais, avec une évaluation aussi courte, plus lente que le recalcul
+    // complet à chaque feuille (cf. SearchBenchmark evaluation) ; désactivée par défaut
+    private boolean incrementalEvaluation = false;
+    private EvaluationWeights evaluationWeights = EvaluationWeights.DEFAULT;
+    private int quiescenceDepth; // Coups forçants explorés au-delà de l'horizon (0 = pas de quiescence)
+
+    // Enregistrements d'annulation, un par ply
+    private final int[] undoPit = new int[MAX_PLY];      // Pit joué
+    private final int[] undoSeeds = new int[MAX_PLY];    // Graines semées
+    private final int[] undoLast = new int[MAX_PLY];     // Dernier pit atteint
+    private final int[] undoCaptured = new int[MAX_PLY]; // Graines prises en face (-1 sans capture)
+    private final long[] undoHash = new long[MAX_PLY];   // Clé avant le coup
+    private final int[] sweepSaved = new int[MAX_PLY * 12]; // Pits vidés par le ramassage de fin de partie
+
+    // Listes de coups par ply (au plus 6 coups par position)
+    private final int[] moveList = new int[MAX_PLY * 6];
+    private final float[] moveEval = new float[MAX_PLY * 6];  // Évaluation de la position fille
+    private final float[] moveScore = new float[MAX_PLY * 6]; // Évaluation + bonus de Mancala.searchMoves
+    private final int[] moveRank = new int[MAX_PLY * 6];      // Rang de MoveOrdering (mode HEURISTIC)
+    private MoveOrdering moveOrdering = new MoveOrdering();
+
+    // Variation principale : table triangulaire de la recherche courante et copie de l'itération précédente
+    private final int[] pv = new int[MAX_PLY * MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[] previousPv = new int[MAX_PLY];
+    private int previousPvLength;
+
+    private int maxDepth;
+    private int bestMove = -1;
+    private long nodes;
+    private boolean extraTurn; // Tour supplémentaire obtenu par le dernier coup joué
+    private ExtraTurnMode extraTurnMode = ExtraTurnMode.SAME_SIDE;
+    private GameSearch.Algorithm algorithm = GameSearch.Algorithm.PVS;
+    private long researches; // Nouvelles recherches (PVS et fenêtres d'aspiration) de la dernière recherche
+    private SearchMetrics metrics; // Mesures détaillées (null = désactivées)
+
+    // Traitement des tours supplémentaires dans la recherche
+    public enum ExtraTurnMode {
+        ALTERNATE, // Historique : le camp change à chaque coup, même après un tour supplémentaire
+        SAME_SIDE, // Le même joueur rejoue : pas de changement de camp ni de négation du score
+        MACRO      // Comme SAME_SIDE, mais une chaîne de tours supplémentaires compte pour un seul tour
+    }
+
+    // Budget de l'approfondissement itératif
+    private long deadline;      // Échéance en nanosecondes (0 = aucune)
+    private long nodeLimit;     // Nombre maximal de nœuds (0 = aucun)
+    private AtomicBoolean stopFlag; // Arrêt demandé de l'extérieur (« jouer maintenant »), null = aucun
+    private SearchListener listener; // Progression de l'approfondissement itératif (null = aucune)
+    private boolean enforceLimits;
+    private boolean aborted;    // L'itération en cours a dépassé le budget
+    private boolean horizonHit; // L'itération a rencontré au moins une feuille non terminale
+    private int completedDepth;
+
+    // Recherche exacte (solve)
+    private boolean boundPruning = true; // Coupures sur les bornes de la différence finale
+    private int solveSeeds;              // Total des graines de la position résolue
+    private long boundCutoffs;           // Nœuds terminés par les bornes lors de la dernière résolution
+
+    // Charge une position dans le plateau de travail
+    public void setPosition(MancalaPosition position) {
+        System.arraycopy(position.board, 0, board, 0, 14);
+        hash = position.hash;
+        evaluation.reset(board);
+    }
+
+    public void setPosition(int[] position) {
+        System.arraycopy(position, 0, board, 0, 14);
+        hash = Zobrist.hash(board);
+        evaluation.reset(board);
+    }
+
+    // Copie du plateau de travail et sa clé (tests : une recherche doit les rendre intacts)
+    int[] board() {
+        return board.clone();
+    }
+
+    long hash() {
+        return hash;
+    }
+
+    public void setEndgameDatabase(EndgameDatabase endgameDatabase) {
+        this.endgameDatabase = endgameDatabase;
+    }
+
+    // Choisit entre l'évaluation incrémentale (IncrementalEvaluation) et le recalcul complet
+    public void setIncrementalEvaluation(boolean incrementalEvaluation) {
+        this.incrementalEvaluation = incrementalEvaluation;
+    }
+
+    public void setEvaluationWeights(EvaluationWeights evaluationWeights) {
+        this.evaluationWeights = evaluationWeights;
+    }
+
+    // Longueur maximale des suites de tours supplémentaires et de captures explorées à l'horizon
+    // (cf. GameSearch.setQuiescenceDepth ; 0 pour désactiver la quiescence)
+    public void setQuiescenceDepth(int quiescenceDepth) {
+        this.quiescenceDepth = quiescenceDepth;
+    }
+
+    public int getQuiescenceDepth() {
+        return quiescenceDepth;
+    }
+
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    // Ordre des coups (et ses statistiques) ; Mancala y installe le sien pour partager mode et mesures
+    public void setMoveOrdering(MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    public MoveOrdering getMoveOrdering() {
+        return moveOrdering;
+    }
+
+    public void setAlgorithm(GameSearch.Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public GameSearch.Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    // Nombre de nouvelles recherches de la dernière recherche : coups dont la fenêtre nulle de PVS a
+    // échoué, puis itérations dont la fenêtre d'aspiration a dû être élargie
+    public long getResearches() {
+        return researches;
+    }
+
+    // Collecteur des mesures par ply (null pour désactiver la collecte)
+    public void setSearchMetrics(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Drapeau d'arrêt de la recherche : une fois levé, la recherche s'arrête comme à l'échéance et
+    // renvoie le résultat de la dernière itération terminée (null pour aucun drapeau)
+    public void setStopFlag(AtomicBoolean stopFlag) {
+        this.stopFlag = stopFlag;
+    }
+
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    public void setExtraTurnMode(ExtraTurnMode extraTurnMode) {
+        this.extraTurnMode = extraTurnMode;
+    }
+
+    public ExtraTurnMode getExtraTurnMode() {
+        return extraTurnMode;
+    }
+
+    // Lance la recherche depuis la position chargée ; depth est la profondeur de la racine
+    // et maxDepth celle à laquelle l'évaluation remplace l'exploration (cf. Mancala.maxDepth)
+    public float search(int depth, int maxDepth, boolean player) {
+        this.maxDepth = maxDepth;
+        this.bestMove = -1;
+        this.nodes = 0;
+        this.researches = 0;
+        this.previousPvLength = 0;
+        this.enforceLimits = false;
+        this.aborted = false;
+        if (transpositionTable != null) {
+            transpositionTable.newSearch();
+        }
+        moveOrdering.newSearch();
+        float score = alphaBeta(depth, 0, player, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, false);
+        completedDepth = maxDepth - depth;
+        return score;
+    }
+
+    // Recherche d'une fenêtre (alpha, beta) sans réinitialiser la table de transposition ;
+    // utilisée par ParallelSearch pour explorer une position fille de la racine.
+    // Avec une échéance non nulle, la recherche peut être interrompue (cf. wasAborted)
+    public float searchWindow(int depth, int maxDepth, boolean player, float alpha, float beta, long deadline) {
+        return searchWindow(depth, maxDepth, player, alpha, beta, deadline, 0L);
+    }
+
+    // Idem avec un nombre maximal de nœuds (0 = aucun), vérifié comme l'échéance
+    public float searchWindow(int depth, int maxDepth, boolean player, float alpha, float beta, long deadline,
+                              long nodeLimit) {
+        this.maxDepth = maxDepth;
+        this.bestMove = -1;
+        this.nodes = 0;
+        this.researches = 0;
+        this.previousPvLength = 0;
+        this.deadline = deadline;
+        this.nodeLimit = nodeLimit;
+        this.enforceLimits = deadline != 0L || nodeLimit != 0L || stopFlag != null;
+        this.aborted = false;
+        return alphaBeta(depth, 0, player, alpha, beta, false);
+    }
+
+    // Indique si la dernière recherche a été interrompue par son budget
+    public boolean wasAborted() {
+        return aborted;
+    }
+
+    // Coups de la racine dans l'ordre où la recherche les explore (meilleur coup de la table en tête)
+    public int[] rootMoves(boolean player) {
+        int count = generateMoves(0, player);
+        if (transpositionTable != null) {
+            long entry = transpositionTable.probe(hash ^ Zobrist.sideKey(player));
+            if (entry != TranspositionTable.MISS && TranspositionTable.move(entry) != -1) {
+                moveToFront(0, count, TranspositionTable.move(entry));
+            }
+        }
+        return Arrays.copyOf(moveList, count);
+    }
+
+    // Approfondissement itératif : profondeur 1, 2, ... jusqu'à épuisement du budget.
+    // Le résultat est celui de la dernière itération terminée ; la variation principale
+    // de l'itération précédente est explorée en premier
+    public float searchIterative(int depth, boolean player, SearchLimits limits) {
+        long start = System.nanoTime();
+        this.nodes = 0;
+        this.researches = 0;
+        this.previousPvLength = 0;
+        this.deadline = limits.timeMillis > 0 ? start + limits.timeMillis * 1_000_000L : 0L;
+        this.nodeLimit = limits.maxNodes;
+        this.enforceLimits = false; // La première itération est toujours menée à terme
+        this.aborted = false;
+        this.completedDepth = 0;
+        if (transpositionTable != null) {
+            transpositionTable.newSearch();
+        }
+        moveOrdering.newSearch();
+
+        float score = 0.0f;
+        int move = -1;
+        for (int iteration = 1; iteration <= limits.maxDepth; iteration++) {
+            maxDepth = depth + iteration;
+            float value = algorithm == GameSearch.Algorithm.PVS && iteration > 1
+                    ? aspirationSearch(depth, player, score)
+                    : rootSearch(depth, player, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
+            if (aborted) {
+                break;
+            }
+            score = value;
+            move = bestMove;
+            completedDepth = iteration;
+            if (metrics != null) {
+                metrics.iteration(iteration, nodes);
+            }
+            if (listener != null) {
+                listener.iterationCompleted(iteration, move, score, nodes);
+            }
+            System.arraycopy(pv, 0, previousPv, 0, pvLength[0]);
+            previousPvLength = pvLength[0];
+            enforceLimits = true;
+            if (!horizonHit || budgetExhausted()) {
+                break; // Arbre entièrement résolu ou budget épuisé
+            }
+        }
+        bestMove = move;
+        return score;
+    }
+
+    private float rootSearch(int depth, boolean player, float alpha, float beta) {
+        horizonHit = false;
+        return alphaBeta(depth, 0, player, alpha, beta, true);
+    }
+
+    // Fenêtre d'aspiration autour du score de l'itération précédente, élargie (x4) du côté
+    // de l'échec jusqu'à ce que le score tombe strictement dans la fenêtre
+    private float aspirationSearch(int depth, boolean player, float previous) {
+        float delta = ASPIRATION_WINDOW;
+        float alpha = previous - delta;
+        float beta = previous + delta;
+        while (true) {
+            float value = rootSearch(depth, player, alpha, beta);
+            if (aborted || (value > alpha && value < beta)) {
+                return value;
+            }
+            researches++;
+            delta *= 4.0f;
+            if (value <= alpha) {
+                alpha = delta > 64.0f ? Float.NEGATIVE_INFINITY : previous - delta;
+            } else {
+                beta = delta > 64.0f ? Float.POSITIVE_INFINITY : previous + delta;
+            }
+        }
+    }
+
+    // Meilleur pit trouvé par la dernière recherche (-1 si la racine était terminale)
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    // Profondeur de la dernière itération terminée
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // Variation principale de la dernière itération terminée (pits joués successivement)
+    public int[] getPrincipalVariation() {
+        return Arrays.copyOf(previousPv, previousPvLength);
+    }
+
+    // Le thread interrompu (Future.cancel(true)) s'arrête comme sur le drapeau d'arrêt
+    private boolean budgetExhausted() {
+        return (deadline != 0L && System.nanoTime() >= deadline)
+                || (nodeLimit != 0L && nodes >= nodeLimit)
+                || (stopFlag != null && (stopFlag.get() || Thread.currentThread().isInterrupted()));
+    }
+
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    // depth compte les coups pour la limite de profondeur, ply indexe la pile d'annulation
+    // (les deux diffèrent en mode MACRO). Le score est du point de vue du joueur au trait
+    private float alphaBeta(int depth, int ply, boolean player, float alpha, float beta, boolean onPv) {
+        nodes++;
+        if (enforceLimits && (nodes & 1023) == 0 && budgetExhausted()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0.0f;
+        }
+        pvLength[ply] = 0;
+        if (metrics != null) {
+            metrics.node(ply);
+        }
+        if (depth >= maxDepth || ply >= MAX_PLY - 1) {
+            if (endgameDatabase != null && endgameDatabase.covers(board)) {
+                return endgameDatabase.score(board, player, evaluationWeights); // Score exact : pas d'horizon
+            }
+            horizonHit = true;
+            if (metrics != null) {
+                metrics.evaluation();
+            }
+            if (quiescenceDepth > 0 && ply < MAX_PLY - 1) {
+                return quiescence(ply, player, alpha, beta, quiescenceDepth);
+            }
+            return evaluate(player);
+        }
+        if (isTerminal()) {
+            if (metrics != null) {
+                metrics.evaluation();
+            }
+            sweep(ply);
+            float eval = evaluate(player);
+            unsweep(ply);
+            return eval;
+        }
+
+        // Consulte la table de transposition (même protocole que GameSearch.alphaBetaHelper)
+        TranspositionTable table = transpositionTable;
+        long key = 0L;
+        int tableMove = -1;
+        int draft = maxDepth - depth;
+        float alphaOrig = alpha;
+        if (table != null) {
+            key = hash ^ Zobrist.sideKey(player);
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS) {
+                tableMove = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.draft(entry) >= draft) {
+                    float value = TranspositionTable.value(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && value >= beta)
+                            || (bound == TranspositionTable.UPPER && value <= alpha)) {
+                        horizonHit = true; // Le sous-arbre n'a pas forcément été résolu
+                        return value;
+                    }
+                }
+            }
+        }
+
+        int base = ply * 6;
+        int count = generateMoves(ply, player);
+        if (tableMove != -1) {
+            moveToFront(base, count, tableMove);
+        }
+        int pvMove = onPv && ply < previousPvLength ? previousPv[ply] : -1;
+        if (pvMove != -1) {
+            moveToFront(base, count, pvMove); // Coup de la variation principale précédente en tête
+        }
+
+        float bestValue = Float.NEGATIVE_INFINITY;
+        int bestPit = -1;
+        for (int i = 0; i < count; i++) {
+            int pit = moveList[base + i];
+            makeMove(ply, pit, player);
+            // Tour supplémentaire : le même joueur rejoue, le score n'est pas inversé
+            boolean sameSide = extraTurn && extraTurnMode != ExtraTurnMode.ALTERNATE;
+            int childDepth = sameSide && extraTurnMode == ExtraTurnMode.MACRO ? depth : depth + 1;
+            boolean childOnPv = pit == pvMove;
+            float eval;
+            if (i == 0 || algorithm == GameSearch.Algorithm.ALPHA_BETA) {
+                eval = child(childDepth, ply, player, sameSide, alpha, beta, childOnPv);
+            } else {
+                // PVS : fenêtre nulle pour réfuter le coup, nouvelle recherche s'il bat alpha
+                eval = child(childDepth, ply, player, sameSide, alpha, Math.nextUp(alpha), childOnPv);
+                if (!aborted && eval > alpha && eval < beta) {
+                    researches++;
+                    eval = child(childDepth, ply, player, sameSide, alpha, beta, childOnPv);
+                }
+            }
+            unmakeMove(ply, player);
+            if (aborted) {
+                return 0.0f;
+            }
+
+            if (eval > bestValue) {
+                bestValue = eval;
+                bestPit = pit;
+                updatePv(ply, pit);
+            }
+            alpha = Math.max(alpha, eval);
+            if (alpha >= beta) {
+                moveOrdering.cutoff(ply, player, pit, MoveOrdering.flags(board, pit, player) == 0, maxDepth - depth, i);
+                if (metrics != null) {
+                    metrics.cutoff(i);
+                }
+                break;
+            }
+        }
+
+        if (table != null) {
+            int bound = bestValue <= alphaOrig ? TranspositionTable.UPPER
+                    : bestValue >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, draft, bound, bestValue, bestPit);
+        }
+        if (ply == 0) {
+            bestMove = bestPit;
+        }
+        return bestValue;
+    }
+
+    // Recherche de quiescence (même protocole que GameSearch.quiescence) : tours supplémentaires puis
+    // captures, par pit croissant, au plus remaining coups de suite, avec stand pat
+    private float quiescence(int ply, boolean player, float alpha, float beta, int remaining) {
+        if (endgameDatabase != null && endgameDatabase.covers(board)) {
+            return endgameDatabase.score(board, player, evaluationWeights);
+        }
+        if (isTerminal()) {
+            sweep(ply);
+            float eval = evaluate(player);
+            unsweep(ply);
+            return eval;
+        }
+        float standPat = evaluate(player);
+        if (remaining == 0 || standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        float bestValue = standPat;
+        alpha = Math.max(alpha, standPat);
+        int start = player ? 0 : 7;
+        for (int kind = MoveOrdering.EXTRA_TURN; kind <= MoveOrdering.CAPTURE; kind++) {
+            for (int pit = start; pit < start + 6; pit++) {
+                if (board[pit] == 0 || MoveOrdering.flags(board, pit, player) != kind) continue;
+                nodes++;
+                if (enforceLimits && (nodes & 1023) == 0 && budgetExhausted()) {
+                    aborted = true;
+                }
+                if (aborted) {
+                    return 0.0f;
+                }
+                if (metrics != null) {
+                    metrics.node(ply + 1);
+                    metrics.evaluation();
+                }
+                makeMove(ply, pit, player);
+                float eval = extraTurn && extraTurnMode != ExtraTurnMode.ALTERNATE
+                        ? quiescence(ply + 1, player, alpha, beta, remaining - 1)
+                        : -quiescence(ply + 1, !player, -beta, -alpha, remaining - 1);
+                unmakeMove(ply, player);
+                if (eval > bestValue) {
+                    bestValue = eval;
+                    alpha = Math.max(alpha, eval);
+                    if (alpha >= beta) {
+                        return bestValue;
+                    }
+                }
+            }
+        }
+        return bestValue;
+    }
+
+    // Recherche exacte, sans horizon ni évaluation : différence finale des Mancalas (joueur au trait moins
+    // adversaire) en jeu parfait depuis la position chargée. Sans limite de nœuds (0), la valeur est exacte ;
+    // sinon wasAborted indique une résolution inachevée (budget épuisé ou partie de plus de MAX_PLY coups)
+    public int solve(boolean player, long maxNodes) {
+        int seeds = Mancala.totalSeeds(board);
+        return solve(player, -seeds - 1, seeds + 1, maxNodes);
+    }
+
+    // Idem dans la fenêtre (alpha, beta) : une valeur hors de la fenêtre n'est qu'une borne (ex : -1, 1
+    // pour savoir seulement si la position est gagnée, nulle ou perdue)
+    public int solve(boolean player, int alpha, int beta, long maxNodes) {
+        this.bestMove = -1;
+        this.nodes = 0;
+        this.boundCutoffs = 0;
+        this.deadline = 0L;
+        this.nodeLimit = maxNodes;
+        this.enforceLimits = maxNodes > 0 || stopFlag != null;
+        this.aborted = false;
+        this.solveSeeds = Mancala.totalSeeds(board);
+        if (transpositionTable != null) {
+            transpositionTable.newSearch();
+        }
+        return solve(0, player, alpha, beta);
+    }
+
+    // Active les coupures sur les bornes de la différence finale (activées par défaut)
+    public void setBoundPruning(boolean boundPruning) {
+        this.boundPruning = boundPruning;
+    }
+
+    // Nœuds de la dernière résolution terminés par les bornes, sans exploration de leurs coups
+    public long getBoundCutoffs() {
+        return boundCutoffs;
+    }
+
+    // Les Mancalas ne font que grossir et chaque graine encore sur les pits finira dans l'un d'eux : la
+    // différence finale est comprise entre d - r et d + r (d différence actuelle, r graines sur les pits).
+    // Un Mancala qui dépasse la moitié des graines donne d - r > 0 : la partie est décidée. Les bornes
+    // resserrent la fenêtre et terminent les nœuds dont l'issue ne peut plus la traverser
+    private int solve(int ply, boolean player, int alpha, int beta) {
+        nodes++;
+        if (enforceLimits && (nodes & 1023) == 0 && budgetExhausted()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        int own = player ? HUMAN_MANCALA : PROGRAM_MANCALA;
+        int opponent = player ? PROGRAM_MANCALA : HUMAN_MANCALA;
+        int difference = board[own] - board[opponent];
+        if (isTerminal()) {
+            // Ramassage : chaque camp prend les graines de ses pits
+            int start = player ? 0 : 7;
+            int other = player ? 7 : 0;
+            for (int i = 0; i < 6; i++) {
+                difference += board[start + i] - board[other + i];
+            }
+            return difference;
+        }
+        if (endgameDatabase != null && endgameDatabase.covers(board)) {
+            return endgameDatabase.probe(board, player);
+        }
+        if (ply >= MAX_PLY - 1) {
+            aborted = true;
+            return 0;
+        }
+        if (boundPruning) {
+            int remaining = solveSeeds - board[own] - board[opponent];
+            if (difference + remaining <= alpha) {
+                boundCutoffs++;
+                return difference + remaining;
+            }
+            if (difference - remaining >= beta) {
+                boundCutoffs++;
+                return difference - remaining;
+            }
+            alpha = Math.max(alpha, difference - remaining);
+            beta = Math.min(beta, difference + remaining);
+        }
+
+        TranspositionTable table = transpositionTable;
+        long key = 0L;
+        int tableMove = -1;
+        int alphaOrig = alpha;
+        if (table != null) {
+            key = hash ^ Zobrist.sideKey(player) ^ SOLVE_KEY;
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS && TranspositionTable.draft(entry) == SOLVED_DRAFT) {
+                tableMove = TranspositionTable.move(entry);
+                int value = (int) TranspositionTable.value(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (ply > 0 && (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && value >= beta)
+                        || (bound == TranspositionTable.UPPER && value <= alpha))) {
+                    return value;
+                }
+            }
+        }
+
+        // Tours supplémentaires, puis captures, puis les autres coups, par pit croissant
+        int base = ply * 6;
+        int count = 0;
+        int start = player ? 0 : 7;
+        for (int kind : SOLVE_ORDER) {
+            for (int pit = start; pit < start + 6; pit++) {
+                if (board[pit] > 0 && MoveOrdering.flags(board, pit, player) == kind) {
+                    moveList[base + count++] = pit;
+                }
+            }
+        }
+        if (tableMove != -1) {
+            moveToFront(base, count, tableMove);
+        }
+
+        int bestValue = Integer.MIN_VALUE;
+        int bestPit = -1;
+        for (int i = 0; i < count; i++) {
+            int pit = moveList[base + i];
+            makeMove(ply, pit, player);
+            boolean sameSide = extraTurn;
+            int value;
+            if (i == 0 || algorithm == GameSearch.Algorithm.ALPHA_BETA) {
+                value = solveChild(ply, player, sameSide, alpha, beta);
+            } else {
+                // PVS : fenêtre nulle (les valeurs sont entières), nouvelle recherche si le coup bat alpha
+                value = solveChild(ply, player, sameSide, alpha, alpha + 1);
+                if (!aborted && value > alpha && value < beta) {
+                    value = solveChild(ply, player, sameSide, alpha, beta);
+                }
+            }
+            unmakeMove(ply, player);
+            if (aborted) {
+                return 0;
+            }
+            if (value > bestValue) {
+                bestValue = value;
+                bestPit = pit;
+                alpha = Math.max(alpha, value);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        if (table != null) {
+            int bound = bestValue <= alphaOrig ? TranspositionTable.UPPER
+                    : bestValue >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, SOLVED_DRAFT, bound, bestValue, bestPit);
+        }
+        if (ply == 0) {
+            bestMove = bestPit;
+        }
+        return bestValue;
+    }
+
+    private int solveChild(int ply, boolean player, boolean sameSide, int alpha, int beta) {
+        return sameSide ? solve(ply + 1, player, alpha, beta) : -solve(ply + 1, !player, -beta, -alpha);
+    }
+
+    // Score d'une position fille, du point de vue du joueur qui vient de jouer
+    private float child(int depth, int ply, boolean player, boolean sameSide, float alpha, float beta, boolean onPv) {
+        return sameSide ? alphaBeta(depth, ply + 1, player, alpha, beta, onPv)
+                : -alphaBeta(depth, ply + 1, !player, -beta, -alpha, onPv);
+    }
+
+    // Le coup devient la tête de la variation principale de ce ply, suivi de celle du ply suivant
+    private void updatePv(int ply, int pit) {
+        int row = ply * MAX_PLY;
+        int childRow = row + MAX_PLY;
+        int childLength = ply + 1 < MAX_PLY ? pvLength[ply + 1] : 0;
+        pv[row] = pit;
+        System.arraycopy(pv, childRow, pv, row + 1, childLength);
+        pvLength[ply] = childLength + 1;
+    }
+
+    // Évaluation du plateau du point de vue du joueur (Mancala.evaluate est du point de vue du PROGRAM)
+    private float evaluate(boolean player) {
+        float eval = incrementalEvaluation ? evaluation.value(board, evaluationWeights)
+                : Mancala.evaluate(board, evaluationWeights);
+        return player ? -eval : eval;
+    }
+
+    // Génère et ordonne les coups : en mode HEURISTIC selon MoveOrdering, en mode EVALUATION comme
+    // Mancala.searchMoves puis le tri de alphaBetaHelper (évaluation décroissante, puis score avec
+    // bonus décroissant, puis index de pit croissant)
+    private int generateMoves(int ply, boolean player) {
+        int base = ply * 6;
+        int start = player ? 0 : 7;
+        int count = 0;
+        if (moveOrdering.getMode() == MoveOrdering.Mode.HEURISTIC) {
+            for (int pit = start; pit < start + 6; pit++) {
+                if (board[pit] == 0) continue;
+                moveList[base + count] = pit;
+                moveRank[base + count] = moveOrdering.rank(ply, player, pit, MoveOrdering.flags(board, pit, player));
+                count++;
+            }
+            MoveOrdering.sort(moveList, moveRank, base, count);
+            return count;
+        }
+        for (int pit = start; pit < start + 6; pit++) {
+            if (board[pit] == 0) continue;
+            makeMove(ply, pit, player);
+            float eval = evaluate(player);
+            float score = eval;
+            if (extraTurn) score += 10.0f;
+            if (board[pit] == 0 && board[12 - pit] > 0) score += 5.0f;
+            if (!player && board[12 - pit] > 0) score -= 5.0f + board[12 - pit];
+            unmakeMove(ply, player);
+
+            // Tri par insertion (stable) sur les tableaux primitifs
+            int j = base + count;
+            while (j > base && before(eval, score, moveEval[j - 1], moveScore[j - 1])) {
+                moveList[j] = moveList[j - 1];
+                moveEval[j] = moveEval[j - 1];
+                moveScore[j] = moveScore[j - 1];
+                j--;
+            }
+            moveList[j] = pit;
+            moveEval[j] = eval;
+            moveScore[j] = score;
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean before(float eval, float score, float otherEval, float otherScore) {
+        int cmp = Float.compare(eval, otherEval);
+        return cmp > 0 || (cmp == 0 && Float.compare(score, otherScore) > 0);
+    }
+
+    private void moveToFront(int base, int count, int pit) {
+        for (int i = base + 1; i < base + count; i++) {
+            if (moveList[i] == pit) {
+                System.arraycopy(moveList, base, moveList, base + 1, i - base);
+                moveList[base] = pit;
+                return;
+            }
+        }
+    }
+
+    // Joue un coup en place (mêmes règles que Mancala.makeMove) et remplit l'enregistrement d'annulation
+    private void makeMove(int ply, int pit, boolean player) {
+        int seeds = board[pit];
+        int skipped = player ? PROGRAM_MANCALA : HUMAN_MANCALA;
+        long h = hash;
+        undoHash[ply] = h;
+        undoPit[ply] = pit;
+        undoSeeds[ply] = seeds;
+
+        h = Zobrist.update(h, pit, seeds, 0);
+        board[pit] = 0;
+        int changed = 1 << pit; // Pits modifiés, pour IncrementalEvaluation
+        int current = pit;
+        while (seeds > 0) {
+            current = current == 13 ? 0 : current + 1;
+            if (current == skipped) continue;
+            h = Zobrist.update(h, current, board[current], board[current] + 1);
+            board[current]++;
+            changed |= 1 << current;
+            seeds--;
+        }
+        undoLast[ply] = current;
+
+        // Capture si la dernière graine tombe dans un pit vide du joueur
+        int captured = -1;
+        if (board[current] == 1 && (player ? current <= 5 : current >= 7 && current <= 12)) {
+            int opposite = 12 - current;
+            int mancala = player ? HUMAN_MANCALA : PROGRAM_MANCALA;
+            captured = board[opposite];
+            h = Zobrist.update(h, mancala, board[mancala], board[mancala] + captured + 1);
+            h = Zobrist.update(h, opposite, captured, 0);
+            h = Zobrist.update(h, current, 1, 0);
+            board[mancala] += captured + 1;
+            board[opposite] = 0;
+            board[current] = 0;
+            changed |= 1 << mancala | 1 << opposite;
+        }
+        evaluation.changed(changed);
+        undoCaptured[ply] = captured;
+        extraTurn = current == (player ? HUMAN_MANCALA : PROGRAM_MANCALA);
+        hash = h;
+    }
+
+    // Annule le coup joué à ce ply
+    private void unmakeMove(int ply, boolean player) {
+        int pit = undoPit[ply];
+        int seeds = undoSeeds[ply];
+        int last = undoLast[ply];
+        int captured = undoCaptured[ply];
+        if (captured >= 0) {
+            int mancala = player ? HUMAN_MANCALA : PROGRAM_MANCALA;
+            board[mancala] -= captured + 1;
+            board[12 - last] = captured;
+            board[last] = 1;
+        }
+        int skipped = player ? PROGRAM_MANCALA : HUMAN_MANCALA;
+        int changed = 1 << pit;
+        int current = pit;
+        for (int remaining = seeds; remaining > 0; ) {
+            current = current == 13 ? 0 : current + 1;
+            if (current == skipped) continue;
+            board[current]--;
+            changed |= 1 << current;
+            remaining--;
+        }
+        board[pit] = seeds;
+        evaluation.changed(captured >= 0 ? changed | 1 << (12 - last) | 1 << (player ? HUMAN_MANCALA : PROGRAM_MANCALA)
+                : changed);
+        hash = undoHash[ply];
+    }
+
+    // La partie est terminée quand l'un des deux côtés est vide
+    private boolean isTerminal() {
+        return (board[0] | board[1] | board[2] | board[3] | board[4] | board[5]) == 0
+                || (board[7] | board[8] | board[9] | board[10] | board[11] | board[12]) == 0;
+    }
+
+    // Ramassage de fin de partie (cf. Mancala.drawnPosition), annulé par unsweep
+    private void sweep(int ply) {
+        int base = ply * 12;
+        for (int i = 0; i < 6; i++) {
+            sweepSaved[base + i] = board[i];
+            sweepSaved[base + 6 + i] = board[7 + i];
+            board[HUMAN_MANCALA] += board[i];
+            board[PROGRAM_MANCALA] += board[7 + i];
+            board[i] = 0;
+            board[7 + i] = 0;
+        }
+        evaluation.changed(IncrementalEvaluation.ALL_PITS);
+    }
+
+    private void unsweep(int ply) {
+        int base = ply * 12;
+        for (int i = 0; i < 6; i++) {
+            board[i] = sweepSaved[base + i];
+            board[7 + i] = sweepSaved[base + 6 + i];
+            board[HUMAN_MANCALA] -= board[i];
+            board[PROGRAM_MANCALA] -= board[7 + i];
+        }
+        evaluation.changed(IncrementalEvaluation.ALL_PITS);
+    }
+}
@@ -17,6 +17,8 @@ public class MancalaGUI extends JFrame {
     public MancalaGUI(Mancala game, MancalaPosition position) {
         this.game = game;
         this.position = position;
+        game.setGameLog(Mancala.openGameLog()); // -Dmancala.gameLog=file records every game played
+        game.newGame(position, true);
 
         setTitle("Mancala Game: Human vs Human");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -127,6 +129,7 @@ public class MancalaGUI extends JFrame {
 
             // Perform the move
             position = (MancalaPosition) game.makeMove(position, isHumanTurn, new MancalaMove(pitIndex));
+            game.recordMove(pitIndex);
 
             // Check if the player has an extra turn
             if (!position.extraTurn) {
@@ -152,6 +155,7 @@ public class MancalaGUI extends JFrame {
                     winnerMessage = "It's a draw!";
                 }
 
+                game.endGame();
                 JOptionPane.showMessageDialog(this, "Game Over!\n" + winnerMessage);
                 System.exit(0);
             }
@@ -164,7 +168,7 @@ public class MancalaGUI extends JFrame {
         // Prompt for a file to save the game
         String filename = JOptionPane.showInputDialog(this, "Enter filename to save the game:");
         if (filename != null && !filename.trim().isEmpty()) {
-            game.saveGame(position, filename);
+            game.saveGame(position, isHumanTurn, filename);
             JOptionPane.showMessageDialog(this, "Game saved successfully!");
         }
     }
@@ -3,6 +3,9 @@ package GameSearch.mancala;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MancalaGameUI extends JFrame {
     private final JButton[] humanPits = new JButton[6];
@@ -10,20 +13,37 @@ public class MancalaGameUI extends JFrame {
     private final JLabel humanMancala = new JLabel("0", SwingConstants.CENTER);
     private final JLabel programMancala = new JLabel("0", SwingConstants.CENTER);
     private final JLabel statusLabel = new JLabel("Human's Turn!", SwingConstants.CENTER);
+    private final JLabel metricsLabel = new JLabel(" ", SwingConstants.CENTER); // Search metrics, when collected
+    private final JButton moveNowButton = new JButton("Move Now");
     private int helpCounter = 0;
     private Mancala game;
-    private MancalaPosition position;
+    private MancalaPosition position; // Owned by the EDT; searches work on a copy
     private boolean humanTurn;
 
+    // The engine runs on its own thread so the window keeps repainting while it thinks
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "mancala-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private AtomicBoolean stopFlag; // "Move now" flag of the running search (null when idle)
+    private int searchGeneration; // Incremented to discard the result of an outdated search
+
     public MancalaGameUI() {
         game = new Mancala();
+        game.setEndgameDatabase(EndgameDatabase.openIfPresent(EndgameDatabase.DEFAULT_DIRECTORY)); // Generated by EndgameGenerator
         selectDifficulty();  // User selects difficulty level
+        game.setPonderer(new Ponderer(game)); // Thinks while the human chooses a move
         position = new MancalaPosition();
         humanTurn = true;
+        game.setGameLog(Mancala.openGameLog()); // -Dmancala.gameLog=file records every game played
+        game.setOpeningBook(OpeningBook.openDefault()); // -Dmancala.book=file plays opening moves without searching
+        game.newGame(position, true);
 
         setupUI();
         setLocationRelativeTo(null);
         setVisible(true);
+        game.startPondering(position, true);
     }
 
     private void setupUI() {
@@ -75,19 +95,28 @@ public class MancalaGameUI extends JFrame {
         JButton loadButton = createControlButton("Load Game");
         JButton helpButton = createControlButton("Help");
         JButton quitButton = createControlButton("Quit");
+        styleControlButton(moveNowButton);
+        moveNowButton.setEnabled(false);
 
         saveButton.addActionListener(e -> saveGame());
         loadButton.addActionListener(e -> loadGame());
         helpButton.addActionListener(e -> showHelp(helpButton));
+        moveNowButton.addActionListener(e -> moveNow());
         quitButton.addActionListener(e -> System.exit(0));
 
+        buttonPanel.setLayout(new GridLayout(1, 5, 10, 10));
         buttonPanel.add(saveButton);
         buttonPanel.add(loadButton);
         buttonPanel.add(helpButton);
+        buttonPanel.add(moveNowButton);
         buttonPanel.add(quitButton);
 
         controlPanel.add(statusLabel, BorderLayout.NORTH);
         controlPanel.add(buttonPanel, BorderLayout.CENTER);
+        if (game.getSearchMetrics() != null) {
+            metricsLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+            controlPanel.add(metricsLabel, BorderLayout.SOUTH);
+        }
 
         return controlPanel;
     }
@@ -104,13 +133,17 @@ public class MancalaGameUI extends JFrame {
 
     private JButton createControlButton(String text) {
         JButton button = new JButton(text);
+        styleControlButton(button);
+        return button;
+    }
+
+    private void styleControlButton(JButton button) {
         button.setFont(new Font("Arial", Font.BOLD, 16));
         button.setBackground(new Color(100, 149, 237)); // Cornflower blue
         button.setForeground(Color.WHITE);
         button.setFocusPainted(false);
         button.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-        return button;
     }
 
     private void styleMancala(JLabel mancala) {
@@ -145,13 +178,16 @@ public class MancalaGameUI extends JFrame {
             JOptionPane.showMessageDialog(this, "Invalid move! Choose a valid pit.");
             return;
         }
+        cancelSearch(); // Drops a hint that is still being computed
 
         Move move = new MancalaMove(pitIndex);
         position = (MancalaPosition) game.makeMove(position, true, move);
+        game.recordMove(pitIndex);
         updateBoard();
 
         if (position.extraTurn) {
             statusLabel.setText("Human gets another turn!");
+            game.startPondering(position, true);
         } else {
             humanTurn = false;
             statusLabel.setText("Computer's Turn...");
@@ -159,18 +195,96 @@ public class MancalaGameUI extends JFrame {
         }
     }
 
+    // Starts the computer's search on the search thread; the board is updated on the EDT when it ends
     private void handleComputerMove() {
-        List<Object> result = game.alphaBeta(0, position, false);
-        MancalaPosition bestMove = (MancalaPosition) result.get(1);
+        int generation = ++searchGeneration;
+        AtomicBoolean stop = new AtomicBoolean();
+        stopFlag = stop;
+        moveNowButton.setEnabled(true);
+        MancalaPosition searchPosition = position.clone();
+        searchExecutor.execute(() -> {
+            List<Object> result;
+            try {
+                result = search(searchPosition, false, stop, generation);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                SwingUtilities.invokeLater(() -> computerMoveFailed(e, generation));
+                return;
+            }
+            MancalaPosition bestMove = (MancalaPosition) result.get(1);
+            SwingUtilities.invokeLater(() -> applyComputerMove(bestMove, generation));
+        });
+    }
+
+    // The search failed: releases "Move Now" and offers to search again (the computer is still to move)
+    private void computerMoveFailed(RuntimeException e, int generation) {
+        if (generation != searchGeneration) {
+            return;
+        }
+        stopFlag = null;
+        moveNowButton.setEnabled(false);
+        statusLabel.setText("Computer could not move");
+        int choice = JOptionPane.showConfirmDialog(this, "AI encountered an error: " + e.getMessage()
+                + "\nRetry the computer's move?", "Search error", JOptionPane.YES_NO_OPTION);
+        if (choice == JOptionPane.YES_OPTION && generation == searchGeneration) {
+            statusLabel.setText("Computer's Turn...");
+            handleComputerMove();
+        }
+    }
+
+    private void applyComputerMove(MancalaPosition bestMove, int generation) {
+        if (generation != searchGeneration) {
+            return; // A game was loaded meanwhile
+        }
+        stopFlag = null;
+        moveNowButton.setEnabled(false);
         position = bestMove;
+        game.recordMove(bestMove.lastMove);
+        showSearchMetrics();
         updateBoard();
 
         if (position.extraTurn) {
             statusLabel.setText("Computer gets another turn!");
-            SwingUtilities.invokeLater(this::handleComputerMove);
+            handleComputerMove();
         } else {
             humanTurn = true;
             statusLabel.setText("Human's Turn");
+            game.startPondering(position, true);
+        }
+    }
+
+    // Runs on the search thread: reports each completed iteration to the status label
+    private List<Object> search(MancalaPosition searchPosition, boolean player, AtomicBoolean stop, int generation) {
+        String who = player ? "Finding a hint" : "Computer is thinking";
+        game.setStopFlag(stop);
+        game.setSearchListener((depth, bestMove, score, nodes) -> SwingUtilities.invokeLater(() -> {
+            if (generation == searchGeneration) {
+                statusLabel.setText(String.format("%s... depth %d, best pit %d (score %.1f, %,d nodes)",
+                        who, depth, player ? bestMove : bestMove - 7, score, nodes));
+            }
+        }));
+        try {
+            return game.alphaBeta(0, searchPosition, player);
+        } finally {
+            game.setStopFlag(null);
+            game.setSearchListener(null);
+        }
+    }
+
+    // Plays the best move of the last completed iteration right away
+    private void moveNow() {
+        if (stopFlag != null) {
+            stopFlag.set(true);
+            moveNowButton.setEnabled(false);
+        }
+    }
+
+    // Shows the metrics of the last computer move (full report in the tooltip)
+    private void showSearchMetrics() {
+        SearchMetrics.Snapshot metrics = game.getLastSearchMetrics();
+        if (metrics != null) {
+            metricsLabel.setText(metrics.summary());
+            metricsLabel.setToolTipText("<html><pre>" + metrics + "</pre></html>");
         }
     }
 
@@ -189,6 +303,7 @@ public class MancalaGameUI extends JFrame {
             int programScore = position.board[MancalaPosition.PROGRAM_MANCALA];
             String winner = humanScore > programScore ? "Human Wins!" :
                     programScore > humanScore ? "Computer Wins!" : "It's a Draw!";
+            game.endGame();
             JOptionPane.showMessageDialog(this, "Game Over! " + winner);
             System.exit(0);
         }
@@ -197,7 +312,7 @@ public class MancalaGameUI extends JFrame {
     private void saveGame() {
         String filename = JOptionPane.showInputDialog(this, "Enter filename to save:");
         if (filename != null && !filename.trim().isEmpty()) {
-            game.saveGame(position, filename);
+            game.saveGame(position, humanTurn, filename);
         }
     }
 
@@ -206,35 +321,57 @@ public class MancalaGameUI extends JFrame {
         if (filename != null && !filename.trim().isEmpty()) {
             MancalaPosition loadedPos = game.loadGame(filename);
             if (loadedPos != null) {
+                cancelSearch();
                 position = loadedPos;
                 updateBoard();
-                humanTurn = true;
-                statusLabel.setText("Human's Turn");
+                humanTurn = game.getGameRecord().playerToMove(); // Saved games keep the side to move
+                if (humanTurn) {
+                    statusLabel.setText("Human's Turn");
+                    game.startPondering(position, true);
+                } else {
+                    statusLabel.setText("Computer's Turn...");
+                    handleComputerMove();
+                }
             }
         }
     }
 
+    // Abandons the running search: its result will be ignored
+    private void cancelSearch() {
+        searchGeneration++;
+        if (stopFlag != null) {
+            stopFlag.set(true);
+            stopFlag = null;
+        }
+        moveNowButton.setEnabled(false);
+    }
+
     private void showHelp(JButton helpButton) {
         if (helpCounter < 3) {
-            if (humanTurn) {
-                try {
-                    List<Object> result = game.alphaBeta(0, position, true);
-                    MancalaPosition bestMove = (MancalaPosition) result.get(1);
-
-                    if (bestMove != null) {
-                        int recommendedPit = getBestMovePitIndex(position, bestMove);
-                        if (recommendedPit != -1) {
-                            JOptionPane.showMessageDialog(this, "AI recommends choosing pit: " + recommendedPit);
-                        } else {
-                            JOptionPane.showMessageDialog(this, "No valid moves available.");
-                        }
-                    } else {
-                        JOptionPane.showMessageDialog(this, "No valid moves available.");
+            if (humanTurn && stopFlag == null) {
+                int generation = ++searchGeneration;
+                AtomicBoolean stop = new AtomicBoolean();
+                stopFlag = stop;
+                moveNowButton.setEnabled(true);
+                MancalaPosition searchPosition = position.clone();
+                searchExecutor.execute(() -> {
+                    List<Object> result;
+                    try {
+                        result = search(searchPosition, true, stop, generation);
+                    } catch (RuntimeException e) {
+                        SwingUtilities.invokeLater(() -> {
+                            if (generation != searchGeneration) return;
+                            stopFlag = null;
+                            moveNowButton.setEnabled(false);
+                            JOptionPane.showMessageDialog(this, "AI encountered an error: " + e.getMessage());
+                        });
+                        return;
                     }
-                    helpCounter++;
-                } catch (IllegalArgumentException e) {
-                    JOptionPane.showMessageDialog(this, "AI encountered an error: " + e.getMessage());
-                }
+                    MancalaPosition bestMove = (MancalaPosition) result.get(1);
+                    SwingUtilities.invokeLater(() -> showHint(searchPosition, bestMove, generation));
+                });
+            } else if (humanTurn) {
+                JOptionPane.showMessageDialog(this, "Still looking for a hint...");
             } else {
                 JOptionPane.showMessageDialog(this, "It's not your turn!");
             }
@@ -244,6 +381,26 @@ public class MancalaGameUI extends JFrame {
         }
     }
 
+    private void showHint(MancalaPosition searchPosition, MancalaPosition bestMove, int generation) {
+        if (generation != searchGeneration) {
+            return;
+        }
+        stopFlag = null;
+        moveNowButton.setEnabled(false);
+        statusLabel.setText("Human's Turn");
+        if (bestMove != null) {
+            int recommendedPit = getBestMovePitIndex(searchPosition, bestMove);
+            if (recommendedPit != -1) {
+                JOptionPane.showMessageDialog(this, "AI recommends choosing pit: " + recommendedPit);
+            } else {
+                JOptionPane.showMessageDialog(this, "No valid moves available.");
+            }
+        } else {
+            JOptionPane.showMessageDialog(this, "No valid moves available.");
+        }
+        helpCounter++;
+    }
+
     private int getBestMovePitIndex(MancalaPosition currentPosition, MancalaPosition bestMove) {
         for (int i = 0; i < 6; i++) {
             if (currentPosition.board[i] != bestMove.board[i]) {
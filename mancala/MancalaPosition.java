@@ -1,5 +1,7 @@
 package GameSearch.mancala;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 
@@ -15,12 +17,17 @@ public class MancalaPosition extends Position implements Serializable {
 
     public int[] board = new int[14]; // Tableau représentant le plateau de jeu (14 cases au total)
 
+    public transient long hash; // Clé de Zobrist du plateau, maintenue incrémentalement par makeMove
+    public transient int lastMove = -1; // Pit joué pour atteindre cette position (-1 si inconnu)
+
     @Override
     protected MancalaPosition clone() {
         // Méthode pour créer une copie indépendante (clone) de l'objet actuel
         MancalaPosition copy = new MancalaPosition();
         copy.board = this.board.clone();  // Effectue une copie profonde (deep copy) du tableau board
         copy.extraTurn = this.extraTurn;  // Copie l'état du drapeau extraTurn
+        copy.hash = this.hash;            // Copie la clé de Zobrist
+        copy.lastMove = this.lastMove;
         return copy;
     }
 
@@ -30,6 +37,14 @@ public class MancalaPosition extends Position implements Serializable {
         Arrays.fill(board, 4); // Remplit chaque case du tableau avec 4 graines
         board[HUMAN_MANCALA] = 0; // Le Mancala du joueur humain commence avec 0 graines
         board[PROGRAM_MANCALA] = 0; // Le Mancala du programme (IA) commence avec 0 graines
+        hash = Zobrist.hash(board); // Clé de Zobrist de la position initiale
+    }
+
+    // Recalcule les champs transitoires après le chargement d'une partie sauvegardée
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        hash = Zobrist.hash(board);
+        lastMove = -1;
     }
 
     @Override
@@ -0,0 +1,66 @@
+package GameSearch.mancala;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+// Fichier projeté en mémoire par segments de 1 Go (un MappedByteBuffer est limité à 2 Go). Chaque segment
+// déborde de overlap octets sur le suivant : une donnée de moins de overlap octets se lit toujours
+// dans un seul segment, quel que soit son emplacement.
+final class MappedFile {
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT = 1L << SEGMENT_BITS;
+    private static final long MASK = SEGMENT - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    MappedFile(FileChannel channel, FileChannel.MapMode mode, long size, int overlap) throws IOException {
+        this.size = size;
+        segments = new MappedByteBuffer[(int) ((size + SEGMENT - 1) >>> SEGMENT_BITS)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(mode, start, Math.min(size - start, SEGMENT + overlap));
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    byte get(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].get((int) (offset & MASK));
+    }
+
+    int getInt(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].getInt((int) (offset & MASK));
+    }
+
+    long getLong(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].getLong((int) (offset & MASK));
+    }
+
+    void putInt(long offset, int value) {
+        segments[(int) (offset >>> SEGMENT_BITS)].putInt((int) (offset & MASK), value);
+    }
+
+    void putLong(long offset, long value) {
+        segments[(int) (offset >>> SEGMENT_BITS)].putLong((int) (offset & MASK), value);
+    }
+
+    // Vue sans copie de length octets (au plus overlap, sauf dans le dernier segment)
+    ByteBuffer slice(long offset, int length) {
+        ByteBuffer view = segments[(int) (offset >>> SEGMENT_BITS)].duplicate();
+        int start = (int) (offset & MASK);
+        view.limit(start + length).position(start);
+        return view.slice();
+    }
+
+    // Écrit les segments modifiés sur le disque
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+}
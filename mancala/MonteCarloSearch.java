@@ -0,0 +1,473 @@
+package GameSearch.mancala;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Recherche Monte Carlo (UCT) : alternative à alphaBeta qui ne dépend pas de l'évaluation heuristique.
+// Chaque simulation descend l'arbre selon UCT, développe une feuille puis termine la partie par des coups
+// aléatoires (ou guidés par une heuristique simple) ; le résultat (victoire, nulle, défaite) remonte le
+// chemin. Le coup joué est le fils de la racine le plus visité.
+//
+// Les nœuds vivent dans deux réserves de tableaux parallèles allouées une fois pour toutes (position
+// compactée, joueur au trait, premier fils, statistiques) ; aucune allocation par simulation. D'un coup à
+// l'autre, le sous-arbre de la nouvelle racine (après la réponse de l'adversaire) est recopié dans l'autre
+// réserve, qui devient active : l'arbre est réutilisé et la mémoire aussi.
+//
+// Plusieurs threads simulent en parallèle sur le même arbre, sans verrou : visites et points d'un nœud
+// tiennent dans un seul long mis à jour atomiquement. La visite est comptée dès la descente (perte
+// virtuelle : le nœud paraît moins bon aux autres threads tant que le résultat n'est pas remonté), et un
+// nœud n'est développé que par le thread qui a gagné le CAS sur son premier fils.
+//
+// Contrairement à GameSearch, la recherche ne manipule ni Position ni Move : les nœuds et les simulations
+// jouent directement sur PackedPosition (deux long par nœud). Mancala.alphaBeta fait l'adaptation
+// (MancalaPosition en entrée, pit du meilleur coup en sortie).
+public class MonteCarloSearch {
+    public static final double DEFAULT_EXPLORATION = 1.4; // Constante d'exploration de UCT
+    public static final int DEFAULT_CAPACITY_BITS = 19;   // Nœuds par réserve (2^bits)
+    public static final long DEFAULT_PLAYOUTS = 20_000;   // Budget sans limite de temps ni de nœuds
+
+    // Choix des coups des simulations
+    public enum Playout {
+        RANDOM,   // Coups légaux uniformes
+        HEURISTIC // Surtout le coup qui rapporte le plus au Mancala (tour supplémentaire en tête), parfois au hasard
+    }
+
+    // États du premier fils d'un nœud
+    private static final int UNEXPANDED = -1;
+    private static final int EXPANDING = -2;
+    private static final int TERMINAL = -3;
+    private static final long VISIT = 1L << 32; // Visites dans les 32 bits de poids fort, demi-points en dessous
+    private static final int REUSE_PLIES = 8; // Profondeur maximale de la nouvelle racine sous l'ancienne
+
+    // Réserve de nœuds (tableaux parallèles)
+    private static final class Pool {
+        final long[] low;
+        final long[] high;
+        final boolean[] player;   // Joueur au trait
+        final byte[] move;        // Pit joué pour atteindre le nœud
+        final byte[] childCount;
+        final AtomicIntegerArray firstChild; // Index du premier fils (contigus), ou UNEXPANDED, EXPANDING, TERMINAL
+        final AtomicLongArray stats;         // Visites et demi-points du joueur qui a joué le coup du nœud
+        final AtomicInteger size = new AtomicInteger();
+
+        Pool(int capacity) {
+            low = new long[capacity];
+            high = new long[capacity];
+            player = new boolean[capacity];
+            move = new byte[capacity];
+            childCount = new byte[capacity];
+            firstChild = new AtomicIntegerArray(capacity);
+            stats = new AtomicLongArray(capacity);
+        }
+
+        int capacity() {
+            return low.length;
+        }
+
+        void init(int node, long low, long high, boolean player, int move) {
+            this.low[node] = low;
+            this.high[node] = high;
+            this.player[node] = player;
+            this.move[node] = (byte) move;
+            childCount[node] = 0;
+            firstChild.set(node, UNEXPANDED);
+            stats.set(node, 0L);
+        }
+    }
+
+    private final int threads;
+    private final ExecutorService workers; // threads - 1 threads, le thread appelant simule aussi (null si seul)
+    private Pool active;
+    private Pool spare;
+    private final int[] relocation; // Origine de chaque nœud recopié par relocate
+    private Playout playout = Playout.RANDOM;
+    private double exploration = DEFAULT_EXPLORATION;
+    private long seed = 1;
+    private AtomicBoolean stopFlag;
+
+    // Budget et mesures de la recherche en cours
+    private volatile boolean stopped;
+    private long deadline;
+    private long playoutLimit;
+    private final LongAdder playouts = new LongAdder();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private int reusedNodes;
+
+    public MonteCarloSearch(int threads, int capacityBits) {
+        this.threads = Math.max(1, threads);
+        int capacity = 1 << capacityBits;
+        active = new Pool(capacity);
+        spare = new Pool(capacity);
+        relocation = new int[capacity];
+        workers = this.threads > 1 ? Executors.newFixedThreadPool(this.threads - 1, task -> {
+            Thread thread = new Thread(task, "mancala-mcts");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public MonteCarloSearch(int threads) {
+        this(threads, DEFAULT_CAPACITY_BITS);
+    }
+
+    public void setPlayout(Playout playout) {
+        this.playout = playout;
+    }
+
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    // Graine des simulations (chaque thread en dérive la sienne) : avec un seul thread et un budget en
+    // simulations, la recherche est reproductible
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // Drapeau d'arrêt (cf. MancalaEngine.setStopFlag) ; null pour aucun
+    public void setStopFlag(AtomicBoolean stopFlag) {
+        this.stopFlag = stopFlag;
+    }
+
+    // Oublie l'arbre : la prochaine recherche repart de zéro (nouvelle partie)
+    public void clear() {
+        active.size.set(0);
+    }
+
+    // Nœuds de l'arbre conservés de la recherche précédente
+    public int getReusedNodes() {
+        return reusedNodes;
+    }
+
+    public int getTreeSize() {
+        return Math.min(active.size.get(), active.capacity());
+    }
+
+    // Meilleur coup du joueur au trait. Budget : limits.timeMillis et limits.maxNodes (en simulations),
+    // DEFAULT_PLAYOUTS si aucun des deux n'est fixé ; limits.maxDepth est ignoré. Le score est l'espérance
+    // du résultat (victoire 1, nulle 0, défaite -1) du meilleur coup, du point de vue du joueur au trait
+    public SearchResult search(MancalaPosition position, boolean player, SearchLimits limits) {
+        PackedPosition root = PackedPosition.of(position);
+        if (root.isTerminal()) {
+            root.sweep();
+            int diff = root.seeds(MancalaPosition.HUMAN_MANCALA) - root.seeds(MancalaPosition.PROGRAM_MANCALA);
+            return new SearchResult(-1, Integer.signum(player ? diff : -diff), 0, 0);
+        }
+        prepareRoot(root, player);
+
+        long start = System.nanoTime();
+        deadline = limits.timeMillis > 0 ? start + limits.timeMillis * 1_000_000L : 0L;
+        playoutLimit = limits.maxNodes > 0 ? limits.maxNodes : limits.timeMillis > 0 ? 0L : DEFAULT_PLAYOUTS;
+        stopped = false;
+        playouts.reset();
+        maxDepth.set(0);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            SplittableRandom random = new SplittableRandom(seed * 1_000_003L + i);
+            futures.add(workers.submit(() -> simulate(random)));
+        }
+        simulate(new SplittableRandom(seed * 1_000_003L));
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                stopped = true;
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Monte Carlo worker failed", e.getCause());
+            }
+        }
+
+        // Fils de la racine le plus visité
+        Pool pool = active;
+        int first = pool.firstChild.get(0);
+        int best = -1;
+        long bestVisits = -1;
+        for (int i = 0; first >= 0 && i < pool.childCount[0]; i++) {
+            long visits = pool.stats.get(first + i) >>> 32;
+            if (visits > bestVisits) {
+                bestVisits = visits;
+                best = first + i;
+            }
+        }
+        if (best < 0) { // Aucune simulation n'a pu développer la racine
+            return new SearchResult(firstLegalMove(root, player), 0.0f, 0, playouts.sum());
+        }
+        long stats = pool.stats.get(best);
+        float score = bestVisits == 0 ? 0.0f : (float) ((stats & 0xFFFFFFFFL) / (double) bestVisits - 1.0);
+        return new SearchResult(pool.move[best], score, maxDepth.get(), playouts.sum());
+    }
+
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    // Racine de la recherche : le nœud de la position dans l'arbre précédent (le plus visité s'il y en a
+    // plusieurs) avec son sous-arbre, sinon un arbre neuf. La position est cherchée en largeur sous
+    // l'ancienne racine, à REUSE_PLIES coups au plus (le coup joué puis la réponse de l'adversaire,
+    // tours supplémentaires compris), en suivant les liens vers les fils ; les Mancalas ne diminuent
+    // jamais au cours d'une partie, ce qui écarte les branches qui les ont déjà dépassés
+    private void prepareRoot(PackedPosition root, boolean player) {
+        Pool pool = active;
+        int size = Math.min(pool.size.get(), pool.capacity());
+        int humanStore = root.seeds(MancalaPosition.HUMAN_MANCALA);
+        int programStore = root.seeds(MancalaPosition.PROGRAM_MANCALA);
+        PackedPosition position = new PackedPosition();
+        int[] queue = relocation; // Libre jusqu'à relocate
+        int head = 0;
+        int tail = 0;
+        if (size > 0) {
+            queue[tail++] = 0;
+        }
+        int found = -1;
+        long foundVisits = -1;
+        for (int ply = 0; ply <= REUSE_PLIES && head < tail; ply++) {
+            for (int end = tail; head < end; head++) {
+                int node = queue[head];
+                if (pool.low[node] == root.low && pool.high[node] == root.high && pool.player[node] == player) {
+                    long visits = pool.stats.get(node) >>> 32;
+                    if (visits > foundVisits) {
+                        foundVisits = visits;
+                        found = node;
+                    }
+                }
+                int first = pool.firstChild.get(node);
+                if (first < 0 || ply == REUSE_PLIES) {
+                    continue;
+                }
+                for (int child = first; child < first + pool.childCount[node] && tail < queue.length; child++) {
+                    position.low = pool.low[child];
+                    position.high = pool.high[child];
+                    if (position.seeds(MancalaPosition.HUMAN_MANCALA) <= humanStore
+                            && position.seeds(MancalaPosition.PROGRAM_MANCALA) <= programStore) {
+                        queue[tail++] = child;
+                    }
+                }
+            }
+        }
+        if (found < 0) {
+            pool.size.set(1);
+            pool.init(0, root.low, root.high, player, -1);
+            reusedNodes = 0;
+        } else if (found > 0) {
+            Pool target = spare;
+            reusedNodes = relocate(pool, found, target);
+            spare = pool;
+            active = target;
+        } else {
+            reusedNodes = size;
+        }
+    }
+
+    // Recopie en largeur le sous-arbre de node dans target (racine en 0, fils toujours contigus) ;
+    // renvoie le nombre de nœuds recopiés
+    private int relocate(Pool source, int node, Pool target) {
+        target.init(0, source.low[node], source.high[node], source.player[node], -1);
+        target.stats.set(0, source.stats.get(node));
+        int size = 1;
+        // La file est la réserve cible elle-même : le nœud i de target vient de origin[i] dans source
+        int[] origin = relocation;
+        origin[0] = node;
+        for (int i = 0; i < size; i++) {
+            int src = origin[i];
+            int first = source.firstChild.get(src);
+            int count = source.childCount[src];
+            if (first < 0 || count == 0) {
+                target.firstChild.set(i, first == TERMINAL ? TERMINAL : UNEXPANDED);
+                continue;
+            }
+            target.childCount[i] = (byte) count;
+            target.firstChild.set(i, size);
+            for (int c = 0; c < count; c++) {
+                int child = first + c;
+                target.init(size, source.low[child], source.high[child], source.player[child], source.move[child]);
+                target.stats.set(size, source.stats.get(child));
+                origin[size++] = child;
+            }
+        }
+        target.size.set(size);
+        return size;
+    }
+
+    private static int firstLegalMove(PackedPosition position, boolean player) {
+        int start = player ? 0 : 7;
+        for (int pit = start; pit < start + 6; pit++) {
+            if (position.seeds(pit) > 0) return pit;
+        }
+        return -1;
+    }
+
+    private boolean budgetExhausted() {
+        if (stopped) return true;
+        if ((playoutLimit > 0 && playouts.sum() >= playoutLimit)
+                || (deadline != 0 && System.nanoTime() >= deadline)
+                || (stopFlag != null && stopFlag.get())) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // Boucle de simulations d'un thread
+    private void simulate(SplittableRandom random) {
+        Pool pool = active;
+        int[] path = new int[MancalaEngine.MAX_PLY * 4];
+        PackedPosition position = new PackedPosition();
+        int deepest = 0;
+        int iterations = 0;
+        while ((iterations++ & 15) != 0 || !budgetExhausted()) {
+            int node = 0;
+            int length = 0;
+            path[length++] = 0;
+            pool.stats.getAndAdd(0, VISIT);
+            int diff; // Score final HUMAN - PROGRAM de la simulation
+            while (true) {
+                int first = pool.firstChild.get(node);
+                if (first >= 0) {
+                    node = select(pool, node, first);
+                    pool.stats.getAndAdd(node, VISIT); // Perte virtuelle jusqu'à la remontée du résultat
+                    path[length++] = node;
+                    continue;
+                }
+                position.low = pool.low[node];
+                position.high = pool.high[node];
+                if (first == UNEXPANDED && pool.size.get() <= pool.capacity() - 6
+                        && pool.firstChild.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+                    int child = expand(pool, node, position);
+                    if (child >= 0) {
+                        node = child;
+                        pool.stats.getAndAdd(node, VISIT);
+                        path[length++] = node;
+                        position.low = pool.low[node];
+                        position.high = pool.high[node];
+                    }
+                }
+                diff = playout(position, pool.player[node], random);
+                break;
+            }
+            deepest = Math.max(deepest, length - 1);
+            // Remontée : chaque nœud reçoit les demi-points du joueur qui a joué son coup
+            for (int i = 1; i < length; i++) {
+                boolean mover = pool.player[path[i - 1]];
+                int result = mover ? diff : -diff;
+                pool.stats.getAndAdd(path[i], result > 0 ? 2 : result == 0 ? 1 : 0);
+            }
+            playouts.increment();
+        }
+        maxDepth.accumulateAndGet(deepest, Math::max);
+    }
+
+    // Fils de plus grande valeur UCT (le premier fils jamais visité en priorité)
+    private int select(Pool pool, int node, int first) {
+        double logParent = Math.log(Math.max(1L, pool.stats.get(node) >>> 32));
+        int count = pool.childCount[node];
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + count; child++) {
+            long stats = pool.stats.get(child);
+            long visits = stats >>> 32;
+            if (visits == 0) {
+                return child;
+            }
+            double value = (stats & 0xFFFFFFFFL) / (2.0 * visits) + exploration * Math.sqrt(logParent / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Crée les fils d'un nœud (le thread a gagné le CAS) ; renvoie le premier, ou -1 pour une position
+    // finale ou une réserve pleine (le nœud reste alors une feuille)
+    private int expand(Pool pool, int node, PackedPosition position) {
+        if (position.isTerminal()) {
+            pool.firstChild.set(node, TERMINAL);
+            return -1;
+        }
+        boolean player = pool.player[node];
+        int start = player ? 0 : 7;
+        int count = 0;
+        for (int pit = start; pit < start + 6; pit++) {
+            if (position.seeds(pit) > 0) count++;
+        }
+        int first = pool.size.getAndAdd(count);
+        if (first + count > pool.capacity()) {
+            pool.firstChild.set(node, UNEXPANDED); // Réserve pleine : les simulations continuent depuis les feuilles
+            return -1;
+        }
+        long low = position.low;
+        long high = position.high;
+        int child = first;
+        for (int pit = start; pit < start + 6; pit++) {
+            if (position.seeds(pit) == 0) continue;
+            boolean extraTurn = position.play(pit, player);
+            pool.init(child++, position.low, position.high, extraTurn ? player : !player, pit);
+            position.low = low;
+            position.high = high;
+        }
+        pool.childCount[node] = (byte) count;
+        pool.firstChild.set(node, first); // Publication des fils (écriture volatile)
+        return first;
+    }
+
+    // Termine la partie depuis la position ; renvoie le score final HUMAN - PROGRAM
+    private int playout(PackedPosition position, boolean player, SplittableRandom random) {
+        while (!position.isTerminal()) {
+            int pit = playout == Playout.HEURISTIC && random.nextInt(5) != 0
+                    ? greedyMove(position, player) : randomMove(position, player, random);
+            if (!position.play(pit, player)) {
+                player = !player;
+            }
+        }
+        position.sweep();
+        return position.seeds(MancalaPosition.HUMAN_MANCALA) - position.seeds(MancalaPosition.PROGRAM_MANCALA);
+    }
+
+    private static int randomMove(PackedPosition position, boolean player, SplittableRandom random) {
+        int start = player ? 0 : 7;
+        int count = 0;
+        for (int pit = start; pit < start + 6; pit++) {
+            if (position.seeds(pit) > 0) count++;
+        }
+        int choice = random.nextInt(count);
+        for (int pit = start; ; pit++) {
+            if (position.seeds(pit) > 0 && choice-- == 0) return pit;
+        }
+    }
+
+    // Coup qui rapporte le plus de graines au Mancala du joueur, un tour supplémentaire comptant pour une
+    private static int greedyMove(PackedPosition position, boolean player) {
+        int start = player ? 0 : 7;
+        int mancala = player ? MancalaPosition.HUMAN_MANCALA : MancalaPosition.PROGRAM_MANCALA;
+        long low = position.low;
+        long high = position.high;
+        int before = position.seeds(mancala);
+        int best = -1;
+        int bestGain = -1;
+        for (int pit = start + 5; pit >= start; pit--) { // Les pits proches du Mancala d'abord
+            if (position.seeds(pit) == 0) continue;
+            boolean extraTurn = position.play(pit, player);
+            int gain = position.seeds(mancala) - before + (extraTurn ? 1 : 0);
+            position.low = low;
+            position.high = high;
+            if (gain > bestGain) {
+                bestGain = gain;
+                best = pit;
+            }
+        }
+        return best;
+    }
+}
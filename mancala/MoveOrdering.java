@@ -0,0 +1,153 @@
+package GameSearch.mancala;
+
+import java.util.Arrays;
+
+// Ordre des coups sans évaluation : après le coup de la table de transposition (placé en tête par la
+// recherche), les tours supplémentaires, les captures, les coups « killer » du ply puis la table
+// d'historique. Tout est indexé par pit, sans objet ni évaluation de position fille.
+// Une instance n'est pas partagée entre threads (une par moteur).
+public class MoveOrdering {
+    public static final int EXTRA_TURN = 1; // Le coup se termine dans le Mancala du joueur
+    public static final int CAPTURE = 2;    // Le coup se termine dans un pit vide du joueur
+
+    private static final int MAX_PLY = MancalaEngine.MAX_PLY;
+    private static final int EXTRA_TURN_RANK = 3 << 24;
+    private static final int CAPTURE_RANK = 2 << 24;
+    private static final int KILLER_RANK = 1 << 24;
+    private static final int HISTORY_MAX = KILLER_RANK - 1; // L'historique reste sous les killers
+
+    // Ordre des coups de la recherche
+    public enum Mode {
+        EVALUATION, // Historique : tri par évaluation de chaque position fille (Mancala.searchMoves)
+        HEURISTIC   // Tours supplémentaires, captures, killers et historique, sans évaluation
+    }
+
+    private Mode mode = Mode.HEURISTIC;
+    private final int[] killers = new int[MAX_PLY * 2]; // Deux coups killer par ply
+    private final int[] history = new int[2 * 14];      // Indexée par (joueur, pit)
+
+    // Statistiques : coupures beta, dont celles obtenues par le premier coup exploré
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    public MoveOrdering() {
+        Arrays.fill(killers, -1);
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // Début d'une recherche : les killers sont oubliés et l'historique est vieilli
+    public void newSearch() {
+        Arrays.fill(killers, -1);
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    // Oublie tout ce qui a été appris (killers, historique, statistiques) : la recherche suivante ne
+    // dépend plus des précédentes
+    public void clear() {
+        Arrays.fill(killers, -1);
+        Arrays.fill(history, 0);
+        resetStatistics();
+    }
+
+    // Nature du coup (EXTRA_TURN, CAPTURE) calculée sans le jouer, mêmes règles que Mancala.makeMove
+    public static int flags(int[] board, int pit, boolean player) {
+        int seeds = board[pit];
+        // Position sur le cycle de 13 pits parcouru par le joueur (le Mancala adverse est sauté)
+        int start = player ? pit : pit >= 7 ? pit - 7 : pit + 7;
+        int end = (start + seeds) % 13;
+        int last = player ? end : end < 7 ? end + 7 : end - 7;
+        if (last == (player ? MancalaPosition.HUMAN_MANCALA : MancalaPosition.PROGRAM_MANCALA)) {
+            return EXTRA_TURN;
+        }
+        boolean ownPit = player ? last <= 5 : last >= 7 && last <= 12;
+        // La dernière graine arrive seule dans le pit : pit vide sans tour complet, ou retour au pit de départ
+        if (ownPit && (seeds < 13 ? board[last] == 0 : seeds == 13)) {
+            return CAPTURE;
+        }
+        return 0;
+    }
+
+    // Rang d'un coup : plus il est grand, plus le coup est exploré tôt
+    public int rank(int ply, boolean player, int pit, int flags) {
+        if (pit < 0) return 0; // Coup inconnu
+        if ((flags & EXTRA_TURN) != 0) return EXTRA_TURN_RANK;
+        if ((flags & CAPTURE) != 0) return CAPTURE_RANK;
+        if (ply < MAX_PLY) {
+            if (killers[ply * 2] == pit) return KILLER_RANK + 1;
+            if (killers[ply * 2 + 1] == pit) return KILLER_RANK;
+        }
+        return history[(player ? 14 : 0) + pit];
+    }
+
+    // Tri par insertion (stable) des coups moves[from..from+count[ selon leur rang décroissant
+    public static void sort(int[] moves, int[] ranks, int from, int count) {
+        for (int i = from + 1; i < from + count; i++) {
+            int move = moves[i];
+            int rank = ranks[i];
+            int j = i;
+            while (j > from && ranks[j - 1] < rank) {
+                moves[j] = moves[j - 1];
+                ranks[j] = ranks[j - 1];
+                j--;
+            }
+            moves[j] = move;
+            ranks[j] = rank;
+        }
+    }
+
+    // Coupure beta provoquée par le coup d'indice index (0 = premier exploré) avec draft coups restants ;
+    // seuls les coups calmes (ni tour supplémentaire ni capture) alimentent les killers et l'historique
+    public void cutoff(int ply, boolean player, int pit, boolean quiet, int draft, int index) {
+        cutoffs++;
+        if (index == 0) {
+            firstMoveCutoffs++;
+        }
+        if (!quiet || pit < 0) {
+            return;
+        }
+        if (ply < MAX_PLY && killers[ply * 2] != pit) {
+            killers[ply * 2 + 1] = killers[ply * 2];
+            killers[ply * 2] = pit;
+        }
+        int slot = (player ? 14 : 0) + pit;
+        history[slot] += draft * draft;
+        if (history[slot] > HISTORY_MAX) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    // Proportion des coupures obtenues dès le premier coup (mesure de la qualité de l'ordre)
+    public double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    public void resetStatistics() {
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MoveOrdering[%s, cutoffs=%d, first-move=%.1f%%]",
+                mode, cutoffs, 100.0 * getFirstMoveCutoffRate());
+    }
+}
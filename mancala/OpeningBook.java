@@ -0,0 +1,271 @@
+package GameSearch.mancala;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Bibliothèque d'ouvertures : meilleur coup de chaque position atteignable dans les premiers coups de la
+// partie (à partir de la position initiale, tours supplémentaires compris), calculé une fois pour toutes
+// par une recherche profonde, et consulté par Mancala.alphaBeta avant toute recherche.
+//
+// Fichier : "MNCB", version, nombre de coups d'ouverture couverts, nombre d'entrées, puis les entrées
+// triées par clé : clé de la position (Zobrist xor joueur au trait, cf. TranspositionTable) et données
+// compactées (score, profondeur, coup). Le fichier est projeté en mémoire au chargement puis copié dans
+// deux tableaux : une consultation est une recherche dichotomique (quelques centaines de nanosecondes).
+//
+// Usage : OpeningBook build file [--plies n] [--engine spec] [--threads n]
+//         OpeningBook info file
+//         OpeningBook line file        (variation obtenue en suivant le livre depuis la position initiale)
+public final class OpeningBook {
+    public static final int MAGIC = 0x4D4E4342; // "MNCB"
+    public static final int VERSION = 1;
+    private static final int HEADER = 16;
+    public static final String DEFAULT_ENGINE = "book:difficulty=HARD,depth=14,time=0";
+
+    private final long[] keys;
+    private final long[] data;
+    private final int plies;
+
+    private OpeningBook(long[] keys, long[] data, int plies) {
+        this.keys = keys;
+        this.data = data;
+        this.plies = plies;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: OpeningBook build file [--plies n] [--engine spec] [--threads n]");
+            System.out.println("       OpeningBook info file");
+            System.out.println("       OpeningBook line file");
+            return;
+        }
+        Path file = Paths.get(args[1]);
+        switch (args[0]) {
+            case "build": {
+                int plies = 4;
+                String spec = DEFAULT_ENGINE;
+                int threads = Runtime.getRuntime().availableProcessors();
+                for (int i = 2; i < args.length; i++) {
+                    switch (args[i]) {
+                        case "--plies":
+                            plies = Integer.parseInt(args[++i]);
+                            break;
+                        case "--engine":
+                            spec = args[++i];
+                            break;
+                        case "--threads":
+                            threads = Integer.parseInt(args[++i]);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    }
+                }
+                EngineConfig config = EngineConfig.parse(spec);
+                System.out.println("Building " + plies + "-ply book with " + config + " on " + threads + " threads");
+                long start = System.nanoTime();
+                OpeningBook book = build(plies, config, threads);
+                book.write(file);
+                System.out.printf("%d positions in %.1f s%n", book.size(), (System.nanoTime() - start) / 1e9);
+                break;
+            }
+            case "info": {
+                OpeningBook book = load(file);
+                System.out.println(book.size() + " positions, " + book.plies + " plies, "
+                        + Files.size(file) + " bytes");
+                MancalaPosition start = new MancalaPosition();
+                long begin = System.nanoTime();
+                int probes = 1_000_000;
+                for (int i = 0; i < probes; i++) {
+                    book.probe(start, GameSearch.HUMAN);
+                }
+                System.out.printf("probe: %.0f ns%n", (System.nanoTime() - begin) / (double) probes);
+                break;
+            }
+            case "line": {
+                OpeningBook book = load(file);
+                Mancala rules = new Mancala(null);
+                MancalaPosition position = new MancalaPosition();
+                boolean player = GameSearch.HUMAN;
+                SearchResult entry;
+                while ((entry = book.probe(position, player)) != null) {
+                    System.out.println((player == GameSearch.HUMAN ? "HUMAN   " : "PROGRAM ") + entry);
+                    rules.makeMove(position, player, new MancalaMove(entry.bestMove));
+                    if (!position.extraTurn) {
+                        player = !player;
+                    }
+                }
+                rules.printPosition(position);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown command: " + args[0]);
+        }
+    }
+
+    // Livre indiqué par -Dmancala.book=fichier (null si la propriété est absente ou le fichier illisible)
+    public static OpeningBook openDefault() {
+        String file = System.getProperty("mancala.book");
+        if (file == null) {
+            return null;
+        }
+        try {
+            return load(Paths.get(file));
+        } catch (IOException e) {
+            System.err.println("Failed to load opening book: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public int getPlies() {
+        return plies;
+    }
+
+    // Coup du livre pour la position (null si elle n'y est pas) : meilleur pit, score du point de vue du
+    // joueur au trait et profondeur de la recherche qui l'a calculé
+    public SearchResult probe(MancalaPosition position, boolean player) {
+        long key = Zobrist.hash(position.board) ^ Zobrist.sideKey(player);
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return null;
+        }
+        long entry = data[index];
+        int move = (int) (entry >>> 40) & 0xF;
+        if (position.board[move] == 0 || (move < 7) != player) {
+            return null; // Collision de clés : le coup n'est pas jouable ici
+        }
+        return new SearchResult(move, Float.intBitsToFloat((int) entry), (int) (entry >>> 32) & 0xFF, 0);
+    }
+
+    // Positions non finales atteignables en au plus plies coups depuis la position initiale (un tour
+    // supplémentaire compte pour un coup), cherchées en parallèle par un SharedSearch commun
+    public static OpeningBook build(int plies, EngineConfig config, int threads) throws InterruptedException {
+        Map<Long, MancalaPosition> positions = new HashMap<>();
+        Map<Long, Boolean> players = new HashMap<>();
+        Mancala rules = new Mancala(null);
+        List<MancalaPosition> frontier = new ArrayList<>();
+        List<Boolean> sides = new ArrayList<>();
+        frontier.add(new MancalaPosition());
+        sides.add(GameSearch.HUMAN);
+        for (int ply = 0; ply <= plies && !frontier.isEmpty(); ply++) {
+            List<MancalaPosition> next = new ArrayList<>();
+            List<Boolean> nextSides = new ArrayList<>();
+            for (int i = 0; i < frontier.size(); i++) {
+                MancalaPosition position = frontier.get(i);
+                boolean player = sides.get(i);
+                long key = position.hash ^ Zobrist.sideKey(player);
+                if (rules.isTerminal(position) || positions.putIfAbsent(key, position) != null) {
+                    continue;
+                }
+                players.put(key, player);
+                if (ply == plies) {
+                    continue;
+                }
+                int start = player ? 0 : 7;
+                for (int pit = start; pit < start + 6; pit++) {
+                    if (position.board[pit] == 0) continue;
+                    MancalaPosition child = position.clone();
+                    rules.makeMove(child, player, new MancalaMove(pit));
+                    next.add(child);
+                    nextSides.add(child.extraTurn ? player : !player);
+                }
+            }
+            frontier = next;
+            sides = nextSides;
+        }
+
+        SharedSearch search = new SharedSearch(config);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long[] keys = new long[positions.size()];
+        List<Future<SearchResult>> results = new ArrayList<>();
+        int count = 0;
+        for (Map.Entry<Long, MancalaPosition> entry : positions.entrySet()) {
+            keys[count++] = entry.getKey();
+        }
+        Arrays.sort(keys);
+        for (long key : keys) {
+            MancalaPosition position = positions.get(key);
+            boolean player = players.get(key);
+            results.add(executor.submit(() -> search.search(position, player)));
+        }
+        long[] data = new long[keys.length];
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                SearchResult result = results.get(i).get();
+                data[i] = (Float.floatToIntBits(result.score) & 0xFFFFFFFFL)
+                        | ((long) Math.min(result.depth, 255) << 32)
+                        | ((long) result.bestMove << 40);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Book search failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new OpeningBook(keys, data, plies);
+    }
+
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + keys.length * 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(plies).putInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            buffer.putLong(keys[i]).putLong(data[i]);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public static OpeningBook load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt() != MAGIC) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            int version = map.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported opening book version " + version);
+            }
+            int plies = map.getInt();
+            int count = map.getInt();
+            if (count < 0 || channel.size() != HEADER + count * 16L) {
+                throw new IOException("Truncated opening book: " + file);
+            }
+            long[] keys = new long[count];
+            long[] data = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = map.getLong();
+                data[i] = map.getLong();
+                if (i > 0 && keys[i] <= keys[i - 1]) {
+                    throw new IOException("Corrupted opening book (unsorted keys): " + file);
+                }
+            }
+            return new OpeningBook(keys, data, plies);
+        }
+    }
+}
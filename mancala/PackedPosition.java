@@ -0,0 +1,198 @@
+package GameSearch.mancala;
+
+// Représentation compacte du plateau : 6 bits par pit, les pits 0 à 6 dans low et 7 à 13 dans high
+// Avec 48 graines aucun champ ne déborde, ce qui permet de semer par additions de masques
+// (un tour complet du plateau = un masque multiplié par le nombre de tours)
+public final class PackedPosition {
+    public static final int MAX_SEEDS = 48; // Graines au plus sur le plateau (aucun champ ne déborde)
+    private static final int BITS = 6;
+    private static final long FIELD = (1L << BITS) - 1;
+    private static final long SIDE_MASK = (1L << (BITS * 6)) - 1; // Les 6 pits d'un côté, sans le Mancala
+
+    // Masques d'ajout indexés par (joueur, pit de départ, graines de la dernière série), joueur 0 = PROGRAM
+    private static final long[] ADD_LOW = new long[2 * 14 * 13];
+    private static final long[] ADD_HIGH = new long[2 * 14 * 13];
+    // Un tour complet : tous les pits sauf le Mancala adverse
+    private static final long[] LAP_LOW = new long[2];
+    private static final long[] LAP_HIGH = new long[2];
+    // Pit atteint par la dernière graine, indexé par (joueur, pit de départ, graines - 1 modulo 13)
+    private static final int[] LAST = new int[2 * 14 * 13];
+
+    static {
+        for (int side = 0; side < 2; side++) {
+            int skipped = side == 1 ? MancalaPosition.PROGRAM_MANCALA : MancalaPosition.HUMAN_MANCALA;
+            for (int pit = 0; pit < 14; pit++) {
+                if (pit != skipped) {
+                    if (pit < 7) LAP_LOW[side] += 1L << (BITS * pit);
+                    else LAP_HIGH[side] += 1L << (BITS * (pit - 7));
+                }
+            }
+            for (int start = 0; start < 14; start++) {
+                long low = 0L;
+                long high = 0L;
+                int current = start;
+                for (int k = 1; k <= 13; k++) {
+                    do {
+                        current = current == 13 ? 0 : current + 1;
+                    } while (current == skipped);
+                    int index = (side * 14 + start) * 13;
+                    LAST[index + k - 1] = current;
+                    if (k < 13) {
+                        if (current < 7) low += 1L << (BITS * current);
+                        else high += 1L << (BITS * (current - 7));
+                        ADD_LOW[index + k] = low;
+                        ADD_HIGH[index + k] = high;
+                    }
+                }
+            }
+        }
+    }
+
+    public long low;  // Pits 0 à 6 (dont le Mancala HUMAN)
+    public long high; // Pits 7 à 13 (dont le Mancala PROGRAM)
+
+    public PackedPosition() {
+    }
+
+    public PackedPosition(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    // Conversion depuis la représentation utilisée par l'interface et les sauvegardes
+    public static PackedPosition of(MancalaPosition position) {
+        return of(position.board);
+    }
+
+    // Vérifie qu'un plateau saisi (14 pits) est représentable : aucun pit négatif, au plus MAX_SEEDS graines
+    public static void checkBoard(int[] board) {
+        int total = 0;
+        for (int pit = 0; pit < board.length; pit++) {
+            if (board[pit] < 0) {
+                throw new IllegalArgumentException("Negative seed count in pit " + pit + ": " + board[pit]);
+            }
+            total += board[pit];
+        }
+        if (total > MAX_SEEDS) {
+            throw new IllegalArgumentException("A board holds at most " + MAX_SEEDS + " seeds, not " + total);
+        }
+    }
+
+    public static PackedPosition of(int[] board) {
+        long low = 0L;
+        long high = 0L;
+        for (int pit = 0; pit < 7; pit++) {
+            low |= (long) board[pit] << (BITS * pit);
+            high |= (long) board[pit + 7] << (BITS * pit);
+        }
+        return new PackedPosition(low, high);
+    }
+
+    // Conversion vers MancalaPosition (clé de Zobrist comprise)
+    public MancalaPosition toPosition() {
+        MancalaPosition position = new MancalaPosition();
+        copyTo(position.board);
+        position.hash = Zobrist.hash(position.board);
+        return position;
+    }
+
+    public void copyTo(int[] board) {
+        for (int pit = 0; pit < 7; pit++) {
+            board[pit] = (int) (low >>> (BITS * pit)) & (int) FIELD;
+            board[pit + 7] = (int) (high >>> (BITS * pit)) & (int) FIELD;
+        }
+    }
+
+    public void set(PackedPosition other) {
+        low = other.low;
+        high = other.high;
+    }
+
+    public PackedPosition copy() {
+        return new PackedPosition(low, high);
+    }
+
+    // Nombre de graines d'un pit
+    public int seeds(int pit) {
+        return pit < 7 ? (int) (low >>> (BITS * pit)) & (int) FIELD
+                : (int) (high >>> (BITS * (pit - 7))) & (int) FIELD;
+    }
+
+    private void clear(int pit) {
+        if (pit < 7) low &= ~(FIELD << (BITS * pit));
+        else high &= ~(FIELD << (BITS * (pit - 7)));
+    }
+
+    private void add(int pit, int seeds) {
+        if (pit < 7) low += (long) seeds << (BITS * pit);
+        else high += (long) seeds << (BITS * (pit - 7));
+    }
+
+    // Joue le pit donné (mêmes règles que Mancala.makeMove) ; renvoie true si le joueur rejoue
+    public boolean play(int pit, boolean player) {
+        int side = player ? 1 : 0;
+        int seeds = seeds(pit);
+        if (seeds <= 0) {
+            throw new IllegalArgumentException("Invalid move: The selected pit is empty.");
+        }
+        clear(pit);
+        int index = (side * 14 + pit) * 13;
+        int laps = seeds / 13; // Tours complets du plateau
+        int rest = seeds % 13; // Graines de la dernière série
+        low += laps * LAP_LOW[side] + ADD_LOW[index + rest];
+        high += laps * LAP_HIGH[side] + ADD_HIGH[index + rest];
+        int last = LAST[index + (seeds - 1) % 13];
+
+        // Capture si la dernière graine tombe dans un pit vide du joueur
+        if ((player ? last <= 5 : last >= 7 && last <= 12) && seeds(last) == 1) {
+            int opposite = 12 - last;
+            int captured = seeds(opposite) + 1;
+            clear(opposite);
+            clear(last);
+            add(player ? MancalaPosition.HUMAN_MANCALA : MancalaPosition.PROGRAM_MANCALA, captured);
+        }
+        return last == (player ? MancalaPosition.HUMAN_MANCALA : MancalaPosition.PROGRAM_MANCALA);
+    }
+
+    // Graines restantes sur les pits d'un joueur (somme des 6 champs par une seule multiplication)
+    public int sideSeeds(boolean player) {
+        long side = (player ? low : high) & SIDE_MASK;
+        return (int) ((side * 0x41041041L) >>> (BITS * 5)) & (int) FIELD;
+    }
+
+    // La partie est terminée quand l'un des deux côtés est vide
+    public boolean isTerminal() {
+        return (low & SIDE_MASK) == 0 || (high & SIDE_MASK) == 0;
+    }
+
+    // Ramassage de fin de partie : chaque côté est versé dans son Mancala
+    public void sweep() {
+        int human = sideSeeds(true);
+        int program = sideSeeds(false);
+        low = (low & ~SIDE_MASK) + ((long) human << (BITS * 6));
+        high = (high & ~SIDE_MASK) + ((long) program << (BITS * 6));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PackedPosition)) return false;
+        PackedPosition other = (PackedPosition) o;
+        return low == other.low && high == other.high;
+    }
+
+    @Override
+    public int hashCode() {
+        long mixed = low * 0x9E3779B97F4A7C15L ^ high;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        int[] board = new int[14];
+        copyTo(board);
+        MancalaPosition position = new MancalaPosition();
+        position.board = board;
+        return position.toString();
+    }
+}
@@ -0,0 +1,348 @@
+package GameSearch.mancala;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Recherche parallèle à la racine : chaque coup de la racine est exploré par une tâche d'un ForkJoinPool,
+// avec un MancalaEngine par thread et une table de transposition partagée (sans verrou, cf. TranspositionTable).
+//
+// Équivalence avec la recherche séquentielle : chaque coup est exploré avec la fenêtre (meilleur score
+// connu, +inf), abaissée juste sous ce score pour les coups qui précèdent le meilleur dans l'ordre
+// séquentiel. Le coup retenu est donc, comme avec MancalaEngine.search, le premier coup (dans cet ordre)
+// qui atteint le score maximal. Sans table de transposition, le score et le coup sont identiques à ceux
+// de la recherche séquentielle à profondeur fixe ; avec la table partagée, le score est celui d'une
+// recherche au moins aussi profonde et le coup peut différer entre deux coups de même valeur minimax.
+//
+// La limite de nœuds est un budget partagé : chaque tâche en réserve une part avant de chercher (le reste
+// divisé par le nombre de threads), son moteur s'arrête en l'atteignant et elle rend ce qu'elle n'a pas
+// consommé. Une itération ne dépasse donc la limite que du pas de vérification des moteurs (1024 nœuds).
+public class ParallelSearch implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private final boolean ownsPool; // Pool créé par le constructeur, arrêté par close
+    private final TranspositionTable transpositionTable;
+    private final ThreadLocal<MancalaEngine> engines = ThreadLocal.withInitial(MancalaEngine::new);
+
+    // État partagé de la racine en cours (protégé par this)
+    private float bestValue;
+    private int bestIndex;
+    private int rootMove;
+    private volatile boolean aborted;
+    private MancalaEngine.ExtraTurnMode extraTurnMode = MancalaEngine.ExtraTurnMode.SAME_SIDE;
+    private MoveOrdering.Mode orderingMode = MoveOrdering.Mode.HEURISTIC;
+    private GameSearch.Algorithm algorithm = GameSearch.Algorithm.PVS;
+    private EndgameDatabase endgameDatabase;
+    private EvaluationWeights evaluationWeights = EvaluationWeights.DEFAULT;
+    private int quiescenceDepth;
+    private SearchMetrics metrics; // Mesures fusionnées des moteurs (null = désactivées)
+    private AtomicBoolean stopFlag; // Arrêt demandé de l'extérieur (null = aucun)
+    private SearchListener listener;
+    private final ThreadLocal<SearchMetrics> workerMetrics = ThreadLocal.withInitial(SearchMetrics::new);
+    private final LongAdder nodes = new LongAdder();
+    private final AtomicLong nodeBudget = new AtomicLong(); // Nœuds non réservés de l'itération
+    private volatile boolean limitNodes;
+
+    private int bestMove = -1;
+    private long nodeCount;
+    private int completedDepth;
+
+    // Le pool reste à l'appelant, qui l'arrête lui-même
+    public ParallelSearch(ForkJoinPool pool, TranspositionTable transpositionTable) {
+        this(pool, transpositionTable, false);
+    }
+
+    // Crée un pool dédié de la taille donnée, arrêté par close
+    public ParallelSearch(int threads, TranspositionTable transpositionTable) {
+        this(new ForkJoinPool(threads), transpositionTable, true);
+    }
+
+    // Idem avec une table de transposition par défaut
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(Mancala.DEFAULT_TABLE_BITS));
+    }
+
+    private ParallelSearch(ForkJoinPool pool, TranspositionTable transpositionTable, boolean ownsPool) {
+        this.pool = pool;
+        this.transpositionTable = transpositionTable;
+        this.ownsPool = ownsPool;
+    }
+
+    public void setExtraTurnMode(MancalaEngine.ExtraTurnMode extraTurnMode) {
+        this.extraTurnMode = extraTurnMode;
+    }
+
+    // Ordre des coups des moteurs de chaque thread (chacun a ses propres killers et historique)
+    public void setOrderingMode(MoveOrdering.Mode orderingMode) {
+        this.orderingMode = orderingMode;
+    }
+
+    // Algorithme des sous-arbres (la racine garde sa propre fenêtre, sans aspiration)
+    public void setAlgorithm(GameSearch.Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    // Base de finales partagée par les moteurs (lecture seule)
+    public void setEvaluationWeights(EvaluationWeights evaluationWeights) {
+        this.evaluationWeights = evaluationWeights;
+    }
+
+    // Quiescence des sous-arbres (cf. MancalaEngine.setQuiescenceDepth)
+    public void setQuiescenceDepth(int quiescenceDepth) {
+        this.quiescenceDepth = quiescenceDepth;
+    }
+
+    public void setEndgameDatabase(EndgameDatabase endgameDatabase) {
+        this.endgameDatabase = endgameDatabase;
+    }
+
+    // Collecteur des mesures : chaque moteur mesure son sous-arbre, fusionné ensuite sous le ply de la racine
+    public void setSearchMetrics(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Drapeau d'arrêt partagé par les moteurs (cf. MancalaEngine.setStopFlag)
+    public void setStopFlag(AtomicBoolean stopFlag) {
+        this.stopFlag = stopFlag;
+    }
+
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    // Arrête le pool s'il a été créé par le constructeur (les recherches en cours se terminent)
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // Recherche à profondeur fixe (mêmes conventions que MancalaEngine.search)
+    public float search(MancalaPosition root, boolean player, int depth, int maxDepth) {
+        if (transpositionTable != null) {
+            transpositionTable.newSearch();
+        }
+        limitNodes = false;
+        float score = searchRoot(root, player, depth, maxDepth, 0L, false);
+        bestMove = rootMove;
+        nodeCount = nodes.sum();
+        completedDepth = maxDepth - depth;
+        return score;
+    }
+
+    // Approfondissement itératif parallèle : chaque itération est une recherche parallèle à la racine ;
+    // la table partagée transmet l'ordre des coups d'une itération à l'autre
+    public float searchIterative(MancalaPosition root, boolean player, int depth, SearchLimits limits) {
+        long deadline = limits.timeMillis > 0 ? System.nanoTime() + limits.timeMillis * 1_000_000L : 0L;
+        if (transpositionTable != null) {
+            transpositionTable.newSearch();
+        }
+        float score = 0.0f;
+        long total = 0;
+        bestMove = -1;
+        completedDepth = 0;
+        for (int iteration = 1; iteration <= limits.maxDepth; iteration++) {
+            // Comme en séquentiel, la première itération est toujours menée à terme
+            limitNodes = iteration > 1 && limits.maxNodes > 0;
+            nodeBudget.set(limits.maxNodes - total);
+            float value = searchRoot(root, player, depth, depth + iteration, iteration > 1 ? deadline : 0L,
+                    iteration > 1);
+            total += nodes.sum();
+            if (aborted) {
+                break;
+            }
+            score = value;
+            bestMove = rootMove;
+            completedDepth = iteration;
+            if (metrics != null) {
+                metrics.iteration(iteration, total);
+            }
+            if (listener != null) {
+                listener.iterationCompleted(iteration, bestMove, score, total);
+            }
+            if ((deadline != 0L && System.nanoTime() >= deadline)
+                    || (limits.maxNodes > 0 && total >= limits.maxNodes)
+                    || (stopFlag != null && stopFlag.get())) {
+                break;
+            }
+        }
+        nodeCount = total;
+        return score;
+    }
+
+    private float searchRoot(MancalaPosition root, boolean player, int depth, int maxDepth, long deadline,
+                             boolean stoppable) {
+        MancalaEngine engine = engines.get();
+        engine.setTranspositionTable(transpositionTable);
+        engine.setExtraTurnMode(extraTurnMode);
+        engine.getMoveOrdering().setMode(orderingMode);
+        engine.setPosition(root);
+        int[] moves = engine.rootMoves(player);
+
+        nodes.reset();
+        nodes.increment(); // Le nœud racine
+        if (metrics != null) {
+            metrics.node(0);
+        }
+        aborted = false;
+        synchronized (this) {
+            bestValue = Float.NEGATIVE_INFINITY;
+            bestIndex = moves.length;
+        }
+        if (moves.length == 0) {
+            rootMove = -1;
+            float eval = Mancala.evaluate(root.board, evaluationWeights);
+            return player ? -eval : eval;
+        }
+
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int i = 0; i < moves.length; i++) {
+            tasks.add(new RootMoveTask(root.board, player, moves[i], i, depth, maxDepth, deadline, stoppable));
+        }
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        synchronized (this) {
+            rootMove = bestIndex < moves.length ? moves[bestIndex] : -1; // -1 si interrompue
+            return bestValue;
+        }
+    }
+
+    // Borne alpha utilisée pour le coup d'indice index (voir le commentaire de la classe)
+    private synchronized float alphaFor(int index) {
+        return index < bestIndex ? Math.nextDown(bestValue) : bestValue;
+    }
+
+    private synchronized void report(int index, float value, float alpha) {
+        if (value > alpha && (value > bestValue || (value == bestValue && index < bestIndex))) {
+            bestValue = value;
+            bestIndex = index;
+        }
+    }
+
+    // Réserve une part du budget de nœuds (0 si épuisé)
+    private long reserveNodes() {
+        while (true) {
+            long available = nodeBudget.get();
+            if (available <= 0) {
+                return 0L;
+            }
+            long share = Math.max(available / pool.getParallelism(), Math.min(available, 1024L));
+            if (nodeBudget.compareAndSet(available, available - share)) {
+                return share;
+            }
+        }
+    }
+
+    // Exploration d'un coup de la racine par le moteur du thread courant
+    private class RootMoveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] rootBoard;
+        private final boolean player;
+        private final int pit;
+        private final int index;
+        private final int depth;
+        private final int maxDepth;
+        private final long deadline;
+        private final boolean stoppable; // Le drapeau d'arrêt peut interrompre la tâche
+
+        RootMoveTask(int[] rootBoard, boolean player, int pit, int index, int depth, int maxDepth, long deadline,
+                     boolean stoppable) {
+            this.rootBoard = rootBoard;
+            this.player = player;
+            this.pit = pit;
+            this.index = index;
+            this.depth = depth;
+            this.maxDepth = maxDepth;
+            this.deadline = deadline;
+            this.stoppable = stoppable;
+        }
+
+        @Override
+        protected void compute() {
+            if (aborted) {
+                return;
+            }
+            long nodeLimit = 0L;
+            if (limitNodes) {
+                nodeLimit = reserveNodes();
+                if (nodeLimit == 0L) {
+                    aborted = true;
+                    return;
+                }
+            }
+            PackedPosition child = PackedPosition.of(rootBoard);
+            boolean extraTurn = child.play(pit, player);
+            int[] board = new int[14];
+            child.copyTo(board);
+
+            MancalaEngine engine = engines.get();
+            engine.setTranspositionTable(transpositionTable);
+            engine.setExtraTurnMode(extraTurnMode);
+            engine.getMoveOrdering().setMode(orderingMode);
+            engine.setAlgorithm(algorithm);
+            engine.setEndgameDatabase(endgameDatabase);
+            engine.setEvaluationWeights(evaluationWeights);
+            engine.setQuiescenceDepth(quiescenceDepth);
+            SearchMetrics local = null;
+            if (metrics != null) {
+                local = workerMetrics.get();
+                local.clear();
+            }
+            engine.setSearchMetrics(local);
+            engine.setStopFlag(stoppable ? stopFlag : null);
+            engine.setPosition(board);
+            float alpha = alphaFor(index);
+            float value;
+            if (extraTurn && extraTurnMode != MancalaEngine.ExtraTurnMode.ALTERNATE) {
+                // Tour supplémentaire : le même joueur rejoue, sans négation
+                int childDepth = extraTurnMode == MancalaEngine.ExtraTurnMode.MACRO ? depth : depth + 1;
+                value = engine.searchWindow(childDepth, maxDepth, player, alpha, Float.POSITIVE_INFINITY, deadline,
+                        nodeLimit);
+            } else {
+                value = -engine.searchWindow(depth + 1, maxDepth, !player,
+                        Float.NEGATIVE_INFINITY, -alpha, deadline, nodeLimit);
+            }
+            nodes.add(engine.getNodeCount());
+            if (nodeLimit != 0L) {
+                nodeBudget.addAndGet(nodeLimit - engine.getNodeCount()); // Rend la part non consommée
+            }
+            if (local != null) {
+                synchronized (metrics) {
+                    metrics.merge(local, 1);
+                }
+            }
+            if (engine.wasAborted()) {
+                aborted = true;
+                return;
+            }
+            report(index, value, alpha);
+        }
+    }
+}
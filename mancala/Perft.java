@@ -0,0 +1,303 @@
+package GameSearch.mancala;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Énumération de l'arbre de jeu (perft) : nombre de feuilles atteintes en depth coups depuis une position.
+// Chaque coup compte pour un ply, y compris celui qui donne un tour supplémentaire (le même joueur
+// rejoue alors au ply suivant). Une partie terminée avant depth compte pour une feuille.
+//
+// Le comptage rapide utilise PackedPosition sur un ForkJoinPool (vol de tâches), avec en option un
+// cache des sous-arbres ; --verify le compare au comptage de référence par Mancala.makeMove.
+// Usage : Perft depth [--divide] [--verify] [--threads n] [--cache bits] [--player human|program]
+//               [--board p0,p1,...,p13]
+public class Perft {
+    private static final int SPLIT_DEPTH = 6; // Sous-arbres plus petits explorés séquentiellement
+    private static final int CACHE_DEPTH = 4; // Les petits sous-arbres coûtent moins cher à recompter qu'à mettre en cache
+
+    private final ForkJoinPool pool;
+    private final AtomicReferenceArray<CacheEntry> cache; // null = pas de cache
+    private final int cacheMask;
+    private final LongAdder nodes = new LongAdder();
+
+    // Entrée immuable du cache : la position complète sert de clé (pas de collision possible)
+    private static final class CacheEntry {
+        final long low;
+        final long high;
+        final int depthAndPlayer;
+        final long count;
+
+        CacheEntry(long low, long high, int depthAndPlayer, long count) {
+            this.low = low;
+            this.high = high;
+            this.depthAndPlayer = depthAndPlayer;
+            this.count = count;
+        }
+    }
+
+    public Perft(ForkJoinPool pool, int cacheBits) {
+        this.pool = pool;
+        if (cacheBits > 0) {
+            if (cacheBits > 30) {
+                throw new IllegalArgumentException("Invalid cache size: 2^" + cacheBits);
+            }
+            cache = new AtomicReferenceArray<>(1 << cacheBits);
+            cacheMask = (1 << cacheBits) - 1;
+        } else {
+            cache = null;
+            cacheMask = 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: Perft depth [--divide] [--verify] [--threads n] [--cache bits]"
+                    + " [--player human|program] [--board p0,p1,...,p13]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        boolean divide = false;
+        boolean verify = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int cacheBits = 0;
+        boolean player = GameSearch.HUMAN;
+        MancalaPosition root = new MancalaPosition();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--divide":
+                    divide = true;
+                    break;
+                case "--verify":
+                    verify = true;
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--cache":
+                    cacheBits = Integer.parseInt(args[++i]);
+                    break;
+                case "--player":
+                    player = args[++i].equalsIgnoreCase("human");
+                    break;
+                case "--board":
+                    String[] pits = args[++i].split(",");
+                    if (pits.length != 14) {
+                        throw new IllegalArgumentException("A board has 14 pits");
+                    }
+                    for (int pit = 0; pit < 14; pit++) {
+                        root.board[pit] = Integer.parseInt(pits[pit].trim());
+                    }
+                    PackedPosition.checkBoard(root.board);
+                    root.hash = Zobrist.hash(root.board);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Perft perft = new Perft(new ForkJoinPool(threads), cacheBits);
+        long start = System.nanoTime();
+        long[] counts = perft.divide(root, player, depth);
+        long time = System.nanoTime() - start;
+        long total = 0;
+        for (int pit = 0; pit < 14; pit++) {
+            if (counts[pit] < 0) continue;
+            total += counts[pit];
+            if (divide) {
+                System.out.printf("pit %2d: %d%n", pit, counts[pit]);
+            }
+        }
+        if (counts[14] > 0) {
+            total = counts[14]; // Racine terminale ou depth = 0
+        }
+        System.out.printf("depth %d: %d leaves, %d nodes in %.1f ms (%.0f nodes/s, %d threads%s)%n",
+                depth, total, perft.getNodeCount(), time / 1e6, perft.getNodeCount() / (time / 1e9),
+                threads, cacheBits > 0 ? ", cache 2^" + cacheBits : "");
+        perft.pool.shutdown();
+
+        if (verify) {
+            Mancala game = new Mancala(null);
+            start = System.nanoTime();
+            boolean same = true;
+            long referenceTotal = 0;
+            for (int pit = 0; pit < 14; pit++) {
+                if (counts[pit] < 0) continue;
+                MancalaPosition child = root.clone();
+                game.makeMove(child, player, new MancalaMove(pit));
+                long reference = reference(game, child, child.extraTurn ? player : !player, depth - 1);
+                referenceTotal += reference;
+                if (reference != counts[pit]) {
+                    same = false;
+                    System.out.printf("pit %2d: %d with Mancala.makeMove%n", pit, reference);
+                }
+            }
+            if (counts[14] > 0) {
+                referenceTotal = reference(game, root.clone(), player, depth);
+                same = referenceTotal == counts[14];
+            }
+            time = System.nanoTime() - start;
+            System.out.printf("reference: %d leaves in %.1f ms -> %s%n", referenceTotal, time / 1e6,
+                    same ? "OK" : "MISMATCH");
+        }
+    }
+
+    // Feuilles par pit joué à la racine (-1 pour un pit injouable) ; l'indice 14 contient le total
+    // lorsque la racine est elle-même une feuille (partie terminée ou depth = 0)
+    public long[] divide(MancalaPosition root, boolean player, int depth) {
+        long[] counts = new long[15];
+        java.util.Arrays.fill(counts, 0, 14, -1L);
+        nodes.reset();
+        PackedPosition position = PackedPosition.of(root);
+        if (depth == 0 || position.isTerminal()) {
+            nodes.increment();
+            counts[14] = 1;
+            return counts;
+        }
+        nodes.increment();
+        int start = player ? 0 : 7;
+        PerftTask[] tasks = new PerftTask[14];
+        for (int pit = start; pit < start + 6; pit++) {
+            if (position.seeds(pit) == 0) continue;
+            PackedPosition child = position.copy();
+            boolean next = child.play(pit, player) ? player : !player;
+            tasks[pit] = new PerftTask(child.low, child.high, next, depth - 1);
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected Void compute() {
+                for (PerftTask task : tasks) {
+                    if (task != null) task.fork();
+                }
+                for (int pit = 0; pit < 14; pit++) {
+                    if (tasks[pit] != null) counts[pit] = tasks[pit].join();
+                }
+                return null;
+            }
+        });
+        return counts;
+    }
+
+    // Nombre total de feuilles
+    public long count(MancalaPosition root, boolean player, int depth) {
+        long[] counts = divide(root, player, depth);
+        if (counts[14] > 0) {
+            return counts[14];
+        }
+        long total = 0;
+        for (int pit = 0; pit < 14; pit++) {
+            if (counts[pit] > 0) total += counts[pit];
+        }
+        return total;
+    }
+
+    // Nœuds visités par le dernier comptage (les sous-arbres trouvés dans le cache ne sont pas revisités)
+    public long getNodeCount() {
+        return nodes.sum();
+    }
+
+    private class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long low;
+        private final long high;
+        private final boolean player;
+        private final int depth;
+
+        PerftTask(long low, long high, boolean player, int depth) {
+            this.low = low;
+            this.high = high;
+            this.player = player;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            PackedPosition position = new PackedPosition(low, high);
+            if (depth <= SPLIT_DEPTH || position.isTerminal()) {
+                long[] visited = new long[1];
+                long leaves = perft(position, player, depth, visited);
+                nodes.add(visited[0]);
+                return leaves;
+            }
+            nodes.increment();
+            int start = player ? 0 : 7;
+            PerftTask[] children = new PerftTask[6];
+            for (int pit = start; pit < start + 6; pit++) {
+                if (position.seeds(pit) == 0) continue;
+                PackedPosition child = position.copy();
+                boolean next = child.play(pit, player) ? player : !player;
+                children[pit - start] = new PerftTask(child.low, child.high, next, depth - 1);
+                children[pit - start].fork();
+            }
+            long leaves = 0;
+            for (PerftTask child : children) {
+                if (child != null) leaves += child.join();
+            }
+            return leaves;
+        }
+    }
+
+    // Comptage séquentiel (visited[0] reçoit le nombre de nœuds visités)
+    private long perft(PackedPosition position, boolean player, int depth, long[] visited) {
+        visited[0]++;
+        if (depth == 0 || position.isTerminal()) {
+            return 1;
+        }
+        int slot = 0;
+        int depthAndPlayer = depth << 1 | (player ? 1 : 0);
+        if (cache != null && depth >= CACHE_DEPTH) {
+            long mixed = (position.low * 0x9E3779B97F4A7C15L ^ position.high) * 0xC2B2AE3D27D4EB4FL + depthAndPlayer;
+            slot = (int) (mixed ^ (mixed >>> 32)) & cacheMask;
+            CacheEntry entry = cache.get(slot);
+            if (entry != null && entry.low == position.low && entry.high == position.high
+                    && entry.depthAndPlayer == depthAndPlayer) {
+                return entry.count;
+            }
+        }
+        long leaves = 0;
+        long low = position.low;
+        long high = position.high;
+        int start = player ? 0 : 7;
+        for (int pit = start; pit < start + 6; pit++) {
+            if (position.seeds(pit) == 0) continue;
+            boolean next = position.play(pit, player) ? player : !player;
+            leaves += perft(position, next, depth - 1, visited);
+            position.low = low;
+            position.high = high;
+        }
+        if (cache != null && depth >= CACHE_DEPTH) {
+            cache.set(slot, new CacheEntry(low, high, depthAndPlayer, leaves));
+        }
+        return leaves;
+    }
+
+    // Comptage de référence par Mancala.makeMove sur des copies de positions
+    static long reference(Mancala game, MancalaPosition position, boolean player, int depth) {
+        if (depth == 0 || isTerminal(position)) {
+            return 1;
+        }
+        long leaves = 0;
+        int start = player ? 0 : 7;
+        for (int pit = start; pit < start + 6; pit++) {
+            if (position.board[pit] == 0) continue;
+            MancalaPosition child = position.clone();
+            game.makeMove(child, player, new MancalaMove(pit));
+            leaves += reference(game, child, child.extraTurn ? player : !player, depth - 1);
+        }
+        return leaves;
+    }
+
+    private static boolean isTerminal(MancalaPosition position) {
+        int human = 0;
+        int program = 0;
+        for (int pit = 0; pit < 6; pit++) {
+            human += position.board[pit];
+            program += position.board[7 + pit];
+        }
+        return human == 0 || program == 0;
+    }
+}
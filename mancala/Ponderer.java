@@ -0,0 +1,189 @@
+package GameSearch.mancala;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Réflexion pendant le temps de l'adversaire : pendant que l'humain réfléchit, un thread de fond cherche
+// d'abord le meilleur coup de l'humain (l'aide), puis la réponse du programme à chacun de ses coups
+// possibles, en commençant par le coup conseillé. Les recherches utilisent la même table de transposition
+// que la partie : lorsqu'une position n'a pas été entièrement traitée, la recherche normale repart d'une
+// table déjà remplie. Mancala.alphaBeta consulte les résultats avant de chercher (cf. Mancala.setPonderer).
+// start et stop ne font que lever un drapeau et soumettre la tâche suivante : appelés depuis l'EDT, ils
+// n'attendent jamais le thread de fond, dont l'exécuteur (un seul thread) termine l'ancienne réflexion
+// avant de commencer la nouvelle.
+public class Ponderer {
+    private final Mancala game;
+    // Moteur du thread de fond (mêmes réglages que game, qui lui prête sa table au lancement)
+    private final Mancala searcher = new Mancala(null);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "mancala-ponder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Champs protégés par le moniteur de l'objet
+    private Map<Key, SearchResult> results = new ConcurrentHashMap<>(); // Une table par réflexion
+    private Future<?> pondering;
+    private AtomicBoolean stopFlag;
+    private Key root;    // Position de la réflexion lancée par start
+    private Key current; // Recherche en cours sur le thread de fond
+
+    // Position et joueur au trait
+    private static final class Key {
+        private final int[] board;
+        private final boolean player;
+
+        Key(MancalaPosition position, boolean player) {
+            this.board = position.board.clone();
+            this.player = player;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return player == other.player && Arrays.equals(board, other.board);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(board) + (player ? 1 : 0);
+        }
+    }
+
+    public Ponderer(Mancala game) {
+        this.game = game;
+    }
+
+    // Lance la réflexion sur une position où l'humain (player) est au trait ; la réflexion précédente
+    // est arrêtée et ses résultats oubliés (sauf s'il s'agit déjà de cette position). Ne bloque pas
+    public synchronized void start(MancalaPosition position, boolean player) {
+        Key key = new Key(position, player);
+        if (pondering != null && key.equals(root)) {
+            return;
+        }
+        stop();
+        Map<Key, SearchResult> found = new ConcurrentHashMap<>();
+        results = found; // L'ancienne tâche, si elle finit plus tard, écrit dans sa propre table
+        root = key;
+        // Réglages lus ici, appliqués par le thread de fond une fois l'ancienne réflexion terminée
+        Mancala.Difficulty difficulty = game.getDifficulty();
+        SearchLimits limits = game.getSearchLimits();
+        TranspositionTable table = game.getTranspositionTable();
+        EndgameDatabase database = game.getEndgameDatabase();
+        GameSearch.Algorithm algorithm = game.getAlgorithm();
+        EvaluationWeights weights = game.getEvaluationWeights();
+        int quiescenceDepth = game.getQuiescenceDepth();
+        MoveOrdering.Mode ordering = game.getMoveOrdering().getMode();
+        MancalaPosition start = position.clone();
+        AtomicBoolean stop = new AtomicBoolean();
+        stopFlag = stop;
+        pondering = executor.submit(() -> {
+            searcher.setDifficulty(difficulty);
+            searcher.setSearchLimits(limits);
+            searcher.setTranspositionTable(table);
+            searcher.setEndgameDatabase(database);
+            searcher.setAlgorithm(algorithm);
+            searcher.setEvaluationWeights(weights);
+            searcher.setQuiescenceDepth(quiescenceDepth);
+            searcher.getMoveOrdering().setMode(ordering);
+            try {
+                ponder(start, player, stop, found);
+            } catch (RuntimeException e) {
+                System.err.println("Pondering failed: " + e);
+            }
+        });
+    }
+
+    // Arrête la réflexion sans attendre le thread de fond : une tâche pas encore commencée est annulée,
+    // la recherche en cours s'arrête à son prochain contrôle du drapeau
+    public synchronized void stop() {
+        if (pondering == null) {
+            return;
+        }
+        stopFlag.set(true);
+        pondering.cancel(false);
+        pondering = null;
+        stopFlag = null;
+    }
+
+    // Résultat de la réflexion pour cette position (null si elle n'a pas été entièrement cherchée).
+    // Si c'est la position en cours de recherche, attend la fin de cette recherche plutôt que de
+    // l'interrompre. La réflexion est ensuite arrêtée pour laisser la machine à la recherche normale,
+    // sauf pour l'aide (position de départ de la réflexion) : l'humain n'a pas encore joué
+    public synchronized SearchResult take(MancalaPosition position, boolean player) {
+        Key key = new Key(position, player);
+        while (key.equals(current) && !results.containsKey(key)) {
+            try {
+                wait(); // Libère le moniteur : start et stop restent possibles pendant l'attente
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        SearchResult result = results.get(key);
+        if (result == null || !key.equals(root)) {
+            stop();
+        }
+        return result;
+    }
+
+    // Résultat déjà disponible, sans attendre ni arrêter la réflexion
+    public synchronized SearchResult peek(MancalaPosition position, boolean player) {
+        return results.get(new Key(position, player));
+    }
+
+    public void shutdown() {
+        stop();
+        executor.shutdown();
+    }
+
+    // Thread de fond : l'aide, puis la réponse du programme à chaque coup de l'humain
+    private void ponder(MancalaPosition root, boolean player, AtomicBoolean stop, Map<Key, SearchResult> found) {
+        SearchResult hint = search(root, player, stop, found);
+        int start = player ? 0 : 7;
+        int first = hint != null ? hint.bestMove : -1;
+        for (int i = -1; i < 6 && !stop.get(); i++) {
+            int pit = i < 0 ? first : start + i;
+            if (pit < 0 || (i >= 0 && pit == first) || root.board[pit] == 0) continue;
+            MancalaPosition child = root.clone();
+            searcher.makeMove(child, player, new MancalaMove(pit));
+            // Après un tour supplémentaire ou en fin de partie, le programme n'a pas à répondre
+            if (child.extraTurn || searcher.isTerminal(child)) continue;
+            search(child, !player, stop, found);
+        }
+    }
+
+    private SearchResult search(MancalaPosition position, boolean player, AtomicBoolean stop,
+                                Map<Key, SearchResult> found) {
+        Key key = new Key(position, player);
+        synchronized (this) {
+            current = key;
+        }
+        SearchResult result = null;
+        try {
+            if (searcher.isTerminal(position)) {
+                return null;
+            }
+            searcher.setStopFlag(stop);
+            List<Object> best = searcher.alphaBeta(0, position.clone(), player);
+            if (!stop.get()) { // Une recherche interrompue est moins profonde qu'une recherche normale
+                int pit = searcher.moveIndex((Position) best.get(1));
+                result = new SearchResult(pit, (Float) best.get(0), searcher.getCompletedDepth(), searcher.getNodeCount());
+                found.put(key, result);
+            }
+        } finally {
+            searcher.setStopFlag(null);
+            synchronized (this) {
+                current = null;
+                notifyAll();
+            }
+        }
+        return result;
+    }
+}
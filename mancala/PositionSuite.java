@@ -0,0 +1,102 @@
+package GameSearch.mancala;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Positions de référence utilisées pour les mesures de performance et les comparaisons de recherche
+public final class PositionSuite {
+
+    // Une position de la suite avec le joueur au trait
+    public static final class Entry {
+        public final String name;
+        public final boolean player;
+        private final int[] board;
+
+        Entry(String name, boolean player, int[] board) {
+            this.name = name;
+            this.player = player;
+            this.board = board;
+        }
+
+        // Renvoie une copie indépendante de la position (la recherche peut la modifier)
+        public MancalaPosition position() {
+            MancalaPosition position = new MancalaPosition();
+            System.arraycopy(board, 0, position.board, 0, 14);
+            position.hash = Zobrist.hash(position.board);
+            return position;
+        }
+    }
+
+    private static final List<Entry> FIXED = new ArrayList<>();
+
+    static {
+        FIXED.add(new Entry("opening", GameSearch.PROGRAM,
+                new int[]{4, 4, 4, 4, 4, 4, 0, 4, 4, 4, 4, 4, 4, 0}));
+        FIXED.add(new Entry("middlegame", GameSearch.PROGRAM,
+                new int[]{2, 0, 7, 1, 5, 3, 10, 0, 6, 1, 4, 0, 2, 7}));
+        FIXED.add(new Entry("endgame", GameSearch.PROGRAM,
+                new int[]{0, 1, 0, 2, 0, 1, 20, 1, 0, 0, 3, 0, 1, 19}));
+    }
+
+    private PositionSuite() {
+    }
+
+    // Positions fixes : ouverture, milieu de partie et finale
+    public static List<Entry> fixed() {
+        return FIXED;
+    }
+
+    // Corpus reproductible de positions non terminales atteintes par des parties aléatoires
+    public static List<Entry> random(long seed, int count) {
+        Random random = new Random(seed);
+        Mancala game = new Mancala(null);
+        List<Entry> entries = new ArrayList<>();
+        while (entries.size() < count) {
+            MancalaPosition position = new MancalaPosition();
+            boolean player = GameSearch.HUMAN;
+            int plies = 4 + random.nextInt(36);
+            for (int ply = 0; ply < plies && !game.drawnPosition(position); ply++) {
+                int start = player ? 0 : 7;
+                int pit;
+                do {
+                    pit = start + random.nextInt(6);
+                } while (position.board[pit] == 0);
+                game.makeMove(position, player, new MancalaMove(pit));
+                if (!position.extraTurn) {
+                    player = !player;
+                }
+            }
+            if (!game.drawnPosition(position)) {
+                entries.add(new Entry("random-" + entries.size(), player, position.board.clone()));
+            }
+        }
+        return entries;
+    }
+
+    // Finales reproductibles : parties jouées au hasard jusqu'à ce qu'il reste au plus seeds graines sur les pits
+    public static List<Entry> endgames(long seed, int seeds, int count) {
+        Mancala game = new Mancala(null);
+        Random random = new Random(seed);
+        List<Entry> corpus = new ArrayList<>();
+        while (corpus.size() < count) {
+            MancalaPosition position = new MancalaPosition();
+            boolean player = random.nextBoolean();
+            while (!Mancala.isTerminal(position.board) && EndgameDatabase.pitSeeds(position.board) > seeds) {
+                int start = player ? 0 : 7;
+                int pit;
+                do {
+                    pit = start + random.nextInt(6);
+                } while (position.board[pit] == 0);
+                game.makeMove(position, player, new MancalaMove(pit));
+                if (!position.extraTurn) {
+                    player = !player;
+                }
+            }
+            if (!Mancala.isTerminal(position.board)) {
+                corpus.add(new Entry("endgame-" + corpus.size(), player, position.board.clone()));
+            }
+        }
+        return corpus;
+    }
+}
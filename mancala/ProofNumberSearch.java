@@ -0,0 +1,605 @@
+package GameSearch.mancala;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Valeur théorique d'une position (gagnée, nulle ou perdue pour le joueur au trait) par recherche en
+// profondeur par nombres de preuve (df-pn). Une preuve établit « le joueur de la racine finit avec au
+// moins target graines d'avance » : nœuds OU où il est au trait, nœuds ET chez l'adversaire (un tour
+// supplémentaire garde le type du nœud). Gain = preuve pour target 1, nulle = preuve pour 0 seulement.
+//
+// Les feuilles sont décidées sans recherche par les bornes de la différence finale (cf. MancalaEngine.solve)
+// ou par la base de finales. La table a une taille fixe (budget mémoire) ; ses clés sont les positions
+// compactées elles-mêmes (PackedPosition, joueur au trait, target) : une collision ne peut pas produire
+// de fausse preuve. La partie n'a pas de cycle (cf. EndgameGenerator) : df-pn s'applique sans précaution.
+//
+// Reprise : la table est écrite périodiquement dans un fichier de points de reprise (fichier temporaire
+// puis renommage) ; relancée avec le même fichier, une preuve repart des nombres de preuve enregistrés.
+//
+// Usage : ProofNumberSearch position p0,...,p13 human|program [options]
+//         ProofNumberSearch game archive id ply [options]
+//   options : --memory MB, --checkpoint file, --interval s, --nodes n, --time s, --endgame dir
+public final class ProofNumberSearch {
+    public static final int INFINITY = Integer.MAX_VALUE / 2; // La somme de deux infinis tient dans un int
+    public static final int MAGIC = 0x4D4E504E; // "MNPN"
+    public static final int VERSION = 1;
+    public static final int DEFAULT_MEMORY = 256; // Mo
+    private static final int HEADER = 44;
+    private static final int ENTRY = 28; // Octets par entrée (clé sur deux long, pn, dn, travail)
+    private static final int MAX_PLY = 1024;
+    private static final int WAYS = 4; // Entrées par seau
+
+    // Valeur de la position pour le joueur au trait
+    public enum Outcome { WIN, DRAW, LOSS, UNKNOWN }
+
+    // Résultat d'une preuve
+    public enum Proof { PROVEN, DISPROVEN, UNKNOWN }
+
+    // Table : seaux de WAYS entrées ; une entrée vide a pn = dn = 0
+    private final int mask;
+    private final int shift; // 64 - log2(capacité)
+    private final long[] lows;
+    private final long[] highs;
+    private final int[] proofs;
+    private final int[] disproofs;
+    private final int[] works; // Nœuds visités sous l'entrée (priorité de remplacement)
+
+    private final PackedPosition root;
+    private final boolean rootPlayer;
+    private final int totalSeeds;
+    private final int rootStore;  // Mancala du joueur de la racine
+    private final int otherStore;
+    private int target;
+    private EndgameDatabase endgameDatabase;
+
+    // Budget et reprise
+    private long maxNodes;      // Nœuds par appel de solve ou prove (0 = aucune limite)
+    private long timeLimit;     // Millisecondes par appel de solve ou prove (0 = aucune limite)
+    private long endTime;       // Échéance de la preuve en cours, en nanosecondes (0 = aucune)
+    private AtomicBoolean stopFlag;
+    private boolean stopped;
+    private long nodes;         // Nœuds développés depuis le début de la preuve, reprises comprises
+    private long budgetStart;
+    private Path checkpoint;    // null = aucun point de reprise
+    private long checkpointInterval = 60_000_000_000L;
+    private long lastCheckpoint;
+    private int bestMove = -1;
+
+    // Pile des positions filles, six par ply
+    private final long[] childLow = new long[MAX_PLY * 6];
+    private final long[] childHigh = new long[MAX_PLY * 6];
+    private final boolean[] childPlayer = new boolean[MAX_PLY * 6];
+    private final PackedPosition scratch = new PackedPosition();
+    private final int[] board = new int[14];
+    private int lookupProof;    // Nombres de preuve et de réfutation du dernier lookup
+    private int lookupDisproof;
+
+    // Preuve de la position avec le joueur au trait, dans une table de memoryMegabytes Mo
+    public ProofNumberSearch(MancalaPosition position, boolean player, int memoryMegabytes) {
+        long entries = Long.highestOneBit(Math.max(1024L, ((long) memoryMegabytes << 20) / ENTRY));
+        int capacity = (int) Math.min(entries, 1 << 30);
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        lows = new long[capacity];
+        highs = new long[capacity];
+        proofs = new int[capacity];
+        disproofs = new int[capacity];
+        works = new int[capacity];
+        root = PackedPosition.of(position);
+        rootPlayer = player;
+        totalSeeds = Mancala.totalSeeds(position.board);
+        rootStore = player ? MancalaPosition.HUMAN_MANCALA : MancalaPosition.PROGRAM_MANCALA;
+        otherStore = player ? MancalaPosition.PROGRAM_MANCALA : MancalaPosition.HUMAN_MANCALA;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Usage: ProofNumberSearch position p0,...,p13 human|program [options]");
+            System.out.println("       ProofNumberSearch game archive id ply [options]");
+            System.out.println("  options: --memory MB, --checkpoint file, --interval s, --nodes n, --time s,"
+                    + " --endgame dir");
+            return;
+        }
+        MancalaPosition position;
+        boolean player;
+        int next;
+        switch (args[0]) {
+            case "position": {
+                String[] pits = args[1].split(",");
+                if (pits.length != 14) {
+                    throw new IllegalArgumentException("A board has 14 pits");
+                }
+                int[] board = new int[14];
+                for (int pit = 0; pit < 14; pit++) {
+                    board[pit] = Integer.parseInt(pits[pit].trim());
+                }
+                PackedPosition.checkBoard(board);
+                position = new MancalaPosition();
+                System.arraycopy(board, 0, position.board, 0, 14);
+                position.hash = Zobrist.hash(board);
+                player = args[2].equalsIgnoreCase("human");
+                next = 3;
+                break;
+            }
+            case "game": {
+                if (args.length < 4) {
+                    throw new IllegalArgumentException("Usage: ProofNumberSearch game archive id ply");
+                }
+                int id = Integer.parseInt(args[2]);
+                int ply = Integer.parseInt(args[3]);
+                if (ply < 0) {
+                    throw new IndexOutOfBoundsException("Ply " + ply + " of game " + id);
+                }
+                PackedPosition[] found = new PackedPosition[1];
+                boolean[] side = new boolean[1];
+                try (GameArchive archive = GameArchive.open(Paths.get(args[1]))) {
+                    archive.scan(id, id + 1, (game, current, packed, toMove, move) -> {
+                        if (current == ply) {
+                            found[0] = packed.copy();
+                            side[0] = toMove;
+                        }
+                    });
+                }
+                if (found[0] == null) {
+                    throw new IndexOutOfBoundsException("No move at ply " + ply + " of game " + id);
+                }
+                position = found[0].toPosition();
+                player = side[0];
+                next = 4;
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown command: " + args[0]);
+        }
+
+        int memory = DEFAULT_MEMORY;
+        Path checkpoint = null;
+        long interval = 60;
+        long nodes = 0;
+        long time = 0;
+        EndgameDatabase database = null;
+        for (int i = next; i < args.length; i++) {
+            switch (args[i]) {
+                case "--memory":
+                    memory = Integer.parseInt(args[++i]);
+                    break;
+                case "--checkpoint":
+                    checkpoint = Paths.get(args[++i]);
+                    break;
+                case "--interval":
+                    interval = Long.parseLong(args[++i]);
+                    break;
+                case "--nodes":
+                    nodes = Long.parseLong(args[++i]);
+                    break;
+                case "--time":
+                    time = Long.parseLong(args[++i]);
+                    break;
+                case "--endgame":
+                    database = EndgameDatabase.open(Paths.get(args[++i]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        System.out.println(position);
+        ProofNumberSearch search = new ProofNumberSearch(position, player, memory);
+        search.setEndgameDatabase(database);
+        search.setLimits(nodes, time * 1000);
+        if (checkpoint != null) {
+            search.setCheckpoint(checkpoint, interval);
+            if (search.getNodeCount() > 0) {
+                System.out.println("Resuming from " + checkpoint + " (" + search.getNodeCount() + " nodes)");
+            }
+        }
+        long start = System.nanoTime();
+        long resumed = search.getNodeCount();
+        Outcome outcome = search.solve();
+        System.out.printf("%s to move: %s%s, %d nodes in %.1f s, table %.1f%% full%n",
+                player == GameSearch.HUMAN ? "HUMAN" : "PROGRAM", outcome,
+                search.getBestMove() >= 0 ? " (pit " + search.getBestMove() + ")" : "",
+                search.getNodeCount() - resumed, (System.nanoTime() - start) / 1e9, 100.0 * search.getFill());
+        if (outcome == Outcome.UNKNOWN && checkpoint != null) {
+            System.out.println("Budget exhausted: progress saved to " + checkpoint);
+        }
+        if (outcome == Outcome.UNKNOWN && search.getFill() > 0.8) {
+            // Une table trop petite pour l'arbre de preuve fait redévelopper sans fin les mêmes nœuds
+            System.out.println("Table nearly full: the proof probably needs a larger --memory");
+        }
+    }
+
+    // Base de finales consultée aux feuilles (null = aucune)
+    public void setEndgameDatabase(EndgameDatabase endgameDatabase) {
+        this.endgameDatabase = endgameDatabase;
+    }
+
+    // Budget de chaque appel de solve ou prove : nœuds et temps (0 = aucune limite)
+    public void setLimits(long maxNodes, long timeMillis) {
+        this.maxNodes = maxNodes;
+        this.timeLimit = timeMillis;
+    }
+
+    // Drapeau d'arrêt : une fois levé, la preuve s'arrête avec UNKNOWN (la table est conservée)
+    public void setStopFlag(AtomicBoolean stopFlag) {
+        this.stopFlag = stopFlag;
+    }
+
+    // Fichier de points de reprise, écrit toutes les intervalSeconds et à la fin de chaque preuve ;
+    // s'il existe déjà, la table est rechargée (il doit concerner la même position)
+    public void setCheckpoint(Path file, long intervalSeconds) throws IOException {
+        this.checkpoint = file;
+        this.checkpointInterval = intervalSeconds * 1_000_000_000L;
+        if (Files.exists(file)) {
+            load(file);
+        }
+    }
+
+    // Gain, nulle ou perte pour le joueur au trait (UNKNOWN si le budget est épuisé avant la preuve) ;
+    // les deux preuves partagent le budget de l'appel
+    public Outcome solve() {
+        long start = nodes;
+        long deadline = deadline();
+        Proof win = prove(1, start, deadline);
+        if (win != Proof.DISPROVEN) {
+            return win == Proof.PROVEN ? Outcome.WIN : Outcome.UNKNOWN;
+        }
+        Proof draw = prove(0, start, deadline);
+        if (draw != Proof.DISPROVEN) {
+            return draw == Proof.PROVEN ? Outcome.DRAW : Outcome.UNKNOWN;
+        }
+        bestMove = -1;
+        return Outcome.LOSS;
+    }
+
+    // Prouve ou réfute « le joueur au trait finit avec au moins target graines d'avance »
+    public Proof prove(int target) {
+        return prove(target, nodes, deadline());
+    }
+
+    // Échéance d'un appel qui commence maintenant (0 = aucune)
+    private long deadline() {
+        return timeLimit > 0 ? System.nanoTime() + timeLimit * 1_000_000L : 0L;
+    }
+
+    // Preuve dans le budget commencé à budgetStart nœuds, jusqu'à endTime
+    private Proof prove(int target, long budgetStart, long endTime) {
+        this.target = target;
+        stopped = false;
+        this.budgetStart = budgetStart;
+        this.endTime = endTime;
+        lastCheckpoint = System.nanoTime();
+        lookup(root.low, root.high, rootPlayer);
+        if (lookupProof != 0 && lookupDisproof != 0) {
+            search(0, root.low, root.high, rootPlayer, INFINITY, INFINITY);
+        }
+        saveCheckpoint();
+        lookup(root.low, root.high, rootPlayer);
+        bestMove = -1;
+        if (lookupProof == 0) {
+            bestMove = provingMove();
+            return Proof.PROVEN;
+        }
+        return lookupDisproof == 0 ? Proof.DISPROVEN : Proof.UNKNOWN;
+    }
+
+    // Coup de la racine qui réalise la dernière preuve
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    // Proportion des entrées occupées de la table
+    public double getFill() {
+        long used = 0;
+        for (int i = 0; i <= mask; i++) {
+            if (proofs[i] != 0 || disproofs[i] != 0) used++;
+        }
+        return used / (double) (mask + 1);
+    }
+
+    // Développe un nœud jusqu'à ce que son nombre de preuve atteigne thProof ou son nombre de réfutation
+    // thDisproof : nœud OU, pn = min des filles et dn = somme ; nœud ET, l'inverse. La fille la plus
+    // prometteuse est développée avec des seuils qui rendent la main dès qu'une autre la dépasse
+    private void search(int ply, long low, long high, boolean player, int thProof, int thDisproof) {
+        if (ply >= MAX_PLY - 1) {
+            throw new IllegalStateException("Game longer than " + MAX_PLY + " plies");
+        }
+        long start = nodes++;
+        if ((nodes & 4095) == 0) {
+            checkBudget();
+        }
+        boolean or = player == rootPlayer;
+        int base = ply * 6;
+        int count = 0;
+        int first = player ? 0 : 7;
+        for (int pit = first; pit < first + 6; pit++) {
+            scratch.low = low;
+            scratch.high = high;
+            if (scratch.seeds(pit) == 0) continue;
+            boolean extraTurn = scratch.play(pit, player);
+            childLow[base + count] = scratch.low;
+            childHigh[base + count] = scratch.high;
+            childPlayer[base + count] = extraTurn == player;
+            count++;
+        }
+        // thMin : seuil de la quantité minimisée sur les filles (pn en OU, dn en ET), thSum : de la somme
+        int thMin = or ? thProof : thDisproof;
+        int thSum = or ? thDisproof : thProof;
+        int min;
+        int sum;
+        while (true) {
+            min = INFINITY;
+            sum = 0;
+            int second = INFINITY;
+            int best = -1;
+            int bestSummed = 0;
+            for (int i = 0; i < count; i++) {
+                lookup(childLow[base + i], childHigh[base + i], childPlayer[base + i]);
+                int minimized = or ? lookupProof : lookupDisproof;
+                int summed = or ? lookupDisproof : lookupProof;
+                sum = Math.min(INFINITY, sum + summed);
+                if (minimized < min) {
+                    second = min;
+                    min = minimized;
+                    best = i;
+                    bestSummed = summed;
+                } else if (minimized < second) {
+                    second = minimized;
+                }
+            }
+            if (min >= thMin || sum >= thSum || stopped) {
+                break;
+            }
+            // Seuil 1 + ε (ε = 1/4) : la fille garde la main un peu au-delà de sa sœur, moins de va-et-vient
+            int childMin = Math.min(thMin, second + (second >> 2) + 1);
+            int childSum = thSum - sum + bestSummed;
+            search(ply + 1, childLow[base + best], childHigh[base + best], childPlayer[base + best],
+                    or ? childMin : childSum, or ? childSum : childMin);
+        }
+        store(low, high, player, or ? min : sum, or ? sum : min, nodes - start);
+    }
+
+    // Nombres de preuve et de réfutation d'une position : ceux de la table, sinon ceux d'une feuille
+    // décidée (partie finie, bornes, base de finales), sinon 1 et 1
+    private void lookup(long low, long high, boolean player) {
+        int slot = probe(key(low, player), high);
+        if (slot >= 0) {
+            lookupProof = proofs[slot];
+            lookupDisproof = disproofs[slot];
+            return;
+        }
+        scratch.low = low;
+        scratch.high = high;
+        int margin;
+        if (scratch.isTerminal()) {
+            scratch.sweep();
+            margin = scratch.seeds(rootStore) - scratch.seeds(otherStore);
+        } else {
+            int difference = scratch.seeds(rootStore) - scratch.seeds(otherStore);
+            int remaining = totalSeeds - scratch.seeds(rootStore) - scratch.seeds(otherStore);
+            if (difference - remaining >= target) {
+                margin = target;
+            } else if (difference + remaining < target) {
+                margin = target - 1;
+            } else if (endgameDatabase != null && remaining <= endgameDatabase.getMaxSeeds()) {
+                scratch.copyTo(board);
+                int value = endgameDatabase.probe(board, player);
+                margin = player == rootPlayer ? value : -value;
+            } else {
+                lookupProof = 1;
+                lookupDisproof = 1;
+                return;
+            }
+        }
+        lookupProof = margin >= target ? 0 : INFINITY;
+        lookupDisproof = margin >= target ? INFINITY : 0;
+    }
+
+    // Coup de la racine dont la position fille est prouvée
+    private int provingMove() {
+        int first = rootPlayer ? 0 : 7;
+        for (int pit = first; pit < first + 6; pit++) {
+            PackedPosition child = root.copy();
+            if (child.seeds(pit) == 0) continue;
+            boolean extraTurn = child.play(pit, rootPlayer);
+            lookup(child.low, child.high, extraTurn == rootPlayer);
+            if (lookupProof == 0) {
+                return pit;
+            }
+        }
+        return -1;
+    }
+
+    private void checkBudget() {
+        long now = System.nanoTime();
+        if ((maxNodes > 0 && nodes - budgetStart >= maxNodes) || (endTime != 0L && now >= endTime)
+                || (stopFlag != null && stopFlag.get())) {
+            stopped = true;
+        }
+        if (checkpoint != null && now - lastCheckpoint >= checkpointInterval) {
+            saveCheckpoint();
+            lastCheckpoint = System.nanoTime();
+        }
+    }
+
+    // Le joueur au trait et la cible complètent la clé (bits libres au-dessus des 7 champs de low)
+    private long key(long low, boolean player) {
+        return low | (player ? 1L << 42 : 0L) | (long) (target + 128 & 0xFF) << 43;
+    }
+
+    private int bucket(long key, long high) {
+        long h = (key ^ high * 0xC2B2AE3D27D4EB4FL) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> shift) & -WAYS;
+    }
+
+    private int probe(long key, long high) {
+        int slot = bucket(key, high);
+        for (int i = slot; i < slot + WAYS; i++) {
+            if (lows[i] == key && highs[i] == high && (proofs[i] != 0 || disproofs[i] != 0)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Remplace la même position, sinon l'entrée la moins précieuse du seau (cf. victim). Le nœud est
+    // toujours enregistré, même si tout le seau est résolu : sans cela son parent le reverrait à 1 et 1
+    // et le redévelopperait indéfiniment
+    private void store(long low, long high, boolean player, int proof, int disproof, long work) {
+        long key = key(low, player);
+        int slot = bucket(key, high);
+        int victim = -1;
+        for (int i = slot; i < slot + WAYS; i++) {
+            if (lows[i] == key && highs[i] == high) {
+                victim = i;
+                break;
+            }
+        }
+        if (victim < 0) {
+            victim = victim(slot);
+        }
+        lows[victim] = key;
+        highs[victim] = high;
+        proofs[victim] = proof;
+        disproofs[victim] = disproof;
+        works[victim] = (int) Math.min(Integer.MAX_VALUE, work);
+    }
+
+    // Entrée du seau la moins précieuse : vide, sinon non résolue ayant coûté le moins de travail ; une
+    // entrée résolue n'est remplacée que si tout le seau l'est, la moins coûteuse d'abord
+    private int victim(int slot) {
+        int victim = slot;
+        for (int i = slot + 1; i < slot + WAYS; i++) {
+            if (priority(i) < priority(victim)) victim = i;
+        }
+        return victim;
+    }
+
+    private long priority(int slot) {
+        if (proofs[slot] == 0 && disproofs[slot] == 0) return -1L; // Vide
+        if (proofs[slot] == 0 || disproofs[slot] == 0) return (1L << 31) + works[slot]; // Résolue
+        return works[slot];
+    }
+
+    private void saveCheckpoint() {
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            write(checkpoint);
+        } catch (IOException e) {
+            System.err.println("Failed to write checkpoint: " + e.getMessage());
+            checkpoint = null;
+        }
+    }
+
+    // En-tête (magic, version, position et joueur de la racine, nœuds, nombre d'entrées), puis les
+    // entrées occupées ; fichier temporaire renommé une fois complet
+    public void write(Path file) throws IOException {
+        long count = 0;
+        for (int i = 0; i <= mask; i++) {
+            if (proofs[i] != 0 || disproofs[i] != 0) count++;
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(root.low).putLong(root.high).putInt(rootPlayer ? 1 : 0)
+                .putLong(nodes).putLong(count);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i <= mask; i++) {
+                if (proofs[i] == 0 && disproofs[i] == 0) continue;
+                if (buffer.remaining() < ENTRY) {
+                    drain(channel, buffer);
+                }
+                buffer.putLong(lows[i]).putLong(highs[i]).putInt(proofs[i]).putInt(disproofs[i]).putInt(works[i]);
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Recharge un point de reprise ; ses entrées sont réinsérées, la table peut donc avoir une autre taille
+    private void load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER);
+            fill(channel, buffer, file);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a proof checkpoint: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported proof checkpoint version " + version);
+            }
+            if (buffer.getLong() != root.low || buffer.getLong() != root.high
+                    || (buffer.getInt() == 1) != rootPlayer) {
+                throw new IOException("Checkpoint of another position: " + file);
+            }
+            long savedNodes = buffer.getLong();
+            long count = buffer.getLong();
+            if (count < 0 || channel.size() != HEADER + count * ENTRY) {
+                throw new IOException("Truncated proof checkpoint: " + file);
+            }
+            for (long remaining = count; remaining > 0; ) {
+                int batch = (int) Math.min(remaining, (1 << 20) / ENTRY);
+                buffer.clear();
+                buffer.limit(batch * ENTRY);
+                fill(channel, buffer, file);
+                for (int i = 0; i < batch; i++) {
+                    long key = buffer.getLong();
+                    long high = buffer.getLong();
+                    int proof = buffer.getInt();
+                    int disproof = buffer.getInt();
+                    int work = buffer.getInt();
+                    insert(key, high, proof, disproof, work);
+                }
+                remaining -= batch;
+            }
+            nodes = savedNodes;
+        }
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer buffer, Path file) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated proof checkpoint: " + file);
+            }
+        }
+        buffer.flip();
+    }
+
+    // Insertion d'une entrée rechargée (clé complète) : une entrée n'en remplace pas une plus précieuse
+    private void insert(long key, long high, int proof, int disproof, int work) {
+        int slot = bucket(key, high);
+        int victim = victim(slot);
+        if (priority(victim) > work && proof != 0 && disproof != 0) {
+            return;
+        }
+        lows[victim] = key;
+        highs[victim] = high;
+        proofs[victim] = proof;
+        disproofs[victim] = disproof;
+        works[victim] = work;
+    }
+}
@@ -0,0 +1,591 @@
+package GameSearch.mancala;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Mesures de performance de la recherche sur les positions de PositionSuite
+// Usage : SearchBenchmark allocation|movegen|parallel|extraturn|ordering|algorithm|evaluation|endgame|metrics|quiescence|bounds|pns [depth] [threads]
+public class SearchBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws IOException {
+        String command = args.length > 0 ? args[0] : "allocation";
+        switch (command) {
+            case "allocation":
+                allocation();
+                break;
+            case "movegen":
+                moveGeneration();
+                break;
+            case "parallel":
+                parallel(args.length > 1 ? Integer.parseInt(args[1]) : 10,
+                        args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors());
+                break;
+            case "extraturn":
+                extraTurn(args.length > 1 ? Integer.parseInt(args[1]) : 8);
+                break;
+            case "ordering":
+                ordering(args.length > 1 ? Integer.parseInt(args[1]) : 10);
+                break;
+            case "algorithm":
+                algorithm(args.length > 1 ? Integer.parseInt(args[1]) : 12);
+                break;
+            case "evaluation":
+                evaluation(args.length > 1 ? Integer.parseInt(args[1]) : 10);
+                break;
+            case "endgame":
+                endgame(args.length > 1 ? Integer.parseInt(args[1]) : 8);
+                break;
+            case "metrics":
+                metrics(args.length > 1 ? Integer.parseInt(args[1]) : 10);
+                break;
+            case "quiescence":
+                quiescence(args.length > 1 ? Integer.parseInt(args[1]) : 6);
+                break;
+            case "bounds":
+                bounds(args.length > 1 ? Integer.parseInt(args[1]) : 20);
+                break;
+            case "pns":
+                proofNumbers(args.length > 1 ? Integer.parseInt(args[1]) : 24);
+                break;
+            default:
+                System.out.println("Unknown benchmark: " + command);
+                System.out.println("Usage: SearchBenchmark allocation|movegen|parallel|extraturn|ordering|algorithm|evaluation|endgame|metrics|quiescence|bounds|pns [depth] [threads]");
+        }
+    }
+
+    // Compare la recherche historique (copies de positions) et la recherche en place :
+    // nœuds, temps et octets alloués par nœud
+    private static void allocation() {
+        Mancala game = new Mancala();
+        game.setTranspositionTable(null);
+        MancalaEngine engine = new MancalaEngine();
+        engine.setQuiescenceDepth(game.getQuiescenceDepth());
+        List<PositionSuite.Entry> suite = PositionSuite.fixed();
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (PositionSuite.Entry entry : suite) {
+                for (Mancala.Difficulty difficulty : Mancala.Difficulty.values()) {
+                    game.setDifficulty(difficulty);
+                    game.setInPlaceSearch(false);
+                    game.alphaBeta(0, entry.position(), entry.player);
+                    engine.setPosition(entry.position());
+                    engine.search(0, game.maxDepth(entry.position()), entry.player);
+                }
+            }
+        }
+
+        System.out.printf("%-12s %-7s %10s %12s %12s %12s %12s%n",
+                "position", "level", "nodes", "legacy ms", "legacy B/n", "engine ms", "engine B/n");
+        for (PositionSuite.Entry entry : suite) {
+            for (Mancala.Difficulty difficulty : Mancala.Difficulty.values()) {
+                game.setDifficulty(difficulty);
+                game.setInPlaceSearch(false);
+
+                MancalaPosition legacyPosition = entry.position();
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                game.alphaBeta(0, legacyPosition, entry.player);
+                long legacyTime = System.nanoTime() - start;
+                long legacyBytes = allocatedBytes() - bytes;
+                long nodes = game.getNodeCount();
+
+                MancalaPosition enginePosition = entry.position();
+                int maxDepth = game.maxDepth(enginePosition);
+                engine.setPosition(enginePosition);
+                bytes = allocatedBytes();
+                start = System.nanoTime();
+                engine.search(0, maxDepth, entry.player);
+                long engineTime = System.nanoTime() - start;
+                long engineBytes = allocatedBytes() - bytes;
+
+                System.out.printf("%-12s %-7s %10d %12.2f %12.1f %12.2f %12.1f%n",
+                        entry.name, difficulty, nodes,
+                        legacyTime / 1e6, (double) legacyBytes / nodes,
+                        engineTime / 1e6, (double) engineBytes / engine.getNodeCount());
+            }
+        }
+    }
+
+    // Génération de toutes les positions filles : Mancala.makeMove sur une copie (comme possibleMoves)
+    // contre PackedPosition.play
+    private static void moveGeneration() {
+        Mancala game = new Mancala();
+        List<PositionSuite.Entry> corpus = PositionSuite.random(42L, 1000);
+        MancalaPosition[] positions = new MancalaPosition[corpus.size()];
+        PackedPosition[] packed = new PackedPosition[corpus.size()];
+        boolean[] players = new boolean[corpus.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = corpus.get(i).position();
+            packed[i] = PackedPosition.of(positions[i]);
+            players[i] = corpus.get(i).player;
+        }
+
+        long sink = 0;
+        for (int round = 0; round < 3 * WARMUP_ROUNDS; round++) {
+            sink += generateReference(game, positions, players) + generatePacked(packed, players);
+        }
+        int rounds = 200;
+        long moves = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            moves += generateReference(game, positions, players);
+        }
+        long referenceTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            sink += generatePacked(packed, players);
+        }
+        long packedTime = System.nanoTime() - start;
+
+        System.out.printf("moves: %d (checksum %d)%n", moves, sink);
+        System.out.printf("Mancala.makeMove:    %8.2f ns/move%n", (double) referenceTime / moves);
+        System.out.printf("PackedPosition.play: %8.2f ns/move%n", (double) packedTime / moves);
+        System.out.printf("speedup: %.1fx%n", (double) referenceTime / packedTime);
+    }
+
+    private static long generateReference(Mancala game, MancalaPosition[] positions, boolean[] players) {
+        long moves = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int start = players[i] ? 0 : 7;
+            for (int pit = start; pit < start + 6; pit++) {
+                if (positions[i].board[pit] == 0) continue;
+                MancalaPosition child = new MancalaPosition();
+                System.arraycopy(positions[i].board, 0, child.board, 0, 14);
+                child.hash = positions[i].hash;
+                game.makeMove(child, players[i], new MancalaMove(pit));
+                moves++;
+            }
+        }
+        return moves;
+    }
+
+    private static long generatePacked(PackedPosition[] positions, boolean[] players) {
+        PackedPosition child = new PackedPosition();
+        long checksum = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int start = players[i] ? 0 : 7;
+            for (int pit = start; pit < start + 6; pit++) {
+                if (positions[i].seeds(pit) == 0) continue;
+                child.set(positions[i]);
+                child.play(pit, players[i]);
+                checksum += child.low ^ child.high;
+            }
+        }
+        return checksum;
+    }
+
+    // Recherche parallèle à la racine à profondeur fixe, pour 1, 2, 4... threads : accélération
+    // (temps séquentiel / temps parallèle) et surcoût de recherche (nœuds supplémentaires).
+    // Sans table de transposition, le coup et le score doivent être ceux de la recherche séquentielle
+    private static void parallel(int depth, int maxThreads) {
+        List<PositionSuite.Entry> suite = PositionSuite.fixed();
+        System.out.printf("%-12s %-4s %7s %12s %10s %8s %9s %6s%n",
+                "position", "tt", "threads", "nodes", "ms", "speedup", "overhead", "same");
+        for (boolean useTable : new boolean[]{false, true}) {
+            for (PositionSuite.Entry entry : suite) {
+                TranspositionTable serialTable = useTable ? new TranspositionTable(Mancala.DEFAULT_TABLE_BITS) : null;
+                MancalaEngine serial = new MancalaEngine();
+                serial.setTranspositionTable(serialTable);
+                serial.setPosition(entry.position());
+                serial.search(0, depth, entry.player); // Préchauffage
+                if (serialTable != null) serialTable.clear();
+                serial.setPosition(entry.position());
+                long start = System.nanoTime();
+                float serialScore = serial.search(0, depth, entry.player);
+                long serialTime = System.nanoTime() - start;
+                long serialNodes = serial.getNodeCount();
+                System.out.printf("%-12s %-4s %7s %12d %10.1f%n", entry.name, useTable ? "on" : "off",
+                        "serial", serialNodes, serialTime / 1e6);
+
+                for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                    TranspositionTable table = useTable ? new TranspositionTable(Mancala.DEFAULT_TABLE_BITS) : null;
+                    try (ParallelSearch search = new ParallelSearch(threads, table)) {
+                        search.search(entry.position(), entry.player, 0, depth); // Préchauffage
+                        if (table != null) table.clear();
+                        start = System.nanoTime();
+                        float score = search.search(entry.position(), entry.player, 0, depth);
+                        long time = System.nanoTime() - start;
+                        boolean same = score == serialScore && search.getBestMove() == serial.getBestMove();
+                        System.out.printf("%-12s %-4s %7d %12d %10.1f %8.2f %8.1f%% %6s%n", entry.name,
+                                useTable ? "on" : "off", threads, search.getNodeCount(), time / 1e6,
+                                (double) serialTime / time, 100.0 * search.getNodeCount() / serialNodes - 100.0, same);
+                    }
+                }
+            }
+        }
+    }
+
+    // Compare les traitements du tour supplémentaire (MancalaEngine.ExtraTurnMode) à profondeur fixe
+    // sur un corpus aléatoire : nœuds, temps et nombre de coups choisis différents du mode historique
+    private static void extraTurn(int depth) {
+        List<PositionSuite.Entry> corpus = PositionSuite.random(7L, 200);
+        MancalaEngine engine = new MancalaEngine();
+        MancalaEngine.ExtraTurnMode[] modes = MancalaEngine.ExtraTurnMode.values();
+        int[][] moves = new int[modes.length][corpus.size()];
+        System.out.printf("%-10s %12s %10s %8s%n", "mode", "nodes", "ms", "changed");
+        for (int m = 0; m < modes.length; m++) {
+            engine.setExtraTurnMode(modes[m]);
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                engine.setPosition(corpus.get(round).position());
+                engine.search(0, depth, corpus.get(round).player);
+            }
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < corpus.size(); i++) {
+                engine.setPosition(corpus.get(i).position());
+                engine.search(0, depth, corpus.get(i).player);
+                nodes += engine.getNodeCount();
+                moves[m][i] = engine.getBestMove();
+            }
+            long time = System.nanoTime() - start;
+            int changed = 0;
+            for (int i = 0; i < corpus.size(); i++) {
+                if (moves[m][i] != moves[0][i]) changed++;
+            }
+            System.out.printf("%-10s %12d %10.1f %8d%n", modes[m], nodes, time / 1e6, changed);
+        }
+    }
+
+    // Compare l'ordre historique par évaluation et l'ordre heuristique de MoveOrdering à profondeur fixe :
+    // nœuds, temps et proportion des coupures obtenues par le premier coup
+    private static void ordering(int depth) {
+        List<PositionSuite.Entry> corpus = PositionSuite.random(11L, 100);
+        System.out.printf("%-11s %12s %10s %10s %10s%n", "mode", "nodes", "ms", "cutoffs", "first-move");
+        for (MoveOrdering.Mode mode : MoveOrdering.Mode.values()) {
+            MancalaEngine engine = new MancalaEngine();
+            TranspositionTable table = new TranspositionTable(Mancala.DEFAULT_TABLE_BITS);
+            engine.setTranspositionTable(table);
+            MoveOrdering moveOrdering = engine.getMoveOrdering();
+            moveOrdering.setMode(mode);
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                engine.setPosition(corpus.get(round).position());
+                engine.search(0, depth, corpus.get(round).player);
+            }
+            moveOrdering.resetStatistics();
+            long nodes = 0;
+            long time = 0;
+            for (PositionSuite.Entry entry : corpus) {
+                table.clear();
+                engine.setPosition(entry.position());
+                long start = System.nanoTime();
+                engine.search(0, depth, entry.player);
+                time += System.nanoTime() - start;
+                nodes += engine.getNodeCount();
+            }
+            System.out.printf("%-11s %12d %10.1f %10d %9.1f%%%n", mode, nodes, time / 1e6,
+                    moveOrdering.getCutoffs(), 100.0 * moveOrdering.getFirstMoveCutoffRate());
+        }
+    }
+
+    // Alpha-Beta contre PVS (fenêtres nulles, puis aspiration en approfondissement itératif) sur la suite
+    // fixe et un corpus aléatoire : nœuds, temps, nouvelles recherches et score identique
+    private static void algorithm(int depth) {
+        List<PositionSuite.Entry> suite = new ArrayList<>(PositionSuite.fixed());
+        suite.addAll(PositionSuite.random(13L, 20));
+        System.out.printf("%-12s %-10s %-10s %12s %10s %10s %6s%n",
+                "position", "search", "algorithm", "nodes", "ms", "re-search", "same");
+        for (boolean iterative : new boolean[]{false, true}) {
+            long[] totalNodes = new long[2];
+            long[] totalTime = new long[2];
+            for (PositionSuite.Entry entry : suite) {
+                float reference = 0.0f;
+                for (GameSearch.Algorithm algorithm : GameSearch.Algorithm.values()) {
+                    MancalaEngine engine = new MancalaEngine();
+                    TranspositionTable table = new TranspositionTable(Mancala.DEFAULT_TABLE_BITS);
+                    engine.setTranspositionTable(table);
+                    engine.setAlgorithm(algorithm);
+                    for (int round = 0; round < 2; round++) { // Préchauffage puis mesure, table vidée
+                        table.clear();
+                        engine.setPosition(entry.position());
+                        long start = System.nanoTime();
+                        float score = iterative ? engine.searchIterative(0, entry.player, SearchLimits.depth(depth))
+                                : engine.search(0, depth, entry.player);
+                        long time = System.nanoTime() - start;
+                        if (round == 0) continue;
+                        if (algorithm == GameSearch.Algorithm.ALPHA_BETA) reference = score;
+                        totalNodes[algorithm.ordinal()] += engine.getNodeCount();
+                        totalTime[algorithm.ordinal()] += time;
+                        if (!entry.name.startsWith("random")) {
+                            System.out.printf("%-12s %-10s %-10s %12d %10.1f %10d %6s%n", entry.name,
+                                    iterative ? "iterative" : "fixed", algorithm, engine.getNodeCount(),
+                                    time / 1e6, engine.getResearches(), score == reference);
+                        }
+                    }
+                }
+            }
+            for (GameSearch.Algorithm algorithm : GameSearch.Algorithm.values()) {
+                System.out.printf("%-12s %-10s %-10s %12d %10.1f%n", "total", iterative ? "iterative" : "fixed",
+                        algorithm, totalNodes[algorithm.ordinal()], totalTime[algorithm.ordinal()] / 1e6);
+            }
+        }
+    }
+
+    // Temps de recherche avec évaluation incrémentale et avec recalcul complet (l'identité au bit près des
+    // deux évaluations est vérifiée par IncrementalEvaluationTest)
+    private static void evaluation(int depth) {
+        List<PositionSuite.Entry> corpus = PositionSuite.random(19L, 100);
+        System.out.printf("%-12s %12s %10s %10s%n", "evaluation", "nodes", "ms", "ns/node");
+        for (boolean useIncremental : new boolean[]{false, true}) {
+            MancalaEngine engine = new MancalaEngine();
+            engine.setIncrementalEvaluation(useIncremental);
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                engine.setPosition(corpus.get(round).position());
+                engine.search(0, depth, corpus.get(round).player);
+            }
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (PositionSuite.Entry entry : corpus) {
+                engine.setPosition(entry.position());
+                engine.search(0, depth, entry.player);
+                nodes += engine.getNodeCount();
+            }
+            long time = System.nanoTime() - start;
+            System.out.printf("%-12s %12d %10.1f %10.1f%n", useIncremental ? "incremental" : "full",
+                    nodes, time / 1e6, (double) time / nodes);
+        }
+    }
+
+    // Finales couvertes par la base (EndgameDatabase.DEFAULT_DIRECTORY) : proportion de coups parfaits
+    // choisis par la recherche à profondeur fixe, sans puis avec la base consultée aux feuilles
+    private static void endgame(int depth) {
+        EndgameDatabase database = EndgameDatabase.openIfPresent(EndgameDatabase.DEFAULT_DIRECTORY);
+        if (database == null) {
+            System.out.println("No endgame tables: run EndgameGenerator first");
+            return;
+        }
+        Mancala game = new Mancala();
+        Random random = new Random(23L);
+        List<PositionSuite.Entry> corpus = new ArrayList<>();
+        while (corpus.size() < 300) {
+            // Partie aléatoire jusqu'à ce qu'il reste au plus getMaxSeeds() graines sur les pits
+            MancalaPosition position = new MancalaPosition();
+            boolean player = random.nextBoolean();
+            while (!game.drawnPosition(position) && EndgameDatabase.pitSeeds(position.board) > database.getMaxSeeds()) {
+                int start = player ? 0 : 7;
+                int pit;
+                do {
+                    pit = start + random.nextInt(6);
+                } while (position.board[pit] == 0);
+                game.makeMove(position, player, new MancalaMove(pit));
+                if (!position.extraTurn) {
+                    player = !player;
+                }
+            }
+            if (!game.drawnPosition(position)) {
+                corpus.add(new PositionSuite.Entry("endgame-" + corpus.size(), player, position.board.clone()));
+            }
+        }
+
+        System.out.printf("%-9s %8s %12s %10s%n", "tables", "perfect", "nodes", "ms");
+        for (boolean useDatabase : new boolean[]{false, true}) {
+            MancalaEngine engine = new MancalaEngine();
+            engine.setTranspositionTable(new TranspositionTable(Mancala.DEFAULT_TABLE_BITS));
+            engine.setEndgameDatabase(useDatabase ? database : null);
+            int perfect = 0;
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (PositionSuite.Entry entry : corpus) {
+                MancalaPosition position = entry.position();
+                engine.setPosition(position);
+                engine.search(0, depth, entry.player);
+                nodes += engine.getNodeCount();
+                game.makeMove(position, entry.player, new MancalaMove(engine.getBestMove()));
+                int margin = position.extraTurn ? database.probe(position.board, entry.player)
+                        : -database.probe(position.board, !entry.player);
+                if (margin == database.probe(entry.position().board, entry.player)) perfect++;
+            }
+            System.out.printf("%-9s %7.1f%% %12d %10.1f%n", useDatabase ? "on" : "off",
+                    100.0 * perfect / corpus.size(), nodes, (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    // Profondeurs depth, depth + 2 et depth + 4, sans puis avec quiescence, à profondeur fixe sur un corpus
+    // aléatoire : nœuds, temps et proportion des coups identiques à ceux d'une recherche à depth + 8
+    private static void quiescence(int depth) {
+        List<PositionSuite.Entry> corpus = PositionSuite.random(29L, 200);
+        int[] reference = new int[corpus.size()];
+        MancalaEngine engine = new MancalaEngine();
+        TranspositionTable table = new TranspositionTable(Mancala.DEFAULT_TABLE_BITS);
+        engine.setTranspositionTable(table);
+        for (int i = 0; i < corpus.size(); i++) {
+            table.clear();
+            engine.setPosition(corpus.get(i).position());
+            engine.search(0, depth + 8, corpus.get(i).player);
+            reference[i] = engine.getBestMove();
+        }
+
+        System.out.printf("%-6s %-10s %12s %10s %10s%n", "depth", "quiescence", "nodes", "ms", "agreement");
+        for (int extra = 0; extra <= 4; extra += 2) {
+            for (int quiescenceDepth : new int[]{0, Mancala.RECOMMENDED_QUIESCENCE_DEPTH}) {
+                engine.setQuiescenceDepth(quiescenceDepth);
+                long nodes = 0;
+                long time = 0;
+                int agree = 0;
+                for (int round = 0; round <= WARMUP_ROUNDS; round++) { // Préchauffage, puis la mesure
+                    nodes = 0;
+                    time = 0;
+                    agree = 0;
+                    for (int i = 0; i < corpus.size(); i++) {
+                        table.clear();
+                        engine.setPosition(corpus.get(i).position());
+                        long start = System.nanoTime();
+                        engine.search(0, depth + extra, corpus.get(i).player);
+                        time += System.nanoTime() - start;
+                        nodes += engine.getNodeCount();
+                        if (engine.getBestMove() == reference[i]) agree++;
+                    }
+                }
+                System.out.printf("%-6d %-10s %12d %10.1f %9.1f%%%n", depth + extra,
+                        quiescenceDepth > 0 ? String.valueOf(quiescenceDepth) : "off", nodes, time / 1e6,
+                        100.0 * agree / corpus.size());
+            }
+        }
+    }
+
+    // Résolution exacte (MancalaEngine.solve) de finales aléatoires à au plus seeds graines sur les pits,
+    // sans puis avec les coupures sur les bornes de la différence finale : différence exacte, puis seulement
+    // gain / nulle / perte (fenêtre -1, 1). Nœuds, temps, nœuds coupés par les bornes et nœuds évités
+    private static void bounds(int seeds) {
+        List<PositionSuite.Entry> corpus = PositionSuite.endgames(31L, seeds, 50);
+
+        System.out.printf("%-8s %-7s %12s %10s %12s %6s%n", "mode", "bounds", "nodes", "ms", "bound cuts", "same");
+        MancalaEngine engine = new MancalaEngine();
+        TranspositionTable table = new TranspositionTable(Mancala.DEFAULT_TABLE_BITS);
+        engine.setTranspositionTable(table);
+        for (boolean outcome : new boolean[]{false, true}) {
+            int[] reference = new int[corpus.size()];
+            long[] totalNodes = new long[2];
+            for (boolean boundPruning : new boolean[]{false, true}) {
+                engine.setBoundPruning(boundPruning);
+                long nodes = 0;
+                long cutoffs = 0;
+                int same = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < corpus.size(); i++) {
+                    PositionSuite.Entry entry = corpus.get(i);
+                    table.clear();
+                    engine.setPosition(entry.position());
+                    int value = outcome ? Integer.signum(engine.solve(entry.player, -1, 1, 0))
+                            : engine.solve(entry.player, 0);
+                    nodes += engine.getNodeCount();
+                    cutoffs += engine.getBoundCutoffs();
+                    if (!boundPruning) {
+                        reference[i] = value;
+                    } else if (value == reference[i]) {
+                        same++;
+                    }
+                }
+                totalNodes[boundPruning ? 1 : 0] = nodes;
+                System.out.printf("%-8s %-7s %12d %10.1f %12d %6s%n", outcome ? "outcome" : "margin",
+                        boundPruning ? "on" : "off", nodes, (System.nanoTime() - start) / 1e6, cutoffs,
+                        boundPruning ? same + "/" + corpus.size() : "");
+            }
+            System.out.printf("%-8s %-7s %12d %9.1f%%%n", "", "avoided", totalNodes[0] - totalNodes[1],
+                    100.0 * (totalNodes[0] - totalNodes[1]) / totalNodes[0]);
+        }
+    }
+
+    // Coût des preuves de ProofNumberSearch comparé à MancalaEngine.solve sur des finales aléatoires à au
+    // plus seeds graines, puis coût d'une preuve de milieu de partie interrompue à mi-chemin et reprise
+    // depuis son point de reprise (issues et coups prouvés vérifiés par ProofNumberSearchTest)
+    private static void proofNumbers(int seeds) throws IOException {
+        List<PositionSuite.Entry> corpus = PositionSuite.endgames(37L, seeds, 100);
+        MancalaEngine engine = new MancalaEngine();
+        TranspositionTable table = new TranspositionTable(Mancala.DEFAULT_TABLE_BITS);
+        engine.setTranspositionTable(table);
+        long solveNodes = 0;
+        long solveTime = 0;
+        long proofNodes = 0;
+        long proofTime = 0;
+        for (PositionSuite.Entry entry : corpus) {
+            table.clear();
+            engine.setPosition(entry.position());
+            long start = System.nanoTime();
+            engine.solve(entry.player, 0);
+            solveTime += System.nanoTime() - start;
+            solveNodes += engine.getNodeCount();
+
+            ProofNumberSearch search = new ProofNumberSearch(entry.position(), entry.player, 16);
+            start = System.nanoTime();
+            search.solve();
+            proofTime += System.nanoTime() - start;
+            proofNodes += search.getNodeCount();
+        }
+        System.out.printf("%-20s %12s %10s%n", "", "nodes", "ms");
+        System.out.printf("%-20s %12d %10.1f%n", "MancalaEngine.solve", solveNodes, solveTime / 1e6);
+        System.out.printf("%-20s %12d %10.1f%n", "ProofNumberSearch", proofNodes, proofTime / 1e6);
+
+        // Reprise : même preuve sans interruption, puis arrêtée à la moitié de ses nœuds et reprise
+        MancalaPosition midgame = PackedPosition.of(new int[]{4, 4, 5, 5, 0, 5, 2, 4, 4, 4, 4, 5, 0, 2}).toPosition();
+        ProofNumberSearch search = new ProofNumberSearch(midgame, GameSearch.HUMAN, 128);
+        ProofNumberSearch.Outcome reference = search.solve();
+        long total = search.getNodeCount();
+        Path checkpoint = Files.createTempFile("proof", ".ckpt");
+        Files.delete(checkpoint); // Aucun point de reprise au départ
+        try {
+            ProofNumberSearch first = new ProofNumberSearch(midgame, GameSearch.HUMAN, 128);
+            first.setCheckpoint(checkpoint, 60);
+            first.setLimits(total / 2, 0);
+            first.solve();
+            ProofNumberSearch resumed = new ProofNumberSearch(midgame, GameSearch.HUMAN, 128);
+            resumed.setCheckpoint(checkpoint, 60);
+            long before = resumed.getNodeCount();
+            ProofNumberSearch.Outcome outcome = resumed.solve();
+            System.out.printf("uninterrupted: %s in %d nodes; interrupted after %d nodes, resumed: %s after %d more%n",
+                    reference, total, before, outcome, resumed.getNodeCount() - before);
+        } finally {
+            Files.deleteIfExists(checkpoint);
+        }
+    }
+
+    // Rapport de SearchMetrics pour chaque position de la suite (approfondissement itératif),
+    // puis coût de la collecte : temps de recherche sans et avec collecteur
+    private static void metrics(int depth) {
+        List<PositionSuite.Entry> suite = PositionSuite.fixed();
+        SearchMetrics metrics = new SearchMetrics();
+        MancalaEngine engine = new MancalaEngine();
+        engine.setSearchMetrics(metrics);
+        for (PositionSuite.Entry entry : suite) {
+            engine.setPosition(entry.position());
+            metrics.begin();
+            float score = engine.searchIterative(0, entry.player, SearchLimits.depth(depth));
+            SearchMetrics.Snapshot snapshot = metrics.end(engine.getCompletedDepth(), engine.getBestMove(), score);
+            System.out.println("== " + entry.name);
+            System.out.println(snapshot);
+        }
+
+        List<PositionSuite.Entry> corpus = PositionSuite.random(19L, 100);
+        System.out.printf("%-9s %12s %10s %10s%n", "metrics", "nodes", "ms", "ns/node");
+        for (int round = 0; round < 2; round++) { // Préchauffage puis mesure
+            for (boolean collect : new boolean[]{false, true}) {
+                engine.setSearchMetrics(collect ? metrics : null);
+                long nodes = 0;
+                long start = System.nanoTime();
+                for (PositionSuite.Entry entry : corpus) {
+                    engine.setPosition(entry.position());
+                    if (collect) metrics.begin();
+                    float score = engine.search(0, depth, entry.player);
+                    if (collect) metrics.end(depth, engine.getBestMove(), score);
+                    nodes += engine.getNodeCount();
+                }
+                long time = System.nanoTime() - start;
+                if (round == 0) continue;
+                System.out.printf("%-9s %12d %10.1f %10.1f%n", collect ? "on" : "off", nodes, time / 1e6,
+                        (double) time / nodes);
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
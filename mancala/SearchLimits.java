@@ -0,0 +1,42 @@
+package GameSearch.mancala;
+
+// Limites d'une recherche par approfondissement itératif : profondeur, temps et nombre de nœuds
+// Une limite de temps ou de nœuds à 0 signifie « pas de limite »
+public final class SearchLimits {
+    public static final int MAX_DEPTH = 64; // Profondeur nominale maximale d'une itération
+
+    public final int maxDepth;
+    public final long timeMillis;
+    public final long maxNodes;
+
+    public SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Invalid search depth: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        this.timeMillis = timeMillis;
+        this.maxNodes = maxNodes;
+    }
+
+    // Profondeur fixe, sans limite de temps
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    // Budget de temps par coup
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, timeMillis, 0);
+    }
+
+    // Budget de nœuds par coup (reproductible, indépendant de la charge de la machine)
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, 0, maxNodes);
+    }
+
+    @Override
+    public String toString() {
+        return "depth<=" + maxDepth
+                + (timeMillis > 0 ? ", " + timeMillis + " ms" : "")
+                + (maxNodes > 0 ? ", " + maxNodes + " nodes" : "");
+    }
+}
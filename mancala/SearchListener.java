@@ -0,0 +1,7 @@
+package GameSearch.mancala;
+
+// Progression de l'approfondissement itératif : appelée par le thread de recherche à la fin de chaque
+// itération terminée (une interface graphique doit repasser par son propre thread pour s'afficher)
+public interface SearchListener {
+    void iterationCompleted(int depth, int bestMove, float score, long nodes);
+}
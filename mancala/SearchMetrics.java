@@ -0,0 +1,271 @@
+package GameSearch.mancala;
+
+import java.util.Arrays;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Mesures d'une décision de coup : nœuds par ply, facteur de branchement, position dans la liste
+// des coups qui provoquent une coupure, évaluations et temps réel.
+// Le collecteur n'est pas thread-safe (un par moteur, cf. merge pour ParallelSearch) ; la recherche
+// ne l'appelle que s'il est installé, la collecte ne coûte donc rien lorsqu'elle est désactivée.
+// Chaque décision produit un événement JFR (GameSearch.mancala.Search) et un Snapshot immuable.
+public final class SearchMetrics {
+    public static final int MAX_PLY = MancalaEngine.MAX_PLY;
+    public static final int MAX_MOVES = 6; // Coups au plus par position
+
+    private final long[] nodesPerPly = new long[MAX_PLY];
+    private final long[] cutoffsByIndex = new long[MAX_MOVES]; // Coupures selon le rang du coup qui coupe
+    private final long[] iterationNodes = new long[MAX_PLY + 1]; // Nœuds cumulés à la fin de chaque itération
+    private int iterations;
+    private long evaluations; // Évaluations heuristiques aux feuilles
+    private long startTime;
+    private SearchEvent event;
+    private Snapshot lastSnapshot;
+
+    // Début d'une décision : remet les compteurs à zéro
+    public void begin() {
+        clear();
+        startTime = System.nanoTime();
+        event = new SearchEvent();
+        event.begin();
+    }
+
+    // Fin d'une décision : fige les mesures et émet l'événement JFR
+    public Snapshot end(int depth, int bestMove, float score) {
+        long wallTime = System.nanoTime() - startTime;
+        Snapshot snapshot = new Snapshot(depth, bestMove, score, wallTime, evaluations,
+                Arrays.copyOf(nodesPerPly, lastPly() + 1), cutoffsByIndex.clone(),
+                Arrays.copyOf(iterationNodes, iterations + 1));
+        lastSnapshot = snapshot;
+        SearchEvent searchEvent = event;
+        event = null;
+        if (searchEvent != null) {
+            searchEvent.end();
+            if (searchEvent.shouldCommit()) {
+                searchEvent.depth = depth;
+                searchEvent.bestMove = bestMove;
+                searchEvent.score = score;
+                searchEvent.nodes = snapshot.getNodes();
+                searchEvent.evaluations = evaluations;
+                searchEvent.cutoffs = snapshot.getCutoffs();
+                searchEvent.firstMoveCutoffRate = snapshot.getFirstMoveCutoffRate();
+                searchEvent.effectiveBranchingFactor = snapshot.getEffectiveBranchingFactor();
+                searchEvent.nodesPerSecond = snapshot.getNodesPerSecond();
+                searchEvent.nodesPerPly = Arrays.toString(snapshot.nodesPerPly);
+                searchEvent.cutoffHistogram = Arrays.toString(snapshot.cutoffsByIndex);
+                searchEvent.commit();
+            }
+        }
+        return snapshot;
+    }
+
+    // Mesures de la dernière décision terminée (null avant la première)
+    public Snapshot getLastSnapshot() {
+        return lastSnapshot;
+    }
+
+    void clear() {
+        Arrays.fill(nodesPerPly, 0L);
+        Arrays.fill(cutoffsByIndex, 0L);
+        Arrays.fill(iterationNodes, 0L);
+        iterations = 0;
+        evaluations = 0;
+    }
+
+    void node(int ply) {
+        nodesPerPly[ply < MAX_PLY ? ply : MAX_PLY - 1]++;
+    }
+
+    void evaluation() {
+        evaluations++;
+    }
+
+    // Coupure provoquée par le coup de rang index dans la liste ordonnée
+    void cutoff(int index) {
+        cutoffsByIndex[index < MAX_MOVES ? index : MAX_MOVES - 1]++;
+    }
+
+    // Fin de l'itération depth de l'approfondissement itératif (nodes : total depuis le début)
+    void iteration(int depth, long nodes) {
+        if (depth <= MAX_PLY) {
+            iterationNodes[depth] = nodes;
+            iterations = Math.max(iterations, depth);
+        }
+    }
+
+    // Ajoute les mesures d'un autre collecteur, ses plies décalés de plyOffset (sous-arbre d'un coup racine)
+    void merge(SearchMetrics other, int plyOffset) {
+        for (int ply = 0; ply + plyOffset < MAX_PLY; ply++) {
+            nodesPerPly[ply + plyOffset] += other.nodesPerPly[ply];
+        }
+        for (int i = 0; i < MAX_MOVES; i++) {
+            cutoffsByIndex[i] += other.cutoffsByIndex[i];
+        }
+        evaluations += other.evaluations;
+    }
+
+    private int lastPly() {
+        int ply = MAX_PLY - 1;
+        while (ply > 0 && nodesPerPly[ply] == 0) {
+            ply--;
+        }
+        return ply;
+    }
+
+    // Mesures figées d'une décision, affichables par les interfaces et les outils en ligne de commande
+    public static final class Snapshot {
+        private final int depth;
+        private final int bestMove;
+        private final float score;
+        private final long wallTimeNanos;
+        private final long evaluations;
+        private final long[] nodesPerPly;
+        private final long[] cutoffsByIndex;
+        private final long[] iterationNodes;
+
+        Snapshot(int depth, int bestMove, float score, long wallTimeNanos, long evaluations,
+                 long[] nodesPerPly, long[] cutoffsByIndex, long[] iterationNodes) {
+            this.depth = depth;
+            this.bestMove = bestMove;
+            this.score = score;
+            this.wallTimeNanos = wallTimeNanos;
+            this.evaluations = evaluations;
+            this.nodesPerPly = nodesPerPly;
+            this.cutoffsByIndex = cutoffsByIndex;
+            this.iterationNodes = iterationNodes;
+        }
+
+        // Profondeur de la dernière itération terminée
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getBestMove() {
+            return bestMove;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        public long getWallTimeNanos() {
+            return wallTimeNanos;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getNodes() {
+            long nodes = 0;
+            for (long count : nodesPerPly) {
+                nodes += count;
+            }
+            return nodes;
+        }
+
+        public double getNodesPerSecond() {
+            return wallTimeNanos > 0 ? getNodes() * 1e9 / wallTimeNanos : 0.0;
+        }
+
+        // Nœuds visités à chaque ply (toutes itérations confondues)
+        public long[] getNodesPerPly() {
+            return nodesPerPly.clone();
+        }
+
+        // Coupures selon le rang (0 = premier coup essayé) du coup qui les a provoquées
+        public long[] getCutoffHistogram() {
+            return cutoffsByIndex.clone();
+        }
+
+        public long getCutoffs() {
+            long cutoffs = 0;
+            for (long count : cutoffsByIndex) {
+                cutoffs += count;
+            }
+            return cutoffs;
+        }
+
+        // Part des coupures obtenues par le premier coup essayé (qualité de l'ordre des coups)
+        public double getFirstMoveCutoffRate() {
+            long cutoffs = getCutoffs();
+            return cutoffs == 0 ? 0.0 : (double) cutoffsByIndex[0] / cutoffs;
+        }
+
+        // Facteur de branchement effectif : rapport des nœuds des deux dernières itérations,
+        // ou racine depth-ième du nombre de nœuds pour une recherche à profondeur fixe
+        public double getEffectiveBranchingFactor() {
+            int last = iterationNodes.length - 1;
+            if (last >= 2) {
+                long previous = iterationNodes[last - 1] - iterationNodes[last - 2];
+                long current = iterationNodes[last] - iterationNodes[last - 1];
+                if (previous > 0) {
+                    return (double) current / previous;
+                }
+            }
+            return depth > 0 ? Math.pow(getNodes(), 1.0 / depth) : 0.0;
+        }
+
+        // Facteur de branchement observé entre un ply et le suivant
+        public double getBranchingFactor(int ply) {
+            if (ply + 1 >= nodesPerPly.length || nodesPerPly[ply] == 0) {
+                return 0.0;
+            }
+            return (double) nodesPerPly[ply + 1] / nodesPerPly[ply];
+        }
+
+        // Résumé sur une ligne (barre d'état des interfaces)
+        public String summary() {
+            return String.format("depth %d, %,d nodes in %.0f ms (%,.0f nodes/s), EBF %.2f, first-move cutoffs %.0f%%",
+                    depth, getNodes(), wallTimeNanos / 1e6, getNodesPerSecond(), getEffectiveBranchingFactor(),
+                    getFirstMoveCutoffRate() * 100);
+        }
+
+        // Rapport détaillé, ply par ply
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder(summary());
+            report.append(String.format("%nbest pit %d, score %.2f, %,d evaluations%n", bestMove, score, evaluations));
+            report.append(String.format("%4s %14s %8s%n", "ply", "nodes", "branch"));
+            for (int ply = 0; ply < nodesPerPly.length; ply++) {
+                report.append(String.format("%4d %14d %8.2f%n", ply, nodesPerPly[ply], getBranchingFactor(ply)));
+            }
+            report.append("cutoffs by move rank: ").append(Arrays.toString(cutoffsByIndex));
+            return report.toString();
+        }
+    }
+
+    // Événement JFR d'une décision (jfr print --events GameSearch.mancala.Search)
+    @Name("GameSearch.mancala.Search")
+    @Label("Mancala Search")
+    @Category("Mancala")
+    @Description("Metrics of one move decision")
+    static final class SearchEvent extends Event {
+        @Label("Depth")
+        int depth;
+        @Label("Best Pit")
+        int bestMove;
+        @Label("Score")
+        float score;
+        @Label("Nodes")
+        long nodes;
+        @Label("Evaluations")
+        long evaluations;
+        @Label("Cutoffs")
+        long cutoffs;
+        @Label("First-Move Cutoff Rate")
+        double firstMoveCutoffRate;
+        @Label("Effective Branching Factor")
+        double effectiveBranchingFactor;
+        @Label("Nodes per Second")
+        double nodesPerSecond;
+        @Label("Nodes per Ply")
+        String nodesPerPly;
+        @Label("Cutoffs by Move Rank")
+        String cutoffHistogram;
+    }
+}
@@ -0,0 +1,22 @@
+package GameSearch.mancala;
+
+// Résultat immuable d'une recherche : meilleur pit (-1 si la position est finale), score du point de vue
+// du joueur au trait, profondeur de la dernière itération terminée et nœuds visités
+public final class SearchResult {
+    public final int bestMove;
+    public final float score;
+    public final int depth;
+    public final long nodes;
+
+    public SearchResult(int bestMove, float score, int depth, long nodes) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+    }
+
+    @Override
+    public String toString() {
+        return "pit " + bestMove + ", score " + score + ", depth " + depth + ", " + nodes + " nodes";
+    }
+}
@@ -0,0 +1,101 @@
+package GameSearch.mancala;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Moteur réentrant : un seul objet sert, sans verrou, les recherches de nombreuses parties à la fois.
+// La configuration (EngineConfig) est immuable. Chaque recherche emprunte à une réserve sans verrou un
+// MancalaEngine (plateau, piles d'annulation, ordre des coups) dont elle est seule à se servir, et le rend
+// à la fin ; le résultat est un SearchResult immuable. La table de transposition est partagée (sans verrou,
+// cf. TranspositionTable) et la base de finales n'est que lue.
+// Les killers et l'historique sont oubliés au début de chaque recherche : sans table de transposition et
+// avec une limite en nœuds, le résultat ne dépend que de la position, du joueur et de la configuration.
+public final class SharedSearch {
+    private final EngineConfig config;
+    private final TranspositionTable transpositionTable; // null = aucune
+    private final EndgameDatabase endgameDatabase;       // null = aucune
+    private final ConcurrentLinkedQueue<MancalaEngine> idle = new ConcurrentLinkedQueue<>();
+    private final LongAdder engines = new LongAdder(); // Moteurs créés (au plus le nombre de recherches simultanées)
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+
+    public SharedSearch(EngineConfig config, TranspositionTable transpositionTable, EndgameDatabase endgameDatabase) {
+        if (config.mctsThreads > 0) {
+            // L'arbre de MonteCarloSearch appartient à une seule partie
+            throw new IllegalArgumentException("SharedSearch only supports alpha-beta engines: " + config);
+        }
+        this.config = config;
+        this.transpositionTable = transpositionTable;
+        this.endgameDatabase = endgameDatabase;
+    }
+
+    // Table de transposition partagée de la taille indiquée par la configuration, sans base de finales
+    public SharedSearch(EngineConfig config) {
+        this(config, new TranspositionTable(config.tableBits), null);
+    }
+
+    public EngineConfig getConfig() {
+        return config;
+    }
+
+    // Meilleur coup du joueur au trait dans les limites de la configuration ; la position n'est pas modifiée
+    public SearchResult search(MancalaPosition position, boolean player) {
+        return search(position, player, null);
+    }
+
+    // Idem, avec un drapeau d'arrêt propre à cette recherche (null = aucun) : une fois levé, la recherche
+    // renvoie le résultat de sa dernière itération terminée
+    public SearchResult search(MancalaPosition position, boolean player, AtomicBoolean stopFlag) {
+        MancalaEngine engine = acquire();
+        try {
+            engine.setStopFlag(stopFlag);
+            engine.setPosition(position);
+            float score = engine.searchIterative(0, player, config.limits);
+            SearchResult result = new SearchResult(engine.getBestMove(), score, engine.getCompletedDepth(),
+                    engine.getNodeCount());
+            searches.increment();
+            nodes.add(result.nodes);
+            return result;
+        } finally {
+            engine.setStopFlag(null);
+            idle.offer(engine);
+        }
+    }
+
+    // Moteur libre de la réserve, ou nouveau moteur réglé selon la configuration
+    private MancalaEngine acquire() {
+        MancalaEngine engine = idle.poll();
+        if (engine == null) {
+            engine = new MancalaEngine();
+            engine.setTranspositionTable(transpositionTable);
+            engine.setEndgameDatabase(endgameDatabase);
+            engine.setEvaluationWeights(config.weights);
+            engine.setAlgorithm(config.algorithm);
+            engine.setQuiescenceDepth(config.quiescenceDepth);
+            engine.getMoveOrdering().setMode(config.ordering);
+            engines.increment();
+        }
+        engine.getMoveOrdering().clear();
+        return engine;
+    }
+
+    // Nombre de moteurs de travail créés depuis la construction
+    public long getEngineCount() {
+        return engines.sum();
+    }
+
+    // Recherches terminées et nœuds visités depuis la construction
+    public long getSearchCount() {
+        return searches.sum();
+    }
+
+    public long getNodeCount() {
+        return nodes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SharedSearch[" + config + ", " + getEngineCount() + " engines, " + getSearchCount() + " searches]";
+    }
+}
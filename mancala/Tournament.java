@@ -0,0 +1,412 @@
+package GameSearch.mancala;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Tournoi d'auto-jeu entre configurations du moteur (EngineConfig), sans interface graphique.
+// Chaque paire de configurations joue des paires de parties : une ouverture aléatoire de quelques coups,
+// jouée deux fois en échangeant les côtés. Les parties se déroulent en parallèle sur tous les cœurs ;
+// chaque thread a ses propres moteurs (un par configuration), remis à neuf avant chaque partie (table de
+// transposition vidée, ordre des coups réinitialisé) : aucun état n'est partagé entre deux parties.
+// Avec des limites en nœuds, les résultats ne dépendent ni du nombre de threads ni de la charge.
+//
+// Usage : Tournament --engine spec --engine spec [...] [--games n] [--threads n] [--random-plies n]
+//                    [--seed n] [--archive file]      (spec : cf. EngineConfig.parse)
+public class Tournament {
+    private static final double Z_95 = 1.959964; // Intervalle de confiance à 95 %
+
+    private final List<EngineConfig> configs;
+    private final int threads;
+    private int gamesPerPair = 100;
+    private int randomPlies = 4;
+    private long seed = 1;
+    private GameArchive archive; // Parties jouées (null = non conservées)
+
+    private final ThreadLocal<Mancala[]> engines;
+    private final Queue<Mancala> created = new ConcurrentLinkedQueue<>(); // Moteurs à arrêter en fin de tournoi
+    private Match[] matches;
+    private EngineStats[] stats;
+
+    // Résultats d'une paire de configurations, du point de vue de la première
+    public static final class Match {
+        public final EngineConfig first;
+        public final EngineConfig second;
+        private int wins;
+        private int draws;
+        private int losses;
+        private final int[] pairScores = new int[5]; // Paires de parties selon leur score (0, 1/2, 1, 3/2, 2)
+
+        Match(EngineConfig first, EngineConfig second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        synchronized void add(int firstScore, int secondScore) {
+            for (int score : new int[]{firstScore, secondScore}) {
+                if (score > 0) wins++;
+                else if (score == 0) draws++;
+                else losses++;
+            }
+            pairScores[points(firstScore) + points(secondScore)]++;
+        }
+
+        // Demi-points d'une partie : 2 pour une victoire, 1 pour une nulle
+        private static int points(int score) {
+            return score > 0 ? 2 : score == 0 ? 1 : 0;
+        }
+
+        public synchronized int getGames() {
+            return wins + draws + losses;
+        }
+
+        public synchronized double getScore() {
+            int games = getGames();
+            return games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+        }
+
+        // Écart type du score moyen, calculé sur les paires de parties (une même ouverture jouée des deux
+        // côtés donne deux résultats corrélés)
+        public synchronized double getStandardError() {
+            int pairs = 0;
+            for (int count : pairScores) {
+                pairs += count;
+            }
+            if (pairs < 2) {
+                return 0.0;
+            }
+            double mean = getScore();
+            double variance = 0.0;
+            for (int i = 0; i < pairScores.length; i++) {
+                double deviation = i / 4.0 - mean;
+                variance += pairScores[i] * deviation * deviation;
+            }
+            return Math.sqrt(variance / pairs / pairs);
+        }
+
+        public double getElo() {
+            return elo(getScore());
+        }
+
+        @Override
+        public synchronized String toString() {
+            double score = getScore();
+            double margin = Z_95 * getStandardError();
+            return String.format("%s vs %s: %d games, +%d =%d -%d, score %.1f%%, Elo %+.1f (95%%: %+.1f to %+.1f)",
+                    first.name, second.name, getGames(), wins, draws, losses, score * 100, elo(score),
+                    elo(score - margin), elo(score + margin));
+        }
+    }
+
+    // Mesures des coups d'une configuration
+    public static final class EngineStats {
+        public final EngineConfig config;
+        private final LongAdder moves = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder depth = new LongAdder();
+
+        EngineStats(EngineConfig config) {
+            this.config = config;
+        }
+
+        void add(long moveNanos, long moveNodes, int moveDepth) {
+            moves.increment();
+            nanos.add(moveNanos);
+            nodes.add(moveNodes);
+            depth.add(moveDepth);
+        }
+
+        public double getMillisPerMove() {
+            long count = moves.sum();
+            return count == 0 ? 0.0 : nanos.sum() / 1e6 / count;
+        }
+
+        @Override
+        public String toString() {
+            long count = Math.max(moves.sum(), 1);
+            return String.format("%-12s %8d moves %9.2f ms/move %12.0f nodes/move  depth %.1f", config.name,
+                    moves.sum(), getMillisPerMove(), nodes.sum() / (double) count, depth.sum() / (double) count);
+        }
+    }
+
+    public Tournament(List<EngineConfig> configs, int threads) {
+        if (configs.size() < 2) {
+            throw new IllegalArgumentException("A tournament needs at least two engines");
+        }
+        this.configs = new ArrayList<>(configs);
+        this.threads = threads;
+        this.engines = ThreadLocal.withInitial(() -> new Mancala[this.configs.size()]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<EngineConfig> configs = new ArrayList<>();
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int randomPlies = 4;
+        long seed = 1;
+        String archiveFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--engine":
+                    configs.add(EngineConfig.parse(args[++i]));
+                    break;
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--random-plies":
+                    randomPlies = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--archive":
+                    archiveFile = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (configs.size() < 2) {
+            System.out.println("Usage: Tournament --engine spec --engine spec [...] [--games n] [--threads n]"
+                    + " [--random-plies n] [--seed n] [--archive file]");
+            System.out.println("  spec: name:difficulty=MEDIUM,depth=8,time=100,nodes=20000,weights=2/1.5/1/1/1.5,"
+                    + "algorithm=PVS,ordering=HEURISTIC,table=20,quiescence=8 (or mcts=threads,playout=RANDOM|HEURISTIC)");
+            return;
+        }
+
+        Tournament tournament = new Tournament(configs, threads);
+        tournament.setGamesPerPair(games);
+        tournament.setRandomPlies(randomPlies);
+        tournament.setSeed(seed);
+        for (EngineConfig config : configs) {
+            System.out.println(config);
+        }
+        GameArchive archive = archiveFile != null ? GameArchive.open(Paths.get(archiveFile)) : null;
+        try {
+            tournament.setArchive(archive);
+            long start = System.nanoTime();
+            tournament.run();
+            System.out.printf("%nTournament finished in %.1f s (%d threads)%n", (System.nanoTime() - start) / 1e9,
+                    threads);
+            System.out.println(tournament.report());
+        } finally {
+            if (archive != null) {
+                archive.close();
+            }
+        }
+    }
+
+    // Nombre de parties de chaque paire de configurations (arrondi au nombre pair supérieur)
+    public void setGamesPerPair(int gamesPerPair) {
+        this.gamesPerPair = gamesPerPair + (gamesPerPair & 1);
+    }
+
+    // Coups aléatoires joués avant que les moteurs ne prennent la main
+    public void setRandomPlies(int randomPlies) {
+        this.randomPlies = randomPlies;
+    }
+
+    // Graine des ouvertures aléatoires (mêmes ouvertures pour chaque paire de configurations)
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // Archive où chaque partie terminée est ajoutée (null = aucune)
+    public void setArchive(GameArchive archive) {
+        this.archive = archive;
+    }
+
+    // Joue toutes les parties (toutes les paires de configurations) et attend leur fin
+    public void run() throws InterruptedException {
+        int count = configs.size();
+        stats = new EngineStats[count];
+        for (int i = 0; i < count; i++) {
+            stats[i] = new EngineStats(configs.get(i));
+        }
+        List<Match> list = new ArrayList<>();
+        List<int[]> pairs = new ArrayList<>();
+        for (int a = 0; a < count; a++) {
+            for (int b = a + 1; b < count; b++) {
+                list.add(new Match(configs.get(a), configs.get(b)));
+                pairs.add(new int[]{a, b});
+            }
+        }
+        matches = list.toArray(new Match[0]);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "mancala-tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int openings = gamesPerPair / 2;
+        int total = matches.length * gamesPerPair;
+        AtomicInteger played = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            // Ouverture par ouverture, pour que des résultats partiels couvrent toutes les paires
+            for (int opening = 0; opening < openings; opening++) {
+                int[] moves = randomOpening(opening);
+                for (int m = 0; m < matches.length; m++) {
+                    Match match = matches[m];
+                    int a = pairs.get(m)[0];
+                    int b = pairs.get(m)[1];
+                    futures.add(executor.submit(() -> {
+                        int firstScore = play(a, b, moves);
+                        int secondScore = -play(b, a, moves);
+                        match.add(firstScore, secondScore);
+                        int done = played.addAndGet(2);
+                        if (done % Math.max(total / 10, 2) < 2) {
+                            System.out.printf("%d/%d games%n", done, total);
+                        }
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    throw new IllegalStateException("Tournament game failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            // Les threads du tournoi sont arrêtés : leurs moteurs ne serviront plus
+            Mancala engine;
+            while ((engine = created.poll()) != null) {
+                if (engine.getMonteCarloSearch() != null) {
+                    engine.getMonteCarloSearch().shutdown();
+                }
+            }
+        }
+        if (archive != null) {
+            try {
+                archive.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to write the game archive: " + e.getMessage());
+            }
+        }
+    }
+
+    public Match[] getMatches() {
+        return matches.clone();
+    }
+
+    public EngineStats[] getEngineStats() {
+        return stats.clone();
+    }
+
+    // Tableau des résultats et des mesures par configuration
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        for (Match match : matches) {
+            report.append(match).append(System.lineSeparator());
+        }
+        for (EngineStats engine : stats) {
+            report.append(engine).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    // Écart Elo correspondant à un score moyen (infini pour 0 % ou 100 %)
+    public static double elo(double score) {
+        if (score <= 0.0) return Double.NEGATIVE_INFINITY;
+        if (score >= 1.0) return Double.POSITIVE_INFINITY;
+        return -400.0 * Math.log10(1.0 / score - 1.0);
+    }
+
+    // Partie entre la configuration first (HUMAN, joue en premier) et second (PROGRAM) après l'ouverture ;
+    // renvoie la différence finale des Mancalas du point de vue de first
+    private int play(int first, int second, int[] opening) {
+        Mancala[] mine = engines.get();
+        Mancala[] sides = {engine(mine, first), engine(mine, second)};
+        int[] indexes = {first, second};
+        MancalaPosition position = new MancalaPosition();
+        GameRecord record = GameRecord.newGame(GameSearch.HUMAN);
+        boolean player = GameSearch.HUMAN;
+        for (int pit : opening) {
+            sides[0].makeMove(position, player, new MancalaMove(pit));
+            record.add(pit);
+            if (!position.extraTurn) {
+                player = !player;
+            }
+        }
+        while (!sides[0].drawnPosition(position)) {
+            int side = player == GameSearch.HUMAN ? 0 : 1;
+            Mancala engine = sides[side];
+            long start = System.nanoTime();
+            List<Object> result = engine.alphaBeta(0, position, player);
+            long time = System.nanoTime() - start;
+            position = (MancalaPosition) result.get(1);
+            stats[indexes[side]].add(time, engine.getNodeCount(), engine.getCompletedDepth());
+            record.add(position.lastMove);
+            if (!position.extraTurn) {
+                player = !player;
+            }
+        }
+        if (archive != null) {
+            synchronized (archive) {
+                try {
+                    archive.append(record);
+                } catch (IOException e) {
+                    System.err.println("Failed to archive a game: " + e.getMessage());
+                }
+            }
+        }
+        return position.board[MancalaPosition.HUMAN_MANCALA] - position.board[MancalaPosition.PROGRAM_MANCALA];
+    }
+
+    // Moteur de la configuration pour le thread courant, remis à neuf pour une nouvelle partie
+    private Mancala engine(Mancala[] mine, int config) {
+        if (mine[config] == null) {
+            mine[config] = configs.get(config).newEngine();
+            created.add(mine[config]);
+        }
+        Mancala engine = mine[config];
+        engine.getTranspositionTable().clear();
+        engine.getMoveOrdering().clear();
+        if (engine.getMonteCarloSearch() != null) {
+            engine.getMonteCarloSearch().clear();
+        }
+        return engine;
+    }
+
+    // Ouverture aléatoire reproductible (coups légaux, partie non terminée)
+    private int[] randomOpening(int index) {
+        Random random = new Random(seed * 1_000_003L + index);
+        while (true) {
+            PackedPosition position = PackedPosition.of(new MancalaPosition().board);
+            boolean player = GameSearch.HUMAN;
+            int[] moves = new int[randomPlies];
+            for (int ply = 0; ply < randomPlies && !position.isTerminal(); ply++) {
+                int start = player ? 0 : 7;
+                int pit;
+                do {
+                    pit = start + random.nextInt(6);
+                } while (position.seeds(pit) == 0);
+                moves[ply] = pit;
+                if (!position.play(pit, player)) {
+                    player = !player;
+                }
+            }
+            if (!position.isTerminal()) {
+                return moves;
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package GameSearch.mancala;
+
+import java.util.Arrays;
+
+// Table de transposition de taille fixe indexée par la clé de Zobrist de la position
+// Chaque entrée tient dans deux long : la clé (xor les données) et les données compactées
+// (valeur, profondeur restante, type de borne, meilleur coup, génération)
+// La table peut être partagée entre threads sans verrou : une entrée déchirée par une écriture
+// concurrente ne vérifie plus clé ^ données et est vue comme absente. Les compteurs sont alors approximatifs
+public class TranspositionTable {
+    public static final int EXACT = 0; // Valeur exacte
+    public static final int LOWER = 1; // Borne inférieure (coupure beta)
+    public static final int UPPER = 2; // Borne supérieure (aucun coup n'a dépassé alpha)
+
+    public static final long MISS = 0L; // Résultat d'une consultation infructueuse
+    public static final int NO_MOVE = 15; // Aucun meilleur coup enregistré
+
+    private static final long OCCUPIED = 1L << 62; // Distingue une entrée valide de MISS
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private int generation; // Âge de la recherche courante (politique de remplacement)
+
+    // Compteurs statistiques
+    private long probes;
+    private long hits;
+    private long misses;
+    private long collisions;
+    private long stores;
+    private long overwrites;
+
+    // Crée une table de 2^sizeBits entrées (16 octets par entrée)
+    public TranspositionTable(int sizeBits) {
+        if (sizeBits < 1 || sizeBits > 30) {
+            throw new IllegalArgumentException("Invalid transposition table size: 2^" + sizeBits);
+        }
+        keys = new long[1 << sizeBits];
+        data = new long[1 << sizeBits];
+        mask = (1 << sizeBits) - 1;
+    }
+
+    // Nombre d'entrées de la table
+    public int capacity() {
+        return keys.length;
+    }
+
+    // Signale le début d'une nouvelle recherche : les anciennes entrées deviennent remplaçables
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    // Vide la table et remet les compteurs à zéro
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        generation = 0;
+        resetStatistics();
+    }
+
+    // Renvoie les données associées à la clé, ou MISS si la position est absente
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        probes++;
+        if (entry != MISS && (keys[index] ^ entry) == key) {
+            hits++;
+            return entry;
+        }
+        misses++;
+        if (entry != MISS) {
+            collisions++; // Case occupée par une autre position
+        }
+        return MISS;
+    }
+
+    // Enregistre le résultat d'une recherche selon la politique « profondeur d'abord, avec vieillissement »
+    public void store(long key, int draft, int bound, float value, int move) {
+        int index = (int) key & mask;
+        long old = data[index];
+        if (old != MISS && (keys[index] ^ old) != key
+                && generation(old) == generation && draft(old) > draft) {
+            return; // On conserve l'entrée plus profonde de la recherche courante
+        }
+        long entry = OCCUPIED
+                | (Float.floatToIntBits(value) & 0xFFFFFFFFL)
+                | ((long) Math.max(0, Math.min(draft, 255)) << 32)
+                | ((long) bound << 40)
+                | ((long) (move < 0 ? NO_MOVE : move) << 42)
+                | ((long) generation << 46);
+        if (old != MISS) {
+            overwrites++;
+        }
+        stores++;
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+
+    // Accesseurs sur les données compactées
+    public static float value(long entry) {
+        return Float.intBitsToFloat((int) entry);
+    }
+
+    public static int draft(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    // Meilleur coup enregistré (index du pit), -1 si aucun
+    public static int move(long entry) {
+        int move = (int) (entry >>> 42) & 0xF;
+        return move == NO_MOVE ? -1 : move;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 46) & 0xFF;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getCollisions() {
+        return collisions;
+    }
+
+    public long getStores() {
+        return stores;
+    }
+
+    public long getOverwrites() {
+        return overwrites;
+    }
+
+    public void resetStatistics() {
+        probes = hits = misses = collisions = stores = overwrites = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TT[" + capacity() + " entries] probes=" + probes + " hits=" + hits + " misses=" + misses
+                + " collisions=" + collisions + " stores=" + stores + " overwrites=" + overwrites;
+    }
+}
@@ -0,0 +1,61 @@
+package GameSearch.mancala;
+
+import java.util.SplittableRandom;
+
+// Clés de Zobrist du plateau Mancala : une clé aléatoire par couple (pit, nombre de graines)
+// La graine du générateur est fixe pour que les clés restent stables d'une exécution à l'autre
+public final class Zobrist {
+    public static final int MAX_SEEDS = 63; // Nombre maximal de graines par pit (6 bits)
+
+    private static final long[][] PIT_KEYS = new long[14][MAX_SEEDS + 1];
+    private static final long SIDE_KEY; // Clé ajoutée quand le joueur HUMAN est au trait
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x4D414E43414C41L);
+        for (int pit = 0; pit < 14; pit++) {
+            for (int seeds = 0; seeds <= MAX_SEEDS; seeds++) {
+                PIT_KEYS[pit][seeds] = random.nextLong();
+            }
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    // Clé associée à un pit contenant un certain nombre de graines
+    public static long pitKey(int pit, int seeds) {
+        return PIT_KEYS[pit][seeds];
+    }
+
+    // Clé associée au joueur au trait
+    public static long sideKey(boolean player) {
+        return player ? SIDE_KEY : 0L;
+    }
+
+    // Calcule la clé complète d'un plateau (sans le joueur au trait)
+    public static long hash(int[] board) {
+        long hash = 0L;
+        for (int pit = 0; pit < 14; pit++) {
+            hash ^= PIT_KEYS[pit][board[pit]];
+        }
+        return hash;
+    }
+
+    // Clé d'un plateau compact (même valeur que hash(position.board))
+    public static long hash(PackedPosition position) {
+        long low = position.low;
+        long high = position.high;
+        long hash = 0L;
+        for (int pit = 0; pit < 7; pit++) {
+            hash ^= PIT_KEYS[pit][(int) (low >>> (6 * pit)) & MAX_SEEDS]
+                    ^ PIT_KEYS[pit + 7][(int) (high >>> (6 * pit)) & MAX_SEEDS];
+        }
+        return hash;
+    }
+
+    // Mise à jour incrémentale quand le contenu d'un pit passe de before à after
+    public static long update(long hash, int pit, int before, int after) {
+        return hash ^ PIT_KEYS[pit][before] ^ PIT_KEYS[pit][after];
+    }
+}
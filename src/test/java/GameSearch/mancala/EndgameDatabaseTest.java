@@ -0,0 +1,71 @@
+package GameSearch.mancala;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Base de finales : niveaux générés égaux à la résolution exacte de MancalaEngine, et rang des
+// répartitions (index, unindex, next) cohérent sur un niveau entier
+class EndgameDatabaseTest {
+    private static final int SEEDS = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void probeMatchesEngineSolve() throws Exception {
+        new EndgameGenerator(directory).generate(SEEDS, new ForkJoinPool(2));
+        EndgameDatabase database = EndgameDatabase.open(directory);
+        assertEquals(SEEDS, database.getMaxSeeds());
+
+        MancalaEngine engine = new MancalaEngine();
+        engine.setTranspositionTable(new TranspositionTable(16));
+        Random random = new Random(13L);
+        int checked = 0;
+        while (checked < 2000) {
+            int[] board = new int[14];
+            int seeds = random.nextInt(SEEDS + 1);
+            for (int i = 0; i < seeds; i++) {
+                int pit = random.nextInt(12);
+                board[pit < 6 ? pit : pit + 1]++;
+            }
+            int stores = 48 - seeds;
+            board[MancalaPosition.HUMAN_MANCALA] = random.nextInt(stores + 1);
+            board[MancalaPosition.PROGRAM_MANCALA] = stores - board[MancalaPosition.HUMAN_MANCALA];
+            if (Mancala.isTerminal(board)) {
+                continue;
+            }
+            boolean player = random.nextBoolean();
+            assertTrue(database.covers(board));
+            engine.setPosition(board.clone());
+            assertEquals(engine.solve(player, 0), database.probe(board, player),
+                    Arrays.toString(board) + (player ? " human" : " program"));
+            checked++;
+        }
+    }
+
+    @Test
+    void indexRoundTripsOverALevel() {
+        int[] pits = new int[EndgameDatabase.PITS];
+        int[] decoded = new int[EndgameDatabase.PITS];
+        pits[EndgameDatabase.PITS - 1] = SEEDS; // Première répartition dans l'ordre lexicographique
+        int size = EndgameDatabase.size(SEEDS);
+        for (int index = 0; index < size; index++) {
+            assertEquals(index, EndgameDatabase.index(pits, SEEDS), Arrays.toString(pits));
+            EndgameDatabase.unindex(index, SEEDS, decoded);
+            assertArrayEquals(pits, decoded, "index " + index);
+            boolean more = EndgameDatabase.next(pits);
+            assertEquals(index < size - 1, more, "index " + index);
+        }
+        assertFalse(EndgameDatabase.next(pits));
+    }
+}
@@ -0,0 +1,82 @@
+package GameSearch.mancala;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Journal des parties : une partie interrompue, à n'importe quel octet, est close à la réouverture avec
+// ses coups entiers, les parties précédentes sont gardées et les suivantes restent lisibles
+class GameRecordAppenderTest {
+    private static final int[] MOVES = {2, 5, 9, 0, 12};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversEveryTruncation() throws IOException {
+        Path complete = directory.resolve("complete.mnc");
+        try (GameRecordAppender appender = GameRecordAppender.open(complete)) {
+            appender.begin(null, GameSearch.HUMAN);
+            for (int pit : MOVES) {
+                appender.append(pit);
+            }
+        }
+        long size = Files.size(complete);
+        int header = GameRecord.HEADER_SIZE;
+        for (long length = header; length < size; length++) {
+            Path file = directory.resolve("torn" + length + ".mnc");
+            Files.copy(complete, file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+            }
+            try (GameRecordAppender appender = GameRecordAppender.open(file)) {
+                appender.begin(null, GameSearch.PROGRAM);
+                appender.append(7);
+            }
+            List<GameRecord> records = GameRecordReader.readAll(file);
+            assertEquals(2, records.size(), "truncated to " + length + " bytes");
+            int kept = (int) Math.min(length - header, MOVES.length);
+            assertEquals(kept, records.get(0).size(), "truncated to " + length + " bytes");
+            for (int i = 0; i < kept; i++) {
+                assertEquals(MOVES[i], records.get(0).move(i));
+            }
+            assertEquals(1, records.get(1).size());
+        }
+    }
+
+    // Journal de plusieurs blocs de lecture : des enregistrements chevauchent la fin des blocs, seule la
+    // dernière partie est interrompue
+    @Test
+    void keepsEveryGameOfALongLog() throws IOException {
+        Path file = directory.resolve("long.mnc");
+        int games = 5000;
+        try (GameRecordAppender appender = GameRecordAppender.open(file)) {
+            for (int game = 0; game < games; game++) {
+                appender.begin(null, game % 2 == 0);
+                for (int i = 0; i < 1 + game % 23; i++) {
+                    appender.append(MOVES[(game + i) % MOVES.length]);
+                }
+            }
+        }
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 2); // Somme de contrôle de la dernière partie tronquée
+        }
+        try (GameRecordAppender appender = GameRecordAppender.open(file)) {
+            appender.begin(null, GameSearch.HUMAN);
+        }
+        List<GameRecord> records = GameRecordReader.readAll(file);
+        assertEquals(games + 1, records.size());
+        for (int game = 0; game < games; game++) {
+            assertEquals(1 + game % 23, records.get(game).size(), "game " + game);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package GameSearch.mancala;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Évaluation incrémentale : identique au bit près à Mancala.evaluate sur des parties aléatoires,
+// et recherches identiques avec et sans elle
+class IncrementalEvaluationTest {
+
+    @Test
+    void bitIdenticalToFullEvaluation() {
+        EvaluationWeights other = EvaluationWeights.parse("1/0.5/2/0.25/3");
+        for (EvaluationWeights weights : new EvaluationWeights[]{EvaluationWeights.DEFAULT, other}) {
+            Mancala game = new Mancala(null);
+            IncrementalEvaluation incremental = new IncrementalEvaluation();
+            Random random = new Random(17L);
+            for (int gameIndex = 0; gameIndex < 2000; gameIndex++) {
+                MancalaPosition position = new MancalaPosition();
+                incremental.reset(position.board);
+                boolean player = random.nextBoolean();
+                while (true) {
+                    int[] before = position.board.clone();
+                    boolean over = game.drawnPosition(position); // Ramassage de fin de partie
+                    if (!over) {
+                        int start = player ? 0 : 7;
+                        int pit;
+                        do {
+                            pit = start + random.nextInt(6);
+                        } while (position.board[pit] == 0);
+                        game.makeMove(position, player, new MancalaMove(pit));
+                        if (!position.extraTurn) {
+                            player = !player;
+                        }
+                    }
+                    int changed = 0;
+                    for (int pit = 0; pit < 14; pit++) {
+                        if (before[pit] != position.board[pit]) changed |= 1 << pit;
+                    }
+                    incremental.changed(changed);
+                    assertEquals(Float.floatToRawIntBits(Mancala.evaluate(position.board, weights)),
+                            Float.floatToRawIntBits(incremental.value(position.board, weights)),
+                            "game " + gameIndex);
+                    if (over) break;
+                }
+            }
+        }
+    }
+
+    @Test
+    void searchUnchangedByIncrementalEvaluation() {
+        MancalaEngine full = new MancalaEngine();
+        MancalaEngine incremental = new MancalaEngine();
+        incremental.setIncrementalEvaluation(true);
+        for (PositionSuite.Entry entry : PositionSuite.random(19L, 50)) {
+            full.setPosition(entry.position());
+            incremental.setPosition(entry.position());
+            float expected = full.search(0, 7, entry.player);
+            assertEquals(Float.floatToRawIntBits(expected),
+                    Float.floatToRawIntBits(incremental.search(0, 7, entry.player)), entry.name);
+            assertEquals(full.getNodeCount(), incremental.getNodeCount(), entry.name);
+            assertEquals(full.getBestMove(), incremental.getBestMove(), entry.name);
+        }
+    }
+}
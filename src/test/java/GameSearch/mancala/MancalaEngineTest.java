@@ -0,0 +1,122 @@
+package GameSearch.mancala;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Recherche en place (MancalaEngine) : coups joués puis annulés, et tours supplémentaires traités
+// comme dans la recherche historique de GameSearch (même joueur, pas de négation)
+class MancalaEngineTest {
+
+    // Après une recherche, plateau et clé sont ceux de la position chargée, dans tous les modes
+    @Test
+    void searchRestoresBoardAndHash() {
+        MancalaEngine engine = new MancalaEngine();
+        engine.setTranspositionTable(new TranspositionTable(16));
+        for (MancalaEngine.ExtraTurnMode mode : MancalaEngine.ExtraTurnMode.values()) {
+            engine.setExtraTurnMode(mode);
+            for (PositionSuite.Entry entry : PositionSuite.random(3L, 100)) {
+                MancalaPosition position = entry.position();
+                engine.setPosition(position);
+                engine.search(0, 6, entry.player);
+                assertArrayEquals(position.board, engine.board(), entry.name + " " + mode);
+                assertEquals(position.hash, engine.hash(), entry.name + " " + mode);
+                engine.solve(entry.player, 20_000); // Coups et ramassages de la résolution exacte
+                assertArrayEquals(position.board, engine.board(), entry.name + " " + mode + " solve");
+                assertEquals(position.hash, engine.hash(), entry.name + " " + mode + " solve");
+            }
+        }
+    }
+
+    // Résolution exacte : mêmes marges et mêmes issues (fenêtre (-1, 1)) avec et sans l'élagage par les
+    // bornes des graines restantes, et le meilleur coup atteint une position de même marge
+    @Test
+    void solveBoundsKeepMarginsAndBestMoves() {
+        Mancala game = new Mancala(null);
+        MancalaEngine engine = new MancalaEngine();
+        TranspositionTable table = new TranspositionTable(16);
+        engine.setTranspositionTable(table);
+        for (PositionSuite.Entry entry : PositionSuite.endgames(31L, 16, 50)) {
+            int[] margins = new int[2];
+            int[] outcomes = new int[2];
+            for (int bounds = 0; bounds < 2; bounds++) {
+                engine.setBoundPruning(bounds == 1);
+                table.clear();
+                engine.setPosition(entry.position());
+                outcomes[bounds] = Integer.signum(engine.solve(entry.player, -1, 1, 0));
+                table.clear();
+                engine.setPosition(entry.position());
+                margins[bounds] = engine.solve(entry.player, 0);
+            }
+            assertEquals(margins[0], margins[1], entry.name + " margin");
+            assertEquals(outcomes[0], outcomes[1], entry.name + " outcome");
+            assertEquals(Integer.signum(margins[1]), outcomes[1], entry.name + " outcome sign");
+
+            int pit = engine.getBestMove();
+            MancalaPosition child = entry.position();
+            game.makeMove(child, entry.player, new MancalaMove(pit));
+            boolean next = child.extraTurn ? entry.player : !entry.player;
+            table.clear();
+            engine.setPosition(child);
+            int value = engine.solve(next, 0);
+            assertEquals(margins[1], next == entry.player ? value : -value, entry.name + ", pit " + pit);
+        }
+    }
+
+    // À profondeur fixe et sans table, la recherche en place (SAME_SIDE) trouve le même score et le même
+    // coup que la recherche historique par copies de positions, en visitant autant de nœuds, dans les deux
+    // ordres des coups
+    @Test
+    void sameSideMatchesLegacySearch() {
+        List<PositionSuite.Entry> corpus = PositionSuite.random(11L, 60);
+        corpus.addAll(PositionSuite.fixed());
+        for (MoveOrdering.Mode mode : MoveOrdering.Mode.values()) {
+            Mancala game = new Mancala(null);
+            game.setInPlaceSearch(false);
+            game.setDifficulty(Mancala.Difficulty.MEDIUM);
+            game.getMoveOrdering().setMode(mode);
+            MancalaEngine engine = new MancalaEngine();
+            engine.getMoveOrdering().setMode(mode);
+            for (PositionSuite.Entry entry : corpus) {
+                MancalaPosition position = entry.position();
+                List<Object> legacy = game.alphaBeta(0, position, entry.player);
+                engine.setPosition(entry.position());
+                float score = engine.search(0, game.maxDepth(position), entry.player);
+                String name = entry.name + " (" + mode + ")";
+                assertEquals((Float) legacy.get(0), score, 0.0f, name);
+                assertEquals(game.moveIndex((Position) legacy.get(1)), engine.getBestMove(), name);
+                assertEquals(game.getNodeCount(), engine.getNodeCount(), name);
+            }
+        }
+    }
+
+    // Future.cancel(true) interrompt le thread : la recherche s'arrête comme sur le drapeau d'arrêt
+    // et libère le thread du pool (EngineServer, recherche sans résultat après STOP_GRACE)
+    @Test
+    void interruptStopsSearch() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            MancalaEngine engine = new MancalaEngine();
+            engine.setTranspositionTable(new TranspositionTable(16));
+            engine.setStopFlag(new AtomicBoolean());
+            engine.setPosition(new MancalaPosition());
+            Future<Float> future = pool.submit(
+                    () -> engine.searchIterative(0, GameSearch.PROGRAM, SearchLimits.depth(SearchLimits.MAX_DEPTH)));
+            Thread.sleep(100);
+            assertTrue(future.cancel(true));
+            assertEquals(1, pool.submit(() -> 1).get(5, TimeUnit.SECONDS));
+            assertTrue(engine.wasAborted());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package GameSearch.mancala;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// PackedPosition contre la référence MancalaPosition / Mancala.makeMove, sur des parties aléatoires
+class PackedPositionTest {
+
+    @Test
+    void playMatchesMakeMove() {
+        Mancala game = new Mancala(null);
+        Random random = new Random(23L);
+        int[] board = new int[14];
+        for (int gameIndex = 0; gameIndex < 2000; gameIndex++) {
+            MancalaPosition position = new MancalaPosition();
+            boolean player = random.nextBoolean();
+            while (!Mancala.isTerminal(position.board)) {
+                PackedPosition packed = PackedPosition.of(position);
+                assertEquals(Mancala.isTerminal(position.board), packed.isTerminal());
+                int start = player ? 0 : 7;
+                for (int pit = start; pit < start + 6; pit++) {
+                    // Chaque coup jouable, comparé plateau et tour supplémentaire compris
+                    if (position.board[pit] == 0) continue;
+                    MancalaPosition child = position.clone();
+                    game.makeMove(child, player, new MancalaMove(pit));
+                    PackedPosition packedChild = packed.copy();
+                    boolean extraTurn = packedChild.play(pit, player);
+                    packedChild.copyTo(board);
+                    assertArrayEquals(child.board, board, "game " + gameIndex + ", pit " + pit);
+                    assertEquals(child.extraTurn, extraTurn, "game " + gameIndex + ", pit " + pit);
+                }
+                int pit;
+                do {
+                    pit = start + random.nextInt(6);
+                } while (position.board[pit] == 0);
+                game.makeMove(position, player, new MancalaMove(pit));
+                if (!position.extraTurn) {
+                    player = !player;
+                }
+            }
+        }
+    }
+
+    @Test
+    void sweepAndSideSeedsMatchReference() {
+        Mancala game = new Mancala(null);
+        for (PositionSuite.Entry entry : PositionSuite.random(29L, 500)) {
+            MancalaPosition position = entry.position();
+            PackedPosition packed = PackedPosition.of(position);
+            int human = 0;
+            int program = 0;
+            for (int pit = 0; pit < 6; pit++) {
+                human += position.board[pit];
+                program += position.board[7 + pit];
+            }
+            assertEquals(human, packed.sideSeeds(GameSearch.HUMAN), entry.name);
+            assertEquals(program, packed.sideSeeds(GameSearch.PROGRAM), entry.name);
+
+            // Ramassage : comparé à Mancala.drawnPosition sur la même position vidée d'un côté
+            for (int side = 0; side < 14; side += 7) {
+                MancalaPosition emptied = entry.position();
+                for (int pit = side; pit < side + 6; pit++) {
+                    emptied.board[pit] = 0;
+                }
+                PackedPosition swept = PackedPosition.of(emptied);
+                assertTrue(swept.isTerminal(), entry.name);
+                game.drawnPosition(emptied);
+                swept.sweep();
+                assertArrayEquals(emptied.board, swept.toPosition().board, entry.name);
+            }
+        }
+    }
+
+    @Test
+    void conversionsRoundTrip() {
+        for (PositionSuite.Entry entry : PositionSuite.random(31L, 200)) {
+            MancalaPosition position = entry.position();
+            MancalaPosition back = PackedPosition.of(position).toPosition();
+            assertArrayEquals(position.board, back.board, entry.name);
+            assertEquals(position.hash, back.hash, entry.name);
+            assertEquals(PackedPosition.of(position), PackedPosition.of(position.board), entry.name);
+        }
+    }
+
+    // Plateaux saisis : un pit négatif ou plus de 48 graines déborderaient sur le champ voisin
+    @Test
+    void checkBoardRejectsUnrepresentableBoards() {
+        PackedPosition.checkBoard(new MancalaPosition().board);
+        PackedPosition.checkBoard(new int[]{48, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+        assertThrows(IllegalArgumentException.class,
+                () -> PackedPosition.checkBoard(new int[]{4, 4, 4, 4, 4, -1, 0, 4, 4, 4, 4, 4, 4, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> PackedPosition.checkBoard(new int[]{4, 4, 4, 4, 4, 5, 0, 4, 4, 4, 4, 4, 4, 0}));
+    }
+}
@@ -0,0 +1,24 @@
+package GameSearch.mancala;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Recherche parallèle : la limite de nœuds est respectée pendant les itérations, pas seulement entre elles
+class ParallelSearchTest {
+    @Test
+    void nodeLimitBoundsEachIteration() {
+        try (ParallelSearch search = new ParallelSearch(2, new TranspositionTable(16))) {
+            for (PositionSuite.Entry entry : PositionSuite.random(3L, 20)) {
+                for (long maxNodes : new long[]{5_000L, 50_000L}) {
+                    search.searchIterative(entry.position(), entry.player, 0, SearchLimits.nodes(maxNodes));
+                    // Dépassement permis : pas de vérification des moteurs (1024 nœuds) par coup de la racine,
+                    // plus la première itération, toujours menée à terme
+                    long slack = 6 * 1024L + 64;
+                    assertTrue(search.getNodeCount() <= maxNodes + slack,
+                            entry.name + ": " + search.getNodeCount() + " nodes for a limit of " + maxNodes);
+                }
+            }
+        }
+    }
+}
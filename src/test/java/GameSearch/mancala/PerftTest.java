@@ -0,0 +1,58 @@
+package GameSearch.mancala;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Perft : comptes connus depuis la position initiale, et comptage rapide (PackedPosition, vol de tâches,
+// cache) égal au comptage de référence par Mancala.makeMove
+class PerftTest {
+    // Feuilles depuis la position initiale, HUMAN au trait, pour depth = 0, 1, 2...
+    private static final long[] START_COUNTS = {1, 6, 35, 185, 942, 4685, 23169, 113959, 559885};
+
+    @Test
+    void startPositionCounts() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int cacheBits : new int[]{0, 16}) {
+                Perft perft = new Perft(pool, cacheBits);
+                for (int depth = 0; depth < START_COUNTS.length; depth++) {
+                    assertEquals(START_COUNTS[depth], perft.count(new MancalaPosition(), GameSearch.HUMAN, depth),
+                            "depth " + depth + ", cache 2^" + cacheBits);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void matchesReferenceOnRandomPositions() {
+        Mancala game = new Mancala(null);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Perft perft = new Perft(pool, 12);
+            for (PositionSuite.Entry entry : PositionSuite.random(5L, 40)) {
+                MancalaPosition position = entry.position();
+                long[] counts = perft.divide(position, entry.player, 5);
+                int start = entry.player ? 0 : 7;
+                for (int pit = start; pit < start + 6; pit++) {
+                    if (position.board[pit] == 0) {
+                        assertEquals(-1L, counts[pit], entry.name + ", pit " + pit);
+                        continue;
+                    }
+                    MancalaPosition child = position.clone();
+                    game.makeMove(child, entry.player, new MancalaMove(pit));
+                    boolean next = child.extraTurn ? entry.player : !entry.player;
+                    assertEquals(Perft.reference(game, child, next, 4), counts[pit], entry.name + ", pit " + pit);
+                }
+                assertEquals(Perft.reference(game, entry.position(), entry.player, 5),
+                        perft.count(position, entry.player, 5), entry.name);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
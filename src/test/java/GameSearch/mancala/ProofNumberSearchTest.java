@@ -0,0 +1,95 @@
+package GameSearch.mancala;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Preuves de ProofNumberSearch sur de petites finales : même issue que MancalaEngine.solve, coup prouvé
+// qui conserve la valeur, budget de solve respecté, et preuve interrompue puis reprise identique
+class ProofNumberSearchTest {
+    private static final int SEEDS = 12;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void matchesEngineSolve() {
+        Mancala game = new Mancala(null);
+        MancalaEngine engine = new MancalaEngine();
+        engine.setTranspositionTable(new TranspositionTable(16));
+        for (PositionSuite.Entry entry : PositionSuite.endgames(37L, SEEDS, 100)) {
+            engine.setPosition(entry.position());
+            int margin = engine.solve(entry.player, 0);
+            ProofNumberSearch search = new ProofNumberSearch(entry.position(), entry.player, 16);
+            ProofNumberSearch.Outcome outcome = search.solve();
+            assertEquals(outcome(margin), outcome, entry.name);
+            if (outcome == ProofNumberSearch.Outcome.LOSS) {
+                continue;
+            }
+            // Le coup prouvé conserve la valeur de la position
+            MancalaPosition child = entry.position();
+            game.makeMove(child, entry.player, new MancalaMove(search.getBestMove()));
+            boolean next = child.extraTurn ? entry.player : !entry.player;
+            engine.setPosition(child);
+            int value = engine.solve(next, 0);
+            assertEquals(Integer.signum(margin), Integer.signum(next == entry.player ? value : -value),
+                    entry.name + ", pit " + search.getBestMove());
+        }
+    }
+
+    @Test
+    void solveStaysWithinItsNodeBudget() {
+        int interrupted = 0;
+        for (PositionSuite.Entry entry : PositionSuite.endgames(43L, 20, 20)) {
+            ProofNumberSearch search = new ProofNumberSearch(entry.position(), entry.player, 16);
+            search.setLimits(6000, 0);
+            if (search.solve() == ProofNumberSearch.Outcome.UNKNOWN) {
+                interrupted++;
+            }
+            // Budget vérifié toutes les 4096 expansions, pour les deux preuves ensemble
+            assertTrue(search.getNodeCount() <= 6000 + 4096, entry.name + ": " + search.getNodeCount());
+        }
+        assertTrue(interrupted > 0, "no proof reached the budget");
+    }
+
+    @Test
+    void resumedProofGivesSameOutcome() throws IOException {
+        // Finale la plus longue à prouver du corpus ; à SEEDS graines, les preuves tiennent en moins de
+        // 4096 expansions et ne peuvent pas être interrompues
+        PositionSuite.Entry hardest = null;
+        ProofNumberSearch.Outcome reference = null;
+        long total = 0;
+        for (PositionSuite.Entry entry : PositionSuite.endgames(43L, 20, 20)) {
+            ProofNumberSearch search = new ProofNumberSearch(entry.position(), entry.player, 16);
+            ProofNumberSearch.Outcome outcome = search.solve();
+            if (search.getNodeCount() > total) {
+                hardest = entry;
+                reference = outcome;
+                total = search.getNodeCount();
+            }
+        }
+        assertTrue(total > 2 * 4096, "no endgame long enough to interrupt: " + total + " nodes");
+
+        Path checkpoint = directory.resolve("proof.ckpt");
+        ProofNumberSearch first = new ProofNumberSearch(hardest.position(), hardest.player, 16);
+        first.setCheckpoint(checkpoint, 60);
+        first.setLimits(total / 2, 0);
+        assertEquals(ProofNumberSearch.Outcome.UNKNOWN, first.solve(), hardest.name);
+
+        ProofNumberSearch resumed = new ProofNumberSearch(hardest.position(), hardest.player, 16);
+        resumed.setCheckpoint(checkpoint, 60);
+        assertTrue(resumed.getNodeCount() > 0, "checkpoint not reloaded");
+        assertEquals(reference, resumed.solve(), hardest.name);
+    }
+
+    private static ProofNumberSearch.Outcome outcome(int margin) {
+        return margin > 0 ? ProofNumberSearch.Outcome.WIN
+                : margin == 0 ? ProofNumberSearch.Outcome.DRAW : ProofNumberSearch.Outcome.LOSS;
+    }
+}